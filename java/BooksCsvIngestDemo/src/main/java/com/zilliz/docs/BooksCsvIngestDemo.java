@@ -0,0 +1,344 @@
+package com.zilliz.docs;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.milvus.client.MilvusServiceClient;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.FlushResponse;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.ConnectParam;
+import io.milvus.param.IndexType;
+import io.milvus.param.MetricType;
+import io.milvus.param.R;
+import io.milvus.param.RpcStatus;
+import io.milvus.param.collection.CreateCollectionParam;
+import io.milvus.param.collection.DropCollectionParam;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.collection.FlushParam;
+import io.milvus.param.collection.LoadCollectionParam;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.InsertParam.Field;
+import io.milvus.param.index.CreateIndexParam;
+import io.milvus.response.MutationResultWrapper;
+
+/**
+ * Ingests books.csv into a collection with a typed schema.
+ */
+public final class BooksCsvIngestDemo {
+    private static final int BATCH_SIZE = 2000;
+
+    private BooksCsvIngestDemo() {
+    }
+
+    /**
+     * Parses books.csv on its own, then parses and inserts it in pipelined batches, and prints the rows per
+     * second of both.
+     * @param args The arguments of the program.
+     */
+    public static void main(String[] args) throws Exception {
+        String clusterEndpoint = "YOUR_CLUSTER_ENDPOINT";
+        String token = "YOUR_CLUSTER_TOKEN";
+        String collectionName = "books";
+        String data_file = System.getProperty("user.dir") + "/books.csv";
+
+        // 1. Connect to Zilliz Cloud cluster
+        ConnectParam connectParam = ConnectParam.newBuilder()
+            .withUri(clusterEndpoint)
+            .withToken(token)
+            .build();
+
+        MilvusServiceClient client = new MilvusServiceClient(connectParam);
+
+        System.out.println("Connected to Zilliz Cloud!");
+
+        // Output:
+        // Connected to Zilliz Cloud!
+
+
+
+
+
+        // 2. Define fields
+
+        FieldType id = FieldType.newBuilder()
+            .withName("id")
+            .withDataType(DataType.Int64)
+            .withPrimaryKey(true)
+            .withAutoID(false)
+            .build();
+
+        FieldType title = FieldType.newBuilder()
+            .withName("title")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(512)
+            .build();
+
+        FieldType authors = FieldType.newBuilder()
+            .withName("authors")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(1024)
+            .build();
+
+        FieldType average_rating = FieldType.newBuilder()
+            .withName("average_rating")
+            .withDataType(DataType.Float)
+            .build();
+
+        FieldType isbn13 = FieldType.newBuilder()
+            .withName("isbn13")
+            .withDataType(DataType.Int64)
+            .build();
+
+        FieldType language_code = FieldType.newBuilder()
+            .withName("language_code")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(16)
+            .build();
+
+        FieldType num_pages = FieldType.newBuilder()
+            .withName("num_pages")
+            .withDataType(DataType.Int64)
+            .build();
+
+        FieldType ratings_count = FieldType.newBuilder()
+            .withName("ratings_count")
+            .withDataType(DataType.Int64)
+            .build();
+
+        // A date such as 9/16/2006 is stored as 20060916
+        FieldType publication_date = FieldType.newBuilder()
+            .withName("publication_date")
+            .withDataType(DataType.Int64)
+            .build();
+
+        FieldType publisher = FieldType.newBuilder()
+            .withName("publisher")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(256)
+            .build();
+
+        // A collection needs a vector field, and books.csv has no embeddings, so each book gets a
+        // two-dimensional vector of its rating and of how many ratings it has
+        FieldType rating_vector = FieldType.newBuilder()
+            .withName("rating_vector")
+            .withDataType(DataType.FloatVector)
+            .withDimension(2)
+            .build();
+
+        // 3. Create collection
+
+        CreateCollectionParam createCollectionParam = CreateCollectionParam.newBuilder()
+            .withCollectionName(collectionName)
+            .withDescription("Schema of books.csv")
+            .addFieldType(id)
+            .addFieldType(title)
+            .addFieldType(authors)
+            .addFieldType(average_rating)
+            .addFieldType(isbn13)
+            .addFieldType(language_code)
+            .addFieldType(num_pages)
+            .addFieldType(ratings_count)
+            .addFieldType(publication_date)
+            .addFieldType(publisher)
+            .addFieldType(rating_vector)
+            .build();
+
+        R<RpcStatus> collection = client.createCollection(createCollectionParam);
+
+        if (collection.getException() != null) {
+            System.err.println("Failed to create collection: " + collection.getException().getMessage());
+            return;
+        }
+
+        System.out.println("Collection created!");
+
+        // Output:
+        // Collection created!
+
+
+
+
+
+        // 4. Create index
+
+        CreateIndexParam createIndexParam = CreateIndexParam.newBuilder()
+            .withCollectionName(collectionName)
+            .withFieldName("rating_vector")
+            .withIndexName("rating_vector_index")
+            .withIndexType(IndexType.AUTOINDEX)
+            .withMetricType(MetricType.L2)
+            .build();
+
+        R<RpcStatus> res = client.createIndex(createIndexParam);
+
+        if (res.getException() != null) {
+            System.err.println("Failed to create index: " + res.getException().getMessage());
+            return;
+        }
+
+        System.out.println("Index created!");
+
+        // Output:
+        // Index created!
+
+
+
+
+
+        // 5. Load collection
+
+        LoadCollectionParam loadCollectionParam = LoadCollectionParam.newBuilder()
+            .withCollectionName(collectionName)
+            .build();
+
+        R<RpcStatus> loadCollectionRes = client.loadCollection(loadCollectionParam);
+
+        if (loadCollectionRes.getException() != null) {
+            System.err.println("Failed to load collection: " + loadCollectionRes.getException().getMessage());
+            return;
+        }
+
+        System.out.println("Collection loaded!");
+
+        // Output:
+        // Collection loaded!
+
+
+
+
+
+        // 6. Read a local file and parse it without inserting anything
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(Path.of(data_file));
+        } catch (Exception e) {
+            System.err.println("Failed to read file: " + e.getMessage());
+            return;
+        }
+
+        long parseStart = System.nanoTime();
+        BooksCsvReader parseOnly = new BooksCsvReader(bytes);
+        int parsed = 0;
+        BookBatch batch;
+        while ((batch = parseOnly.next(BATCH_SIZE)) != null) {
+            parsed += batch.size();
+        }
+        long parseNanos = System.nanoTime() - parseStart;
+
+        System.out.println("Parsed " + parsed + " rows, skipped lines " + parseOnly.skippedLines());
+        System.out.printf("Parse only: %.0f rows/s%n", parsed / (parseNanos / 1e9));
+
+        // Output:
+        // Parsed 11125 rows, skipped lines [8182, 11100]
+        // Parse only: 94724 rows/s
+
+
+
+
+
+        // 7. Insert in pipelined batches
+        // The next batch is parsed on another thread while the current one is being inserted
+
+        BooksCsvReader reader = new BooksCsvReader(bytes);
+        ExecutorService parser = Executors.newSingleThreadExecutor();
+        long insertStart = System.nanoTime();
+        long inserted = 0;
+        try {
+            Future<BookBatch> next = parser.submit(() -> reader.next(BATCH_SIZE));
+            while ((batch = next.get()) != null) {
+                next = parser.submit(() -> reader.next(BATCH_SIZE));
+
+                InsertParam insertParam = InsertParam.newBuilder()
+                    .withCollectionName(collectionName)
+                    .withFields(getFields(batch))
+                    .build();
+
+                R<MutationResult> insertResponse = client.insert(insertParam);
+
+                if (insertResponse.getStatus() != R.Status.Success.getCode()) {
+                    System.err.println(insertResponse.getMessage());
+                    return;
+                }
+
+                inserted += new MutationResultWrapper(insertResponse.getData()).getInsertCount();
+            }
+        } finally {
+            parser.shutdownNow();
+        }
+        long insertNanos = System.nanoTime() - insertStart;
+
+        System.out.println("Successfully insert entities: " + inserted);
+        System.out.printf("End to end: %.0f rows/s%n", inserted / (insertNanos / 1e9));
+
+        // Output:
+        // Successfully insert entities: 11125
+        // End to end: ... rows/s, depending on the cluster and the network
+
+
+
+
+
+        List<String> collectionNames = new ArrayList<>();
+        collectionNames.add(collectionName);
+
+        FlushParam flushParam = FlushParam.newBuilder()
+            .withCollectionNames(collectionNames)
+            .build();
+
+        R<FlushResponse> flushResponse = client.flush(flushParam);
+
+        if (flushResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(flushResponse.getMessage());
+        }
+
+        // 8. Drop collection
+
+        DropCollectionParam dropCollectionParam = DropCollectionParam.newBuilder()
+            .withCollectionName(collectionName)
+            .build();
+
+        R<RpcStatus> dropCollectionRes = client.dropCollection(dropCollectionParam);
+
+        if (dropCollectionRes.getException() != null) {
+            System.err.println("Failed to drop collection: " + dropCollectionRes.getException().getMessage());
+            return;
+        }
+
+        System.out.println("Successfully drop collection");
+
+        // Output:
+        // Successfully drop collection
+
+
+
+
+
+    }
+
+    public static List<Field> getFields(BookBatch batch) {
+        List<Field> fields = new ArrayList<Field>();
+
+        for (String name : BooksCsvReader.FIELDS) {
+            fields.add(new Field(name, batch.column(name)));
+        }
+        fields.add(new Field("rating_vector", getRatingVectors(batch)));
+
+        return fields;
+    }
+
+    public static List<List<Float>> getRatingVectors(BookBatch batch) {
+        List<List<Float>> vectors = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            float[] vector = {batch.getAverageRating(i), (float) Math.log10(1 + batch.getRatingsCount(i))};
+            vectors.add(new FloatVector(vector));
+        }
+        return vectors;
+    }
+}
@@ -17,14 +17,12 @@ import io.milvus.response.SearchResultsWrapper;
 import io.milvus.common.clientenum.ConsistencyLevelEnum;
 import io.milvus.param.collection.LoadCollectionParam;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Hello world!
@@ -190,12 +188,12 @@ public final class ConductaRangeSearchDemo {
 
         // 6. Insert vectors
 
-        String content;
+        ArticleTable dataset;
 
         // read a local file
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            dataset = ArticleTable.load(file, 5979);
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
@@ -206,14 +204,31 @@ public final class ConductaRangeSearchDemo {
         // Output:
         // Successfully read file
 
+        // The title vectors can come from a .npy, .fvecs or .bvecs file instead, such as embeddings exported
+        // with numpy.save, by running with -Dvectors.file=<file>. It needs a 768-dimensional vector per row.
+        VectorSource vectors = null;
+        String vectors_file = System.getProperty("vectors.file");
+        if (vectors_file != null) {
+            try {
+                vectors = VectorFile.open(Path.of(vectors_file));
+            } catch (Exception e) {
+                System.err.println("Failed to read file: " + e.getMessage());
+                return;
+            }
+            if (vectors.dimension() != 768 || vectors.size() < dataset.size()) {
+                System.err.println(vectors_file + " has " + vectors.size() + " vectors of dimension "
+                    + vectors.dimension() + " rather than " + dataset.size() + " of dimension 768");
+                return;
+            }
+        }
+
 
 
 
 
         // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 5979);
-        List<Field> fields = getFields(dataset.getJSONArray("rows"), 5979);
+        List<JSONObject> rows = getRows(dataset, 5979);
+        List<Field> fields = getFields(dataset, vectors, 5979);
 
         InsertParam insertParam = InsertParam.newBuilder()
             .withCollectionName(collectionName)
@@ -238,19 +253,19 @@ public final class ConductaRangeSearchDemo {
 
 
         
-        // wait for a while
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
-        }  
+        // Wait until the inserted entities are visible to a search, rather than for a fixed time
+        R<RpcStatus> readyResponse = new CollectionReadiness(client, 60, TimeUnit.SECONDS)
+            .awaitSearchable(collectionName, mutationResultWrapper.getInsertCount());
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
+        }
 
         // 7. Search vectors
 
         List<List<Float>> queryVectors = new ArrayList<>();
-        List<Float> queryVector1 = rows.get(0).getJSONArray("title_vector").toJavaList(Float.class);
+        List<Float> queryVector1 = vectors != null ? vectors.get(0)
+            : rows.get(0).getJSONArray("title_vector").toJavaList(Float.class);
         queryVectors.add(queryVector1);
 
         List<String> outputFields = new ArrayList<>();
@@ -358,52 +373,27 @@ public final class ConductaRangeSearchDemo {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
-        List<JSONObject> rows = new ArrayList<JSONObject>();
-        for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            List<Float> vectors = row.getJSONArray("title_vector").toJavaList(Float.class);
-            Long reading_time = row.getLong("reading_time");
-            Long claps = row.getLong("claps");
-            Long responses = row.getLong("responses");
-            row.put("title_vector", vectors);
-            row.put("reading_time", reading_time);
-            row.put("claps", claps);
-            row.put("responses", responses);
-            row.remove("id");
-            rows.add(row);
-        }
-        return rows;
+    public static List<JSONObject> getRows(ArticleTable dataset, int counts) {
+        // each row is made from the table's columns when the SDK reads it
+        return dataset.rows(counts, "title", "link", "reading_time", "publication", "claps", "responses",
+            "title_vector");
     }
 
-    public static List<Field> getFields(JSONArray dataset, int counts) {
+    public static List<Field> getFields(ArticleTable dataset, int counts) {
+        return getFields(dataset, null, counts);
+    }
+
+    public static List<Field> getFields(ArticleTable dataset, VectorSource vectors, int counts) {
         List<Field> fields = new ArrayList<Field>();
-        List<String> titles = new ArrayList<String>();
-        List<List<Float>> title_vectors = new ArrayList<List<Float>>();
-        List<String> links = new ArrayList<String>();
-        List<Long> reading_times = new ArrayList<Long>();
-        List<String> publications = new ArrayList<String>();
-        List<Long> claps_list = new ArrayList<Long>();
-        List<Long> responses_list = new ArrayList<Long>();
-
-        for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            titles.add(row.getString("title"));
-            title_vectors.add(row.getJSONArray("title_vector").toJavaList(Float.class));
-            links.add(row.getString("link"));
-            reading_times.add(row.getLong("reading_time"));
-            publications.add(row.getString("publication"));
-            claps_list.add(row.getLong("claps"));
-            responses_list.add(row.getLong("responses"));
-        }
 
-        fields.add(new Field("title", titles));
-        fields.add(new Field("title_vector", title_vectors));
-        fields.add(new Field("link", links));
-        fields.add(new Field("reading_time", reading_times));
-        fields.add(new Field("publication", publications));
-        fields.add(new Field("claps", claps_list));
-        fields.add(new Field("responses", responses_list));
+        fields.add(new Field("title", dataset.column("title", counts)));
+        fields.add(new Field("title_vector", vectors != null
+            ? vectors.column(0, Math.min(counts, dataset.size())) : dataset.column("title_vector", counts)));
+        fields.add(new Field("link", dataset.column("link", counts)));
+        fields.add(new Field("reading_time", dataset.column("reading_time", counts)));
+        fields.add(new Field("publication", dataset.column("publication", counts)));
+        fields.add(new Field("claps", dataset.column("claps", counts)));
+        fields.add(new Field("responses", dataset.column("responses", counts)));
 
         return fields;        
     }
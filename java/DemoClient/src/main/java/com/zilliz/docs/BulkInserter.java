@@ -0,0 +1,190 @@
+package com.zilliz.docs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.milvus.client.MilvusClient;
+import io.milvus.grpc.IDs;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.R;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.InsertParam.Field;
+import io.milvus.param.dml.UpsertParam;
+
+/**
+ * Inserts or upserts the rows of one {@link InsertParam} in batches, keeping several batches in flight with
+ * {@link MilvusClient#insertAsync} or {@link MilvusClient#upsertAsync}.
+ *
+ * <p>One {@code client.insert} of every row serializes the whole request, sends it and waits for the server,
+ * each step idle while the other runs. With batches in flight, the next batch is built and sent while the
+ * server handles the ones before it. {@link #insert} returns what {@code client.insert} would: the batches'
+ * results merged in order, so {@code MutationResultWrapper} reads the insert count and the ids of every row,
+ * in the order of the rows.
+ *
+ * <p>A batch ends at a budget of bytes rather than only at a count of rows, since rows of long strings or
+ * large vectors can make a request of a few hundred rows larger than gRPC or the server accepts. The size of
+ * each row is estimated by {@link SerializedSize} as the batch is cut, while the batches before it are in
+ * flight. A row larger than the budget goes in a batch of its own.
+ */
+public final class BulkInserter {
+    private final MilvusClient client;
+    private final int maxBatchRows;
+    private final long maxBatchBytes;
+    private final int inFlight;
+
+    /**
+     * @param maxBatchBytes The estimated bytes a batch may take, such as 4 to 16 MB.
+     * @param inFlight How many batches may be waiting for the server at once.
+     */
+    public BulkInserter(MilvusClient client, long maxBatchBytes, int inFlight) {
+        this(client, Integer.MAX_VALUE, maxBatchBytes, inFlight);
+    }
+
+    /**
+     * @param maxBatchRows The rows a batch may have.
+     * @param maxBatchBytes The estimated bytes a batch may take, such as 4 to 16 MB.
+     * @param inFlight How many batches may be waiting for the server at once.
+     */
+    public BulkInserter(MilvusClient client, int maxBatchRows, long maxBatchBytes, int inFlight) {
+        if (maxBatchRows < 1 || maxBatchBytes < 1 || inFlight < 1) {
+            throw new IllegalArgumentException("maxBatchRows " + maxBatchRows + ", maxBatchBytes " + maxBatchBytes
+                + " and inFlight " + inFlight + " must be positive");
+        }
+        this.client = client;
+        this.maxBatchRows = maxBatchRows;
+        this.maxBatchBytes = maxBatchBytes;
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * Inserts the rows or fields of {@code param} into its collection and partition.
+     *
+     * <p>If a batch fails, no batch is sent after it and its response is returned once the batches already in
+     * flight have finished. The rows of the batches that succeeded stay inserted.
+     */
+    public R<MutationResult> insert(InsertParam param) {
+        return send(param, InsertParam::newBuilder, client::insertAsync);
+    }
+
+    /**
+     * Upserts the rows or fields of {@code param} into its collection and partition, as {@link #insert} inserts
+     * them.
+     */
+    public R<MutationResult> upsert(UpsertParam param) {
+        return send(param, UpsertParam::newBuilder, batch -> client.upsertAsync((UpsertParam) batch));
+    }
+
+    private R<MutationResult> send(InsertParam param, Supplier<InsertParam.Builder> builders,
+            Function<InsertParam, Future<R<MutationResult>>> request) {
+        int rows = param.getRowCount();
+        Deque<Future<R<MutationResult>>> pending = new ArrayDeque<>();
+        Deque<Integer> starts = new ArrayDeque<>();
+        MutationResult.Builder merged = MutationResult.newBuilder();
+        R<MutationResult> failure = null;
+        int next = 0;
+        while (failure == null && next < rows || !pending.isEmpty()) {
+            if (failure == null && next < rows && pending.size() < inFlight) {
+                int to = batchEnd(param, next, rows);
+                try {
+                    pending.add(request.apply(slice(param, builders.get(), next, to)));
+                    starts.add(next);
+                    next = to;
+                } catch (Exception e) {
+                    failure = R.failed(e);
+                }
+                continue;
+            }
+            R<MutationResult> response = get(pending.poll());
+            int start = starts.poll();
+            if (failure == null) {
+                if (response.getStatus() != R.Status.Success.getCode()) {
+                    failure = response;
+                } else {
+                    merge(merged, response.getData(), start);
+                }
+            }
+        }
+        return failure != null ? failure : R.success(merged.build());
+    }
+
+    /**
+     * Returns where the batch from row {@code from} ends: after as many rows as fit in the budget of bytes,
+     * and at least one.
+     */
+    int batchEnd(InsertParam param, int from, int rows) {
+        int limit = (int) Math.min(rows, (long) from + maxBatchRows);
+        int to = from;
+        long bytes = 0;
+        while (to < limit) {
+            long row = SerializedSize.row(param, to);
+            if (to > from && bytes + row > maxBatchBytes) {
+                break;
+            }
+            bytes += row;
+            to++;
+        }
+        return to;
+    }
+
+    /**
+     * Returns the rows {@code [from, to)} of {@code param} as built by {@code builder}, viewing its rows or the
+     * values of its fields.
+     */
+    static InsertParam slice(InsertParam param, InsertParam.Builder builder, int from, int to) {
+        builder.withCollectionName(param.getCollectionName());
+        if (param.getDatabaseName() != null) {
+            builder.withDatabaseName(param.getDatabaseName());
+        }
+        if (param.getPartitionName() != null) {
+            builder.withPartitionName(param.getPartitionName());
+        }
+        if (param.getRows() != null && !param.getRows().isEmpty()) {
+            return builder.withRows(param.getRows().subList(from, to)).build();
+        }
+        List<Field> fields = new ArrayList<>(param.getFields().size());
+        for (Field field : param.getFields()) {
+            fields.add(new Field(field.getName(), field.getValues().subList(from, to)));
+        }
+        return builder.withFields(fields).build();
+    }
+
+    /**
+     * Appends the result of the batch of rows from {@code start} to the results of the batches before it.
+     */
+    static void merge(MutationResult.Builder merged, MutationResult batch, int start) {
+        merged.setStatus(batch.getStatus());
+        merged.setInsertCnt(merged.getInsertCnt() + batch.getInsertCnt());
+        merged.setUpsertCnt(merged.getUpsertCnt() + batch.getUpsertCnt());
+        merged.setDeleteCnt(merged.getDeleteCnt() + batch.getDeleteCnt());
+        merged.setTimestamp(Math.max(merged.getTimestamp(), batch.getTimestamp()));
+        IDs ids = batch.getIDs();
+        if (ids.hasIntId()) {
+            merged.getIDsBuilder().getIntIdBuilder().addAllData(ids.getIntId().getDataList());
+        } else if (ids.hasStrId()) {
+            merged.getIDsBuilder().getStrIdBuilder().addAllData(ids.getStrId().getDataList());
+        }
+        for (int index : batch.getSuccIndexList()) {
+            merged.addSuccIndex(start + index);
+        }
+        for (int index : batch.getErrIndexList()) {
+            merged.addErrIndex(start + index);
+        }
+    }
+
+    private static R<MutationResult> get(Future<R<MutationResult>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return R.failed(e);
+        } catch (ExecutionException e) {
+            return R.failed(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        }
+    }
+}
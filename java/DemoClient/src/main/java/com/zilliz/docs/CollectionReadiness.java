@@ -0,0 +1,173 @@
+package com.zilliz.docs;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.milvus.client.MilvusClient;
+import io.milvus.common.clientenum.ConsistencyLevelEnum;
+import io.milvus.grpc.FlushResponse;
+import io.milvus.grpc.GetFlushStateResponse;
+import io.milvus.grpc.GetLoadingProgressResponse;
+import io.milvus.grpc.QueryResults;
+import io.milvus.param.R;
+import io.milvus.param.RpcStatus;
+import io.milvus.param.collection.GetLoadingProgressParam;
+import io.milvus.param.control.GetFlushStateParam;
+import io.milvus.param.dml.QueryParam;
+import io.milvus.response.QueryResultsWrapper;
+
+/**
+ * Waits until a collection is ready for what comes next: its segments flushed, it loaded, or the rows just
+ * inserted visible to a query, instead of sleeping for a fixed time after an insert or a flush.
+ *
+ * <p>Each wait asks the server as soon as it is called and then again after 50 ms, doubling up to 2 seconds
+ * between attempts, so it returns shortly after the collection is ready and does not flood the server while
+ * it is not. A wait that is not over by the deadline, counted from its call, fails with a message saying what
+ * it waited for. A failed call fails the wait at once.
+ */
+public final class CollectionReadiness {
+    private static final long FIRST_DELAY_MILLIS = 50;
+    private static final long MAX_DELAY_MILLIS = 2000;
+
+    private final MilvusClient client;
+    private final long timeoutNanos;
+    private final LongSupplier clock;
+    private final Sleeper sleeper;
+
+    /**
+     * @param timeout How long a wait may take before it fails.
+     */
+    public CollectionReadiness(MilvusClient client, long timeout, TimeUnit unit) {
+        this(client, unit.toNanos(timeout), System::nanoTime, TimeUnit.MILLISECONDS::sleep);
+    }
+
+    CollectionReadiness(MilvusClient client, long timeoutNanos, LongSupplier clock, Sleeper sleeper) {
+        this.client = client;
+        this.timeoutNanos = timeoutNanos;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Waits until the segments sealed by a flush are flushed. Pass the response of a flush made with
+     * {@code FlushParam.Builder.withSyncFlush(false)}, which returns at once rather than polling every 500 ms.
+     * Each collection is polled by its flush timestamp, so the segments sealed by later inserts are not waited
+     * for.
+     */
+    public R<RpcStatus> awaitFlushed(FlushResponse flush) {
+        for (Map.Entry<String, Long> flushTs : flush.getCollFlushTsMap().entrySet()) {
+            String collectionName = flushTs.getKey();
+            GetFlushStateParam built = GetFlushStateParam.newBuilder()
+                .withCollectionName(collectionName)
+                .withFlushTs(flushTs.getValue())
+                .build();
+            R<RpcStatus> flushed = poll(collectionName + " flushed", () -> {
+                R<GetFlushStateResponse> response = client.getFlushState(built);
+                return response.getStatus() != R.Status.Success.getCode()
+                    ? failure(response) : R.success(response.getData().getFlushed());
+            });
+            if (flushed.getStatus() != R.Status.Success.getCode()) {
+                return flushed;
+            }
+        }
+        return R.success(new RpcStatus(RpcStatus.SUCCESS_MSG));
+    }
+
+    /**
+     * Waits until a collection that is being loaded is loaded.
+     */
+    public R<RpcStatus> awaitLoaded(String collectionName) {
+        GetLoadingProgressParam param = GetLoadingProgressParam.newBuilder()
+            .withCollectionName(collectionName)
+            .build();
+        return poll(collectionName + " loaded", () -> {
+            R<GetLoadingProgressResponse> response = client.getLoadingProgress(param);
+            return response.getStatus() != R.Status.Success.getCode()
+                ? failure(response) : R.success(response.getData().getProgress() >= 100);
+        });
+    }
+
+    /**
+     * Waits until a {@code count(*)} query at the given consistency level counts at least {@code rows} rows,
+     * so a search or query at that level right after sees them too. The collection must be loaded.
+     */
+    public R<RpcStatus> awaitRowCount(String collectionName, long rows, ConsistencyLevelEnum consistencyLevel) {
+        QueryParam param = QueryParam.newBuilder()
+            .withCollectionName(collectionName)
+            .withExpr("")
+            .withOutFields(Collections.singletonList("count(*)"))
+            .withConsistencyLevel(consistencyLevel)
+            .build();
+        return poll(rows + " rows in " + collectionName, () -> {
+            R<QueryResults> response = client.query(param);
+            if (response.getStatus() != R.Status.Success.getCode()) {
+                return failure(response);
+            }
+            Object count = new QueryResultsWrapper(response.getData()).getFieldWrapper("count(*)")
+                .getFieldData().get(0);
+            return R.success(((Number) count).longValue() >= rows);
+        });
+    }
+
+    /**
+     * Waits until the collection is loaded and a bounded-staleness search, the consistency level the demos
+     * search at, sees at least {@code rows} rows.
+     */
+    public R<RpcStatus> awaitSearchable(String collectionName, long rows) {
+        R<RpcStatus> loaded = awaitLoaded(collectionName);
+        if (loaded.getStatus() != R.Status.Success.getCode()) {
+            return loaded;
+        }
+        return awaitRowCount(collectionName, rows, ConsistencyLevelEnum.BOUNDED);
+    }
+
+    /**
+     * Calls {@code ready} until it returns {@code true}, returns a failure or the deadline would pass before the
+     * next call.
+     */
+    R<RpcStatus> poll(String what, Supplier<R<Boolean>> ready) {
+        long start = clock.getAsLong();
+        long delay = FIRST_DELAY_MILLIS;
+        int attempts = 0;
+        while (true) {
+            R<Boolean> response;
+            try {
+                response = ready.get();
+            } catch (Exception e) {
+                return R.failed(e);
+            }
+            attempts++;
+            if (response.getStatus() != R.Status.Success.getCode()) {
+                return failure(response);
+            }
+            if (response.getData()) {
+                return R.success(new RpcStatus(RpcStatus.SUCCESS_MSG));
+            }
+            long elapsed = clock.getAsLong() - start;
+            if (elapsed + TimeUnit.MILLISECONDS.toNanos(delay) > timeoutNanos) {
+                return R.failed(R.Status.UnexpectedError, "Not " + what + " after " + attempts + " attempts in "
+                    + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+            }
+            try {
+                sleeper.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return R.failed(e);
+            }
+            delay = Math.min(delay * 2, MAX_DELAY_MILLIS);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> R<T> failure(R<?> response) {
+        // a failed response has no data, so it is one of any type
+        return (R<T>) response;
+    }
+
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
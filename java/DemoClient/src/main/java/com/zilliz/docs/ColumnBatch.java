@@ -0,0 +1,218 @@
+package com.zilliz.docs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.FloatArray;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.grpc.LongArray;
+import io.milvus.grpc.MsgBase;
+import io.milvus.grpc.MsgType;
+import io.milvus.grpc.ScalarField;
+import io.milvus.grpc.StringArray;
+import io.milvus.grpc.UpsertRequest;
+import io.milvus.grpc.VectorField;
+
+/**
+ * The columns of a batch of rows, built into the {@link FieldData} of an insert or upsert request straight from
+ * {@code long[]}, {@code float[]} and {@code String[]} columns, or from the {@link LongColumn} and
+ * {@link FloatVector} views of an {@link ArticleTable}, without boxing a value.
+ *
+ * <p>From rows or {@code InsertParam.Field} lists, the SDK asks the server for the collection's schema, then
+ * walks every row or value as an {@code Object} to find its type and copy it into the request. Here each column
+ * says its type, and the caller makes sure the names and types match the schema; the server rejects a request
+ * whose columns do not. {@link ColumnarMilvusClient} sends the request.
+ *
+ * <p>Every column holds the rows {@code [from, from + rows)} of the values it is given, so batches of a large
+ * table are cut by giving each the same arrays with a different {@code from}.
+ */
+public final class ColumnBatch {
+    private final String collectionName;
+    private final int rows;
+    private final List<FieldData> fields = new ArrayList<>();
+    private String databaseName = "";
+    private String partitionName = "";
+
+    public ColumnBatch(String collectionName, int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("rows " + rows + " is negative");
+        }
+        this.collectionName = collectionName;
+        this.rows = rows;
+    }
+
+    public ColumnBatch withDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+        return this;
+    }
+
+    public ColumnBatch withPartitionName(String partitionName) {
+        this.partitionName = partitionName;
+        return this;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public ColumnBatch addInt64(String name, long[] values, int from) {
+        checkRange(name, values.length, from);
+        LongArray.Builder column = LongArray.newBuilder();
+        for (int i = from; i < from + rows; i++) {
+            column.addData(values[i]);
+        }
+        return add(name, DataType.Int64, ScalarField.newBuilder().setLongData(column));
+    }
+
+    /**
+     * Adds an {@code Int64} column, reading a {@link LongColumn} without boxing its values.
+     */
+    public ColumnBatch addInt64(String name, List<Long> values, int from) {
+        checkRange(name, values.size(), from);
+        LongArray.Builder column = LongArray.newBuilder();
+        if (values instanceof LongColumn) {
+            LongColumn longs = (LongColumn) values;
+            for (int i = from; i < from + rows; i++) {
+                column.addData(longs.getLong(i));
+            }
+        } else {
+            for (int i = from; i < from + rows; i++) {
+                column.addData(values.get(i));
+            }
+        }
+        return add(name, DataType.Int64, ScalarField.newBuilder().setLongData(column));
+    }
+
+    public ColumnBatch addFloat(String name, float[] values, int from) {
+        checkRange(name, values.length, from);
+        FloatArray.Builder column = FloatArray.newBuilder();
+        for (int i = from; i < from + rows; i++) {
+            column.addData(values[i]);
+        }
+        return add(name, DataType.Float, ScalarField.newBuilder().setFloatData(column));
+    }
+
+    public ColumnBatch addVarChar(String name, String[] values, int from) {
+        checkRange(name, values.length, from);
+        StringArray.Builder column = StringArray.newBuilder();
+        for (int i = from; i < from + rows; i++) {
+            column.addData(values[i]);
+        }
+        return add(name, DataType.VarChar, ScalarField.newBuilder().setStringData(column));
+    }
+
+    public ColumnBatch addVarChar(String name, List<String> values, int from) {
+        checkRange(name, values.size(), from);
+        StringArray.Builder column = StringArray.newBuilder();
+        for (int i = from; i < from + rows; i++) {
+            column.addData(values.get(i));
+        }
+        return add(name, DataType.VarChar, ScalarField.newBuilder().setStringData(column));
+    }
+
+    /**
+     * Adds a {@code FloatVector} column from the vectors of the rows packed one after another.
+     */
+    public ColumnBatch addFloatVector(String name, float[] values, int from, int dimension) {
+        checkDimension(name, dimension);
+        checkRange(name, values.length / dimension, from);
+        FloatArray.Builder column = FloatArray.newBuilder();
+        for (int i = from * dimension; i < (from + rows) * dimension; i++) {
+            column.addData(values[i]);
+        }
+        return addVectors(name, dimension, column);
+    }
+
+    /**
+     * Adds a {@code FloatVector} column, copying each {@link FloatVector} in bulk rather than boxing its
+     * elements.
+     */
+    public ColumnBatch addFloatVector(String name, List<? extends List<Float>> vectors, int from,
+            int dimension) {
+        checkDimension(name, dimension);
+        checkRange(name, vectors.size(), from);
+        FloatArray.Builder column = FloatArray.newBuilder();
+        float[] scratch = new float[dimension];
+        for (int i = from; i < from + rows; i++) {
+            List<Float> vector = vectors.get(i);
+            if (vector.size() != dimension) {
+                throw new IllegalArgumentException("Vector " + i + " of " + name + " has " + vector.size()
+                    + " elements, not " + dimension);
+            }
+            if (vector instanceof FloatVector) {
+                ((FloatVector) vector).copyTo(scratch, 0);
+                for (float value : scratch) {
+                    column.addData(value);
+                }
+            } else {
+                for (Float value : vector) {
+                    column.addData(value);
+                }
+            }
+        }
+        return addVectors(name, dimension, column);
+    }
+
+    public InsertRequest toInsertRequest() {
+        return InsertRequest.newBuilder()
+            .setBase(MsgBase.newBuilder().setMsgType(MsgType.Insert))
+            .setDbName(databaseName)
+            .setCollectionName(collectionName)
+            .setPartitionName(partitionName)
+            .setNumRows(rows)
+            .addAllFieldsData(fields)
+            .build();
+    }
+
+    public UpsertRequest toUpsertRequest() {
+        return UpsertRequest.newBuilder()
+            .setBase(MsgBase.newBuilder().setMsgType(MsgType.Upsert))
+            .setDbName(databaseName)
+            .setCollectionName(collectionName)
+            .setPartitionName(partitionName)
+            .setNumRows(rows)
+            .addAllFieldsData(fields)
+            .build();
+    }
+
+    private ColumnBatch addVectors(String name, int dimension, FloatArray.Builder column) {
+        return add(FieldData.newBuilder()
+            .setFieldName(name)
+            .setType(DataType.FloatVector)
+            .setVectors(VectorField.newBuilder().setDim(dimension).setFloatVector(column))
+            .build());
+    }
+
+    private ColumnBatch add(String name, DataType type, ScalarField.Builder column) {
+        return add(FieldData.newBuilder()
+            .setFieldName(name)
+            .setType(type)
+            .setScalars(column)
+            .build());
+    }
+
+    private ColumnBatch add(FieldData field) {
+        for (FieldData column : fields) {
+            if (column.getFieldName().equals(field.getFieldName())) {
+                throw new IllegalArgumentException("The batch already has a column named " + field.getFieldName());
+            }
+        }
+        fields.add(field);
+        return this;
+    }
+
+    private void checkRange(String name, int size, int from) {
+        if (from < 0 || from > size - rows) {
+            throw new IndexOutOfBoundsException("Rows " + from + " to " + ((long) from + rows) + " of " + name
+                + ", size " + size);
+        }
+    }
+
+    private static void checkDimension(String name, int dimension) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("The dimension of " + name + " is " + dimension);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.zilliz.docs;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.milvus.client.MilvusServiceClient;
+import io.milvus.grpc.ErrorCode;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.ConnectParam;
+import io.milvus.param.R;
+
+/**
+ * A {@link MilvusServiceClient} that also inserts and upserts a {@link ColumnBatch}, sending the request built
+ * from its columns as it is.
+ *
+ * <p>{@code insert(InsertParam)} describes the collection on every call, a round trip before the request is
+ * even built. A {@link ColumnBatch} already has the types of its columns, so its request goes out on the
+ * client's channel at once, and its response is returned as the SDK returns the response of an insert.
+ */
+public class ColumnarMilvusClient extends MilvusServiceClient {
+    public ColumnarMilvusClient(ConnectParam connectParam) {
+        super(connectParam);
+    }
+
+    public R<MutationResult> insert(ColumnBatch batch) {
+        try {
+            return response(blockingStub().insert(batch.toInsertRequest()));
+        } catch (Exception e) {
+            return R.failed(e);
+        }
+    }
+
+    public ListenableFuture<R<MutationResult>> insertAsync(ColumnBatch batch) {
+        return Futures.catching(
+            Futures.transform(futureStub().insert(batch.toInsertRequest()), ColumnarMilvusClient::response,
+                MoreExecutors.directExecutor()),
+            Exception.class, R::failed, MoreExecutors.directExecutor());
+    }
+
+    public R<MutationResult> upsert(ColumnBatch batch) {
+        try {
+            return response(blockingStub().upsert(batch.toUpsertRequest()));
+        } catch (Exception e) {
+            return R.failed(e);
+        }
+    }
+
+    public ListenableFuture<R<MutationResult>> upsertAsync(ColumnBatch batch) {
+        return Futures.catching(
+            Futures.transform(futureStub().upsert(batch.toUpsertRequest()), ColumnarMilvusClient::response,
+                MoreExecutors.directExecutor()),
+            Exception.class, R::failed, MoreExecutors.directExecutor());
+    }
+
+    static R<MutationResult> response(MutationResult result) {
+        if (result.getStatus().getErrorCode() != ErrorCode.Success) {
+            return R.failed(result.getStatus().getErrorCode(), result.getStatus().getReason());
+        }
+        return R.success(result);
+    }
+}
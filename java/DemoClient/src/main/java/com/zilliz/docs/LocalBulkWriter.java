@@ -0,0 +1,391 @@
+package com.zilliz.docs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.alibaba.fastjson.JSON;
+
+import io.milvus.grpc.DataType;
+import io.milvus.param.collection.CreateCollectionParam;
+import io.milvus.param.collection.FieldType;
+
+/**
+ * Writes rows into the JSON files a Milvus bulk import reads, on local disk: a new directory
+ * {@code <localPath>/<uuid>} of files {@code 1.json}, {@code 2.json} and so on, each a {@code {"rows": [...]}}
+ * object of at most about {@code segmentSize} bytes.
+ *
+ * <p>The columns come from the {@link CreateCollectionParam} the collection is created with. {@link #appendRow}
+ * checks a row against them as it is appended, so a row the import would reject fails at once with a message
+ * naming its field: every field but an auto-id primary key is there and has a value of the field's type, a
+ * string is not longer than its {@code max_length} in UTF-8 bytes and a vector has the field's dimension. Keys
+ * the schema does not have go in the row's {@code $meta} if the collection has a dynamic field, and are an error
+ * otherwise.
+ *
+ * <p>Rows are serialized on {@code threads} threads, in chunks of about a megabyte of values, while the caller
+ * appends the rows after them; the calling thread writes the serialized chunks to the files in order and starts
+ * a new file before a row that would take the current one past {@code segmentSize}. Once {@code 2 * threads}
+ * chunks are waiting, {@link #appendRow} writes the oldest before it goes on, so the writer holds a few chunks
+ * however many rows go through it. {@link #commit} writes what is left and closes the last file.
+ *
+ * <p>Milvus also imports Parquet and NumPy files; this writer writes only JSON, which needs no library beyond
+ * the fastjson the demos already use.
+ */
+public final class LocalBulkWriter implements Closeable {
+    /** The estimated bytes of the rows serialized together. */
+    private static final long CHUNK_BYTES = 1 << 20;
+    private static final byte[] HEAD = "{\"rows\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TAIL = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<FieldType> fields;
+    private final boolean dynamicField;
+    private final Path dataPath;
+    private final long segmentSize;
+    private final int maxPending;
+    private final ExecutorService executor;
+    private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+    private final List<Path> dataFiles = new ArrayList<>();
+    private List<Map<String, Object>> chunk = new ArrayList<>();
+    private long chunkBytes;
+    private OutputStream file;
+    private long fileBytes;
+    private int fileRows;
+
+    /**
+     * @param localPath The directory to make the data directory in.
+     * @param segmentSize The bytes a file may take, such as 4 to 512 MB. A larger row has a file of its own.
+     * @param threads How many threads serialize rows.
+     */
+    public LocalBulkWriter(CreateCollectionParam schema, Path localPath, long segmentSize, int threads)
+            throws IOException {
+        if (segmentSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("segmentSize " + segmentSize + " and threads " + threads
+                + " must be positive");
+        }
+        this.fields = schema.getFieldTypes();
+        this.dynamicField = schema.isEnableDynamicField();
+        this.dataPath = Files.createDirectories(localPath.resolve(UUID.randomUUID().toString()));
+        this.segmentSize = segmentSize;
+        this.maxPending = 2 * threads;
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "local-bulk-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the directory the files are written to.
+     */
+    public Path getDataPath() {
+        return dataPath;
+    }
+
+    /**
+     * Returns the files written so far, in order, the last one only once it is closed by a new file or
+     * {@link #commit}.
+     */
+    public List<Path> getDataFiles() {
+        return Collections.unmodifiableList(dataFiles.subList(0, file == null ? dataFiles.size()
+            : dataFiles.size() - 1));
+    }
+
+    /**
+     * Appends a row of field names and values, such as a {@code JSONObject}.
+     *
+     * @throws IllegalArgumentException If the row does not match the schema.
+     */
+    public void appendRow(Map<String, ?> row) throws IOException {
+        Map<String, Object> checked = check(row);
+        for (Object value : checked.values()) {
+            chunkBytes += SerializedSize.value(value);
+        }
+        chunk.add(checked);
+        if (chunkBytes >= CHUNK_BYTES) {
+            submit();
+        }
+    }
+
+    /**
+     * Writes the rows appended so far and closes the last file, so that {@link #getDataFiles} has them all.
+     * Rows appended after go in new files.
+     */
+    public void commit() throws IOException {
+        submit();
+        while (!pending.isEmpty()) {
+            write(pending.poll());
+        }
+        closeFile();
+    }
+
+    /**
+     * Stops the serializing threads and closes the file being written. The rows appended since the last
+     * {@link #commit} may not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        closeFile();
+    }
+
+    private Map<String, Object> check(Map<String, ?> row) {
+        Map<String, Object> checked = new LinkedHashMap<>();
+        for (FieldType field : fields) {
+            String name = field.getName();
+            Object value = row.get(name);
+            if (field.isPrimaryKey() && field.isAutoID()) {
+                if (value != null) {
+                    throw new IllegalArgumentException("The primary key " + name + " is an auto-id field, so the "
+                        + "row must not have it");
+                }
+                continue;
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("The row has no value of " + name);
+            }
+            checked.put(name, value(field, field.getDataType(), value));
+        }
+        Map<String, Object> meta = null;
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            if (!checked.containsKey(entry.getKey()) && field(entry.getKey()) == null) {
+                if (!dynamicField) {
+                    throw new IllegalArgumentException("The schema has no field " + entry.getKey()
+                        + " and no dynamic field");
+                }
+                if (meta == null) {
+                    meta = new LinkedHashMap<>();
+                }
+                meta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (meta != null) {
+            checked.put("$meta", meta);
+        }
+        return checked;
+    }
+
+    private FieldType field(String name) {
+        for (FieldType field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value as the file has it, or throws if it is not one of the type.
+     */
+    private static Object value(FieldType field, DataType type, Object value) {
+        switch (type) {
+            case Bool:
+                return expect(field, type, value, value instanceof Boolean);
+            case Int8:
+                return integer(field, type, value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case Int16:
+                return integer(field, type, value, Short.MIN_VALUE, Short.MAX_VALUE);
+            case Int32:
+                return integer(field, type, value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case Int64:
+                return integer(field, type, value, Long.MIN_VALUE, Long.MAX_VALUE);
+            case Float:
+            case Double:
+                return expect(field, type, value, value instanceof Number && finite(((Number) value).doubleValue()));
+            case VarChar:
+                expect(field, type, value, value instanceof String);
+                int length = ((String) value).getBytes(StandardCharsets.UTF_8).length;
+                if (length > field.getMaxLength()) {
+                    throw new IllegalArgumentException("The value of " + field.getName() + " is " + length
+                        + " bytes, longer than its max_length " + field.getMaxLength());
+                }
+                return value;
+            case JSON:
+                return expect(field, type, value, value instanceof Map || value instanceof String);
+            case Array:
+                expect(field, type, value, value instanceof List);
+                List<?> elements = (List<?>) value;
+                if (elements.size() > field.getMaxCapacity()) {
+                    throw new IllegalArgumentException("The value of " + field.getName() + " has " + elements.size()
+                        + " elements, more than its max_capacity " + field.getMaxCapacity());
+                }
+                for (Object element : elements) {
+                    value(field, field.getElementType(), element);
+                }
+                return value;
+            case FloatVector:
+                return floatVector(field, value);
+            case BinaryVector:
+                return binaryVector(field, value);
+            default:
+                throw new IllegalArgumentException("The field " + field.getName() + " is of type " + type
+                    + ", which this writer does not write");
+        }
+    }
+
+    private static Object integer(FieldType field, DataType type, Object value, long min, long max) {
+        expect(field, type, value, value instanceof Long || value instanceof Integer || value instanceof Short
+            || value instanceof Byte);
+        long integer = ((Number) value).longValue();
+        return expect(field, type, value, integer >= min && integer <= max);
+    }
+
+    private static Object floatVector(FieldType field, Object value) {
+        expect(field, DataType.FloatVector, value, value instanceof List);
+        List<?> vector = (List<?>) value;
+        checkDimension(field, vector.size(), field.getDimension());
+        if (vector instanceof FloatVector) {
+            FloatVector floats = (FloatVector) vector;
+            for (int i = 0; i < floats.size(); i++) {
+                expect(field, DataType.FloatVector, value, finite(floats.getFloat(i)));
+            }
+            return value;
+        }
+        for (Object element : vector) {
+            expect(field, DataType.FloatVector, value, element instanceof Number
+                && finite(((Number) element).doubleValue()));
+        }
+        return value;
+    }
+
+    /**
+     * Returns a binary vector as the list of its bytes, unsigned, that the file has.
+     */
+    private static Object binaryVector(FieldType field, Object value) {
+        if (value instanceof ByteBuffer) {
+            ByteBuffer bytes = ((ByteBuffer) value).duplicate();
+            checkDimension(field, bytes.remaining() * 8, field.getDimension());
+            List<Integer> unsigned = new ArrayList<>(bytes.remaining());
+            while (bytes.hasRemaining()) {
+                unsigned.add(bytes.get() & 0xff);
+            }
+            return unsigned;
+        }
+        expect(field, DataType.BinaryVector, value, value instanceof List);
+        List<?> vector = (List<?>) value;
+        checkDimension(field, vector.size() * 8, field.getDimension());
+        for (Object element : vector) {
+            expect(field, DataType.BinaryVector, value, (element instanceof Integer || element instanceof Short)
+                && ((Number) element).intValue() >= 0 && ((Number) element).intValue() <= 255);
+        }
+        return value;
+    }
+
+    private static boolean finite(double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    private static void checkDimension(FieldType field, int dimension, int expected) {
+        if (dimension != expected) {
+            throw new IllegalArgumentException("The vector of " + field.getName() + " has dimension " + dimension
+                + ", not " + expected);
+        }
+    }
+
+    private static Object expect(FieldType field, DataType type, Object value, boolean matches) {
+        if (!matches) {
+            String text = String.valueOf(value);
+            throw new IllegalArgumentException("The value of " + field.getName() + " is not a "
+                + (type == field.getDataType() ? "" : "an array element of ") + type + ": "
+                + (text.length() > 64 ? text.substring(0, 64) + "..." : text));
+        }
+        return value;
+    }
+
+    /**
+     * Hands the rows of the current chunk to a serializing thread, after writing the oldest chunk if as many
+     * are waiting as may be.
+     */
+    private void submit() throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = chunk;
+        chunk = new ArrayList<>();
+        chunkBytes = 0;
+        while (pending.size() >= maxPending) {
+            write(pending.poll());
+        }
+        pending.add(executor.submit(() -> new Chunk(rows)));
+    }
+
+    private void write(Future<Chunk> future) throws IOException {
+        Chunk serialized;
+        try {
+            serialized = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while serializing rows", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to serialize rows", e.getCause());
+        }
+        // the rows that go in the same file are written with one call, with the commas between them
+        byte[] bytes = serialized.bytes;
+        int run = 0;
+        int start = 0;
+        for (int end : serialized.ends) {
+            int length = end - start - 1;
+            if (file != null && fileRows > 0 && fileBytes + 1 + length + TAIL.length > segmentSize) {
+                file.write(bytes, run, start - run);
+                closeFile();
+            }
+            if (file == null) {
+                Path path = dataPath.resolve((dataFiles.size() + 1) + ".json");
+                file = Files.newOutputStream(path);
+                dataFiles.add(path);
+                file.write(HEAD);
+                fileBytes = HEAD.length;
+                fileRows = 0;
+                // past the comma before the file's first row
+                run = start + 1;
+            }
+            fileBytes += fileRows > 0 ? length + 1 : length;
+            fileRows++;
+            start = end;
+        }
+        file.write(bytes, run, start - run);
+    }
+
+    private void closeFile() throws IOException {
+        if (file != null) {
+            file.write(TAIL);
+            file.close();
+            file = null;
+        }
+    }
+
+    /**
+     * The JSON text of rows one after another, each after a comma, and where each ends.
+     */
+    private static final class Chunk {
+        final byte[] bytes;
+        final int[] ends;
+
+        Chunk(List<Map<String, Object>> rows) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ends = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                out.write(',');
+                out.write(JSON.toJSONBytes(rows.get(i)));
+                ends[i] = out.size();
+            }
+            bytes = out.toByteArray();
+        }
+    }
+}
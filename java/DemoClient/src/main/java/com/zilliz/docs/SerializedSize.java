@@ -0,0 +1,144 @@
+package com.zilliz.docs;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.InsertParam.Field;
+
+/**
+ * Estimates how many bytes the values of a row take in the insert request the SDK builds from them, without
+ * building it.
+ *
+ * <p>The request holds each field as a column, so a row costs about the sum of its values: a vector 4 bytes an
+ * element, a string its UTF-8 bytes and a length, a number its widest encoding. A JSON value costs its JSON
+ * text, the only value whose size means serializing it. The keys of a row that the schema does not have go
+ * into its {@code $meta} field as JSON text, so every key of a row is counted with its quotes and punctuation,
+ * and every scalar at the longer of its two encodings.
+ *
+ * <p>The estimates err on the high side, so a batch cut at a budget stays under it. The one exception is a
+ * list of floats in a dynamic field: it is counted packed, as the vector it almost always is, while
+ * {@code $meta} holds its text.
+ */
+final class SerializedSize {
+    /** What a length, a tag or a varint adds at most. */
+    private static final int OVERHEAD = 5;
+    /** The braces of a row's {@code $meta} and the length and tag of its field. */
+    private static final int META_OVERHEAD = 2 + OVERHEAD;
+
+    private SerializedSize() {
+    }
+
+    /**
+     * Returns the estimated size of a row of an {@link InsertParam}, from its rows or its fields. Rows made from
+     * columns, such as those of {@link ArticleTable#rows}, are sized from their values without making them.
+     */
+    static long row(InsertParam param, int row) {
+        List<JSONObject> rows = param.getRows();
+        long bytes = 0;
+        if (rows instanceof ColumnRows) {
+            ColumnRows columns = (ColumnRows) rows;
+            String[] fields = columns.fields();
+            bytes += META_OVERHEAD;
+            for (int i = 0; i < fields.length; i++) {
+                bytes += key(fields[i]) + value(columns.value(i, row));
+            }
+        } else if (rows != null && !rows.isEmpty()) {
+            bytes += META_OVERHEAD;
+            for (Map.Entry<String, Object> entry : rows.get(row).entrySet()) {
+                bytes += key(entry.getKey()) + value(entry.getValue());
+            }
+        } else {
+            for (Field field : param.getFields()) {
+                bytes += value(field.getValues().get(row));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns what a key of a row adds to the text of its {@code $meta}: its quoted name, a colon and a comma.
+     */
+    private static long key(String name) {
+        return textLength(name) + 4;
+    }
+
+    /**
+     * Returns the estimated size of a value of a field.
+     */
+    static long value(Object value) {
+        if (value == null || value instanceof Boolean) {
+            // as the text null or false
+            return 5;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            // as many characters as -2147483648
+            return 11;
+        }
+        if (value instanceof Float) {
+            // as many characters as -1.17549435E-38
+            return 15;
+        }
+        if (value instanceof Long || value instanceof Double) {
+            // as many characters as -9223372036854775808 or -2.2250738585072014E-308
+            return 24;
+        }
+        if (value instanceof Number) {
+            return value.toString().length() + OVERHEAD;
+        }
+        if (value instanceof CharSequence) {
+            return textLength((CharSequence) value) + OVERHEAD;
+        }
+        if (value instanceof ByteBuffer) {
+            return ((ByteBuffer) value).remaining() + OVERHEAD;
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            if (list.isEmpty()) {
+                return OVERHEAD;
+            }
+            if (list.get(0) instanceof Float) {
+                // a float vector is packed
+                return 4L * list.size() + OVERHEAD;
+            }
+            // with a comma after each element
+            long bytes = OVERHEAD + list.size();
+            for (Object element : list) {
+                bytes += value(element);
+            }
+            return bytes;
+        }
+        return JSON.toJSONBytes(value).length + OVERHEAD;
+    }
+
+    /**
+     * Returns the UTF-8 length of a string, with what escaping it in JSON text adds.
+     */
+    private static long textLength(CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20) {
+                // as a six-character unicode escape
+                length += 6;
+            } else if (c == '"' || c == '\\') {
+                length += 2;
+            } else if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // with its low surrogate, one four-byte character
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,141 @@
+package com.zilliz.docs;
+
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import io.milvus.client.MilvusClient;
+import io.milvus.client.MilvusServiceClient;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.ConnectParam;
+import io.milvus.param.R;
+import io.milvus.param.collection.CreateCollectionParam;
+import io.milvus.param.collection.DropCollectionParam;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.InsertParam;
+
+/**
+ * Prints the rows per second of {@link BulkInserter} for a grid of batch sizes, in rows and then in bytes,
+ * and batches in flight, inserting 5979 synthetic medium articles with 768-dimensional vectors. One batch of
+ * all the rows with one batch in flight is what {@code client.insert} does.
+ *
+ * <p>With {@code -Duri=<endpoint> -Dtoken=<token>} the rows go to a {@code bulk_insert_benchmark} collection,
+ * dropped at the end. Without them the server is a {@link FakeMilvusClient} that models each request as its
+ * JSON sent over one link of {@code -Dmbps} megabits per second (200 by default), after the requests ahead of
+ * it, plus a round trip of {@code -Drtt.ms} (20 by default). The JSON is made on the calling thread, standing
+ * in for the request the SDK builds there.
+ *
+ * <p>Run from {@code java/DemoClient} after {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes:<dependency jars> com.zilliz.docs.BulkInsertBenchmark}
+ */
+public final class BulkInsertBenchmark {
+    private static final int ROWS = 5979;
+    private static final int[] BATCH_SIZES = {100, 250, 500, 1000, 2000, ROWS};
+    private static final long[] BATCH_BYTES = {256 << 10, 1 << 20, 4 << 20, 16 << 20};
+    private static final int[] IN_FLIGHT = {1, 2, 4, 8};
+    private static final String COLLECTION = "bulk_insert_benchmark";
+
+    private BulkInsertBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<JSONObject> rows = new SyntheticArticles(42, 768).batch(0, ROWS).articles()
+            .rows(ROWS, "id", "title", "title_vector");
+        String uri = System.getProperty("uri");
+        FakeMilvusClient fake = null;
+        MilvusClient client;
+        if (uri != null) {
+            client = new MilvusServiceClient(ConnectParam.newBuilder()
+                .withUri(uri)
+                .withToken(System.getProperty("token", ""))
+                .build());
+            createCollection(client);
+            System.out.println("Inserting into " + uri);
+        } else {
+            long rttNanos = Long.getLong("rtt.ms", 20) * 1_000_000;
+            double nanosPerByte = 8e3 / Long.getLong("mbps", 200);
+            long[] linkFree = new long[1];
+            fake = new FakeMilvusClient(IN_FLIGHT[IN_FLIGHT.length - 1], param -> {
+                long bytes = JSON.toJSONBytes(param.getRows()).length;
+                long now = System.nanoTime();
+                linkFree[0] = Math.max(now, linkFree[0]) + (long) (bytes * nanosPerByte);
+                return linkFree[0] - now + rttNanos;
+            });
+            client = fake.client();
+            System.out.printf("Simulated server: %d ms round trip, %d Mbit/s%n", rttNanos / 1_000_000,
+                Long.getLong("mbps", 200));
+        }
+
+        try {
+            InsertParam param = InsertParam.newBuilder()
+                .withCollectionName(COLLECTION)
+                .withRows(rows)
+                .build();
+            // warm up the JSON and protobuf paths
+            new BulkInserter(client, 500, Long.MAX_VALUE, 4).insert(param);
+
+            System.out.print("rows/s        ");
+            for (int inFlight : IN_FLIGHT) {
+                System.out.printf("%13s", inFlight + " in flight");
+            }
+            System.out.println();
+            for (int batchSize : BATCH_SIZES) {
+                System.out.printf("%5d rows    ", batchSize);
+                for (int inFlight : IN_FLIGHT) {
+                    print(new BulkInserter(client, batchSize, Long.MAX_VALUE, inFlight), param);
+                }
+                System.out.println();
+            }
+            for (long batchBytes : BATCH_BYTES) {
+                System.out.printf("%5d KB      ", batchBytes >> 10);
+                for (int inFlight : IN_FLIGHT) {
+                    print(new BulkInserter(client, batchBytes, inFlight), param);
+                }
+                System.out.println();
+            }
+        } finally {
+            if (fake != null) {
+                fake.shutdown();
+            } else {
+                client.dropCollection(DropCollectionParam.newBuilder().withCollectionName(COLLECTION).build());
+                client.close();
+            }
+        }
+    }
+
+    private static void print(BulkInserter inserter, InsertParam param) {
+        long start = System.nanoTime();
+        R<MutationResult> response = inserter.insert(param);
+        long nanos = System.nanoTime() - start;
+        if (response.getStatus() != R.Status.Success.getCode()) {
+            throw new IllegalStateException(response.getMessage());
+        }
+        System.out.printf("%13.0f", response.getData().getInsertCnt() / (nanos / 1e9));
+    }
+
+    private static void createCollection(MilvusClient client) {
+        R<?> response = client.createCollection(CreateCollectionParam.newBuilder()
+            .withCollectionName(COLLECTION)
+            .addFieldType(FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build())
+            .addFieldType(FieldType.newBuilder()
+                .withName("title")
+                .withDataType(DataType.VarChar)
+                .withMaxLength(512)
+                .build())
+            .addFieldType(FieldType.newBuilder()
+                .withName("title_vector")
+                .withDataType(DataType.FloatVector)
+                .withDimension(768)
+                .build())
+            .build());
+        if (response.getException() != null) {
+            throw new IllegalStateException("Failed to create collection: " + response.getException().getMessage());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.zilliz.docs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.R;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.InsertParam.Field;
+import io.milvus.param.dml.UpsertParam;
+import io.milvus.response.MutationResultWrapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the pipelined bulk inserter.
+ */
+class BulkInserterTest {
+    private final Random random = new Random(7);
+    private final FakeMilvusClient server = new FakeMilvusClient(4, param -> random.nextInt(3_000_000));
+
+    @AfterEach
+    void shutdown() {
+        server.shutdown();
+    }
+
+    @Test
+    void mergesTheBatchesInTheOrderOfTheRows() {
+        List<JSONObject> rows = new ArrayList<>();
+        for (int i = 0; i < 1003; i++) {
+            JSONObject row = new JSONObject();
+            row.put("id", 1000L + i);
+            row.put("title", "title " + i);
+            rows.add(row);
+        }
+        InsertParam param = InsertParam.newBuilder()
+            .withCollectionName("articles")
+            .withPartitionName("part")
+            .withRows(rows)
+            .build();
+
+        R<MutationResult> response = new BulkInserter(server.client(), 100, Long.MAX_VALUE, 3).insert(param);
+
+        assertEquals(R.Status.Success.getCode(), response.getStatus());
+        MutationResultWrapper wrapper = new MutationResultWrapper(response.getData());
+        assertEquals(1003, wrapper.getInsertCount());
+        List<Long> ids = wrapper.getLongIDs();
+        for (int i = 0; i < 1003; i++) {
+            assertEquals(1000L + i, ids.get(i));
+            assertEquals(i, response.getData().getSuccIndex(i));
+        }
+        assertEquals(11, server.requests.size());
+        assertEquals(3, server.requests.get(10).getRowCount());
+        assertEquals("part", server.requests.get(0).getPartitionName());
+        assertTrue(server.maxInFlight.get() <= 3);
+    }
+
+    @Test
+    void slicesFields() {
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+        List<String> titles = Arrays.asList("a", "b", "c", "d", "e");
+        InsertParam param = InsertParam.newBuilder()
+            .withCollectionName("articles")
+            .withFields(Arrays.asList(new Field("id", ids), new Field("title", titles)))
+            .build();
+
+        R<MutationResult> response = new BulkInserter(server.client(), 2, Long.MAX_VALUE, 8).insert(param);
+
+        assertEquals(ids, new MutationResultWrapper(response.getData()).getLongIDs());
+        assertEquals(3, server.requests.size());
+        assertEquals(Arrays.asList("c", "d"), server.requests.get(1).getFields().get(1).getValues());
+    }
+
+    @Test
+    void cutsBatchesAtTheByteBudget() {
+        List<JSONObject> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            JSONObject row = new JSONObject();
+            row.put("id", (long) i);
+            // a row of the third batch is larger than the budget
+            row.put("title_vector", new FloatVector(new float[i == 6 ? 2048 : 768]));
+            rows.add(row);
+        }
+        UpsertParam param = UpsertParam.newBuilder()
+            .withCollectionName("articles")
+            .withRows(rows)
+            .build();
+
+        R<MutationResult> response = new BulkInserter(server.client(), 10_000, 4).upsert(param);
+
+        assertEquals(R.Status.Success.getCode(), response.getStatus());
+        assertEquals(10, new MutationResultWrapper(response.getData()).getLongIDs().size());
+        List<Integer> sizes = new ArrayList<>();
+        for (InsertParam request : server.requests) {
+            assertTrue(request instanceof UpsertParam);
+            sizes.add(request.getRowCount());
+        }
+        assertEquals(Arrays.asList(3, 3, 1, 3), sizes);
+    }
+
+    @Test
+    void estimatesTheSizeOfValues() {
+        assertEquals(4 * 768 + 5, SerializedSize.value(new FloatVector(new float[768])));
+        assertEquals(24, SerializedSize.value(42L));
+        assertEquals(15, SerializedSize.value(-1.17549435E-38f));
+        assertEquals("été €".getBytes(StandardCharsets.UTF_8).length + 5, SerializedSize.value("été €"));
+        JSONObject meta = new JSONObject();
+        meta.put("claps", 3);
+        assertEquals("{\"claps\":3}".length() + 5, SerializedSize.value(meta));
+    }
+
+    @Test
+    void countsTheJsonTextOfDynamicFields() {
+        JSONObject row = new JSONObject(true);
+        row.put("id", 1L);
+        row.put("title_vector", new FloatVector(new float[4]));
+        JSONObject dynamic = new JSONObject(true);
+        dynamic.putAll(row);
+        dynamic.put("color", "\"red\"\n");
+        dynamic.put("sizes", Arrays.asList(-2147483648, 0, 42));
+        dynamic.put("price", -9223372036854775808L);
+        dynamic.put("ratio", -2.2250738585072014E-308);
+        dynamic.put("sold", false);
+
+        long fixed = SerializedSize.row(rows(row), 0);
+        long meta = SerializedSize.row(rows(dynamic), 0) - fixed;
+        dynamic.keySet().removeAll(row.keySet());
+        assertTrue(meta >= JSON.toJSONBytes(dynamic).length, meta + " bytes for " + dynamic);
+    }
+
+    @Test
+    void sizesTableRowsWithoutMakingThem() {
+        List<JSONObject> view = new SyntheticArticles(3, 8).batch(0, 5).rows("id", "title", "title_vector",
+            "article_meta");
+        assertTrue(view instanceof ColumnRows);
+        InsertParam copied = rows(new ArrayList<>(view).toArray(new JSONObject[0]));
+        InsertParam table = InsertParam.newBuilder().withCollectionName("articles").withRows(view).build();
+
+        for (int i = 0; i < view.size(); i++) {
+            assertEquals(SerializedSize.row(copied, i), SerializedSize.row(table, i));
+        }
+    }
+
+    @Test
+    void stopsAtTheFirstFailedBatch() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            ids.add(i);
+        }
+        InsertParam param = InsertParam.newBuilder()
+            .withCollectionName("articles")
+            .withFields(Arrays.asList(new Field("id", ids)))
+            .build();
+        server.failRequest(2);
+
+        R<MutationResult> response = new BulkInserter(server.client(), 10, Long.MAX_VALUE, 2).insert(param);
+
+        assertNotEquals(R.Status.Success.getCode(), response.getStatus());
+        assertEquals("request 2 failed", response.getMessage());
+        // the failed batch and at most one batch in flight beside it
+        assertTrue(server.requests.size() <= 4);
+        assertThrows(IllegalArgumentException.class, () -> new BulkInserter(server.client(), 0, 1));
+    }
+
+    private static InsertParam rows(JSONObject... rows) {
+        return InsertParam.newBuilder()
+            .withCollectionName("articles")
+            .withRows(Arrays.asList(rows))
+            .build();
+    }
+}
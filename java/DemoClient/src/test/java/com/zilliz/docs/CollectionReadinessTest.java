@@ -0,0 +1,131 @@
+package com.zilliz.docs;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.milvus.client.MilvusClient;
+import io.milvus.common.clientenum.ConsistencyLevelEnum;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.FlushResponse;
+import io.milvus.grpc.GetFlushStateResponse;
+import io.milvus.grpc.GetLoadingProgressResponse;
+import io.milvus.grpc.LongArray;
+import io.milvus.grpc.QueryResults;
+import io.milvus.grpc.ScalarField;
+import io.milvus.param.R;
+import io.milvus.param.RpcStatus;
+import io.milvus.param.control.GetFlushStateParam;
+import io.milvus.param.dml.QueryParam;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for waiting until a collection is ready.
+ */
+class CollectionReadinessTest {
+    private final Deque<Object> responses = new ArrayDeque<>();
+    private final List<Object> params = new ArrayList<>();
+    private final List<Long> sleeps = new ArrayList<>();
+    private long now;
+
+    @Test
+    void backsOffUntilTheCollectionIsLoaded() {
+        for (long progress : new long[] {0, 20, 60, 100}) {
+            responses.add(R.success(GetLoadingProgressResponse.newBuilder().setProgress(progress).build()));
+        }
+
+        R<RpcStatus> loaded = readiness(10_000).awaitLoaded("articles");
+
+        assertEquals(R.Status.Success.getCode(), loaded.getStatus());
+        assertEquals(Arrays.asList(50L, 100L, 200L), sleeps);
+        assertTrue(responses.isEmpty());
+    }
+
+    @Test
+    void waitsForEveryCollectionOfAFlush() {
+        responses.add(R.success(GetFlushStateResponse.newBuilder().setFlushed(false).build()));
+        responses.add(R.success(GetFlushStateResponse.newBuilder().setFlushed(true).build()));
+        FlushResponse flush = FlushResponse.newBuilder()
+            .putCollSegIDs("articles", LongArray.newBuilder().addData(7).addData(8).build())
+            .putCollFlushTs("articles", 42)
+            .putCollSegIDs("empty", LongArray.getDefaultInstance())
+            .build();
+
+        R<RpcStatus> flushed = readiness(10_000).awaitFlushed(flush);
+
+        assertEquals(R.Status.Success.getCode(), flushed.getStatus());
+        assertEquals(2, params.size());
+        GetFlushStateParam param = (GetFlushStateParam) params.get(0);
+        assertEquals("articles", param.getCollectionName());
+        assertTrue(param.getSegmentIDs().isEmpty());
+        assertEquals(42L, param.getFlushTs());
+    }
+
+    @Test
+    void waitsUntilTheRowsAreCounted() {
+        for (long count : new long[] {0, 4000, 5979}) {
+            responses.add(R.success(count(count)));
+        }
+
+        R<RpcStatus> visible = readiness(10_000).awaitRowCount("articles", 5979, ConsistencyLevelEnum.BOUNDED);
+
+        assertEquals(R.Status.Success.getCode(), visible.getStatus());
+        assertEquals(3, params.size());
+        assertEquals(ConsistencyLevelEnum.BOUNDED, ((QueryParam) params.get(0)).getConsistencyLevel());
+    }
+
+    @Test
+    void failsAtTheDeadline() {
+        for (int i = 0; i < 100; i++) {
+            responses.add(R.success(count(10)));
+        }
+
+        R<RpcStatus> visible = readiness(1_000).awaitRowCount("articles", 20, ConsistencyLevelEnum.STRONG);
+
+        assertEquals(R.Status.UnexpectedError.getCode(), visible.getStatus());
+        assertEquals("Not 20 rows in articles after 5 attempts in 750 ms", visible.getMessage());
+        assertEquals(Arrays.asList(50L, 100L, 200L, 400L), sleeps);
+    }
+
+    @Test
+    void stopsAtAFailedCall() {
+        responses.add(R.success(GetLoadingProgressResponse.newBuilder().setProgress(10).build()));
+        responses.add(R.failed(R.Status.CollectionNotExists, "collection not found"));
+
+        R<RpcStatus> loaded = readiness(10_000).awaitSearchable("articles", 10);
+
+        assertEquals(R.Status.CollectionNotExists.getCode(), loaded.getStatus());
+        assertEquals("collection not found", loaded.getMessage());
+        assertEquals(2, params.size());
+    }
+
+    private CollectionReadiness readiness(long timeoutMillis) {
+        MilvusClient client = (MilvusClient) Proxy.newProxyInstance(MilvusClient.class.getClassLoader(),
+            new Class<?>[] {MilvusClient.class}, (proxy, method, args) -> {
+                params.add(args[0]);
+                return responses.poll();
+            });
+        return new CollectionReadiness(client, TimeUnit.MILLISECONDS.toNanos(timeoutMillis), () -> now, millis -> {
+            sleeps.add(millis);
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        });
+    }
+
+    private static QueryResults count(long rows) {
+        return QueryResults.newBuilder()
+            .addFieldsData(FieldData.newBuilder()
+                .setFieldName("count(*)")
+                .setType(DataType.Int64)
+                .setScalars(ScalarField.newBuilder().setLongData(LongArray.newBuilder().addData(rows))))
+            .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.zilliz.docs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.milvus.grpc.CollectionSchema;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.DescribeCollectionResponse;
+import io.milvus.grpc.FieldSchema;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.grpc.KeyValuePair;
+import io.milvus.grpc.MsgType;
+import io.milvus.grpc.UpsertRequest;
+import io.milvus.param.ParamUtils;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.InsertParam.Field;
+import io.milvus.response.DescCollResponseWrapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for building insert requests from columns.
+ */
+class ColumnBatchTest {
+    static final String[] FIELDS = {"id", "title", "title_vector", "link", "reading_time", "publication", "claps",
+        "responses"};
+    private static final int DIMENSION = 8;
+
+    @Test
+    void buildsTheRequestTheSdkBuildsFromFields() {
+        ArticleTable articles = new SyntheticArticles(3, DIMENSION).batch(0, 50).articles();
+        InsertParam param = InsertParam.newBuilder()
+            .withCollectionName("medium_articles")
+            .withPartitionName("part")
+            .withFields(fields(articles, 50))
+            .build();
+        InsertRequest expected = new ParamUtils.InsertBuilderWrapper(param, schema(DIMENSION)).buildInsertRequest();
+
+        InsertRequest request = columns(new ColumnBatch("medium_articles", 50), articles, 0, DIMENSION)
+            .withPartitionName("part")
+            .toInsertRequest();
+
+        assertEquals(expected, request);
+    }
+
+    @Test
+    void readsTheRowsFromTheOffset() {
+        long[] ids = {1, 2, 3, 4, 5};
+        float[] scores = {0.5f, 1.5f, 2.5f, 3.5f, 4.5f};
+        String[] titles = {"a", "b", "c", "d", "e"};
+        float[] vectors = {0, 1, 10, 11, 20, 21, 30, 31, 40, 41};
+        ColumnBatch batch = new ColumnBatch("articles", 2)
+            .addInt64("id", ids, 3)
+            .addFloat("score", scores, 3)
+            .addVarChar("title", titles, 3)
+            .addFloatVector("vector", vectors, 3, 2);
+
+        UpsertRequest request = batch.toUpsertRequest();
+
+        assertEquals(MsgType.Upsert, request.getBase().getMsgType());
+        assertEquals(2, request.getNumRows());
+        assertEquals(Arrays.asList(4L, 5L), request.getFieldsData(0).getScalars().getLongData().getDataList());
+        assertEquals(Arrays.asList(3.5f, 4.5f), request.getFieldsData(1).getScalars().getFloatData().getDataList());
+        assertEquals(Arrays.asList("d", "e"), request.getFieldsData(2).getScalars().getStringData().getDataList());
+        assertEquals(2, request.getFieldsData(3).getVectors().getDim());
+        assertEquals(Arrays.asList(30f, 31f, 40f, 41f),
+            request.getFieldsData(3).getVectors().getFloatVector().getDataList());
+    }
+
+    @Test
+    void rejectsColumnsThatDoNotFit() {
+        ColumnBatch batch = new ColumnBatch("articles", 3).addInt64("id", new long[] {1, 2, 3}, 0);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.addInt64("claps", new long[] {1, 2, 3}, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.addInt64("id", new long[] {1, 2, 3}, 0));
+        assertThrows(IllegalArgumentException.class, () -> batch.addFloatVector("vector",
+            Arrays.asList(new FloatVector(new float[2]), new FloatVector(new float[2]), new FloatVector(new float[3])),
+            0, 2));
+    }
+
+    /**
+     * Adds the columns of the Medium articles, in the order of {@link #FIELDS}.
+     */
+    static ColumnBatch columns(ColumnBatch batch, ArticleTable articles, int from, int dimension) {
+        return batch
+            .addInt64("id", longs(articles, "id"), from)
+            .addVarChar("title", strings(articles, "title"), from)
+            .addFloatVector("title_vector", vectors(articles), from, dimension)
+            .addVarChar("link", strings(articles, "link"), from)
+            .addInt64("reading_time", longs(articles, "reading_time"), from)
+            .addVarChar("publication", strings(articles, "publication"), from)
+            .addInt64("claps", longs(articles, "claps"), from)
+            .addInt64("responses", longs(articles, "responses"), from);
+    }
+
+    static List<Field> fields(ArticleTable articles, int counts) {
+        List<Field> fields = new ArrayList<>();
+        for (String name : FIELDS) {
+            fields.add(new Field(name, articles.column(name, counts)));
+        }
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> longs(ArticleTable articles, String name) {
+        return (List<Long>) articles.column(name, articles.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> strings(ArticleTable articles, String name) {
+        return (List<String>) articles.column(name, articles.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<Float>> vectors(ArticleTable articles) {
+        return (List<List<Float>>) articles.column("title_vector", articles.size());
+    }
+
+    /**
+     * Returns the schema of the Medium articles collection, with its fields in the order of {@link #FIELDS}, as
+     * {@code describeCollection} would.
+     */
+    static DescCollResponseWrapper schema(int dimension) {
+        CollectionSchema.Builder schema = CollectionSchema.newBuilder().setName("medium_articles");
+        for (String name : FIELDS) {
+            FieldSchema.Builder field = FieldSchema.newBuilder().setName(name);
+            if (name.equals("title_vector")) {
+                field.setDataType(DataType.FloatVector)
+                    .addTypeParams(KeyValuePair.newBuilder().setKey("dim").setValue(String.valueOf(dimension)));
+            } else if (name.equals("title") || name.equals("link") || name.equals("publication")) {
+                field.setDataType(DataType.VarChar)
+                    .addTypeParams(KeyValuePair.newBuilder().setKey("max_length").setValue("512"));
+            } else {
+                field.setDataType(DataType.Int64).setIsPrimaryKey(name.equals("id"));
+            }
+            schema.addFields(field);
+        }
+        return new DescCollResponseWrapper(DescribeCollectionResponse.newBuilder().setSchema(schema).build());
+    }
+}
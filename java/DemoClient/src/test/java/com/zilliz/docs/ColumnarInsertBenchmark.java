@@ -0,0 +1,151 @@
+package com.zilliz.docs;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.ConnectParam;
+import io.milvus.param.ParamUtils;
+import io.milvus.param.R;
+import io.milvus.param.collection.CreateCollectionParam;
+import io.milvus.param.collection.DropCollectionParam;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.response.DescCollResponseWrapper;
+
+/**
+ * Compares three ways to insert the Medium articles: {@code List<JSONObject>} rows and
+ * {@code InsertParam.Field} lists, which the SDK turns into an insert request, and a {@link ColumnBatch} built
+ * straight from the table's columns.
+ *
+ * <p>First it builds the request of every row each way, as the SDK would, with the schema it would have asked
+ * the server for, and prints the median time and the bytes allocated of {@code ROUNDS} builds after as many to
+ * warm up. With {@code -Duri=<endpoint> -Dtoken=<token>} it then inserts the rows each way in batches of
+ * {@code -Dbatch.rows} (1000 by default) into a {@code columnar_insert_benchmark} collection, dropped at the
+ * end, and prints the rows per second.
+ *
+ * <p>Run from {@code java/DemoClient} after {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes:<dependency jars> com.zilliz.docs.ColumnarInsertBenchmark
+ * [dataset file]}, which reads 5979 rows of {@code medium_articles_2020_dpr.json} or makes as many synthetic
+ * ones.
+ */
+public final class ColumnarInsertBenchmark {
+    private static final int ROWS = 5979;
+    private static final int DIMENSION = 768;
+    private static final int ROUNDS = 10;
+    private static final String COLLECTION = "columnar_insert_benchmark";
+
+    private ColumnarInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ArticleTable articles = args.length > 0
+            ? ArticleTable.load(Paths.get(args[0]), ROWS)
+            : new SyntheticArticles(42, DIMENSION).batch(0, ROWS).articles();
+        InsertParam rows = InsertParam.newBuilder()
+            .withCollectionName(COLLECTION)
+            .withRows(articles.rows(ROWS, ColumnBatchTest.FIELDS))
+            .build();
+        InsertParam fields = InsertParam.newBuilder()
+            .withCollectionName(COLLECTION)
+            .withFields(ColumnBatchTest.fields(articles, ROWS))
+            .build();
+        DescCollResponseWrapper schema = ColumnBatchTest.schema(DIMENSION);
+
+        System.out.printf("%d rows, one request%n", articles.size());
+        System.out.println("                 build ms  allocated MB  request MB");
+        print("rows", () -> new ParamUtils.InsertBuilderWrapper(rows, schema).buildInsertRequest());
+        print("fields", () -> new ParamUtils.InsertBuilderWrapper(fields, schema).buildInsertRequest());
+        print("columns", () -> ColumnBatchTest.columns(new ColumnBatch(COLLECTION, articles.size()), articles, 0,
+            DIMENSION).toInsertRequest());
+
+        String uri = System.getProperty("uri");
+        if (uri == null) {
+            System.out.println("Set -Duri and -Dtoken to insert into a cluster as well");
+            return;
+        }
+        ColumnarMilvusClient client = new ColumnarMilvusClient(ConnectParam.newBuilder()
+            .withUri(uri)
+            .withToken(System.getProperty("token", ""))
+            .build());
+        try {
+            createCollection(client);
+            int batchRows = Integer.getInteger("batch.rows", 1000);
+            System.out.printf("Inserting into %s in batches of %d rows%n", uri, batchRows);
+            System.out.println("                   rows/s");
+            for (int round = 0; round < 2; round++) {
+                boolean last = round == 1;
+                insert("rows", last, articles.size(), batchRows, from -> client.insert(BulkInserter.slice(rows,
+                    InsertParam.newBuilder(), from, Math.min(from + batchRows, articles.size()))));
+                insert("fields", last, articles.size(), batchRows, from -> client.insert(BulkInserter.slice(fields,
+                    InsertParam.newBuilder(), from, Math.min(from + batchRows, articles.size()))));
+                insert("columns", last, articles.size(), batchRows, from -> client.insert(ColumnBatchTest.columns(
+                    new ColumnBatch(COLLECTION, Math.min(batchRows, articles.size() - from)), articles, from,
+                    DIMENSION)));
+            }
+        } finally {
+            client.dropCollection(DropCollectionParam.newBuilder().withCollectionName(COLLECTION).build());
+            client.close();
+        }
+    }
+
+    private static void print(String name, Supplier<InsertRequest> build) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long[] nanos = new long[ROUNDS];
+        long allocated = 0;
+        int size = 0;
+        for (int round = -ROUNDS; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            InsertRequest request = build.get();
+            if (round >= 0) {
+                nanos[round] = System.nanoTime() - start;
+                allocated += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            }
+            size = request.getSerializedSize();
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-13s %11.1f  %12.1f  %10.1f%n", name, nanos[ROUNDS / 2] / 1e6,
+            allocated / (double) ROUNDS / 1048576, size / 1048576.0);
+    }
+
+    private static void insert(String name, boolean print, int rows, int batchRows,
+            IntFunction<R<MutationResult>> batch) {
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += batchRows) {
+            R<MutationResult> response = batch.apply(from);
+            if (response.getStatus() != R.Status.Success.getCode()) {
+                throw new IllegalStateException(response.getMessage());
+            }
+        }
+        if (print) {
+            System.out.printf("%-13s %11.0f%n", name, rows / ((System.nanoTime() - start) / 1e9));
+        }
+    }
+
+    private static void createCollection(ColumnarMilvusClient client) {
+        CreateCollectionParam.Builder collection = CreateCollectionParam.newBuilder().withCollectionName(COLLECTION);
+        for (String name : ColumnBatchTest.FIELDS) {
+            FieldType.Builder field = FieldType.newBuilder().withName(name);
+            if (name.equals("title_vector")) {
+                field.withDataType(DataType.FloatVector).withDimension(DIMENSION);
+            } else if (name.equals("title") || name.equals("link") || name.equals("publication")) {
+                field.withDataType(DataType.VarChar).withMaxLength(512);
+            } else {
+                field.withDataType(DataType.Int64).withPrimaryKey(name.equals("id"));
+            }
+            collection.addFieldType(field.build());
+        }
+        R<?> response = client.createCollection(collection.build());
+        if (response.getException() != null) {
+            throw new IllegalStateException("Failed to create collection: " + response.getException().getMessage());
+        }
+    }
+}
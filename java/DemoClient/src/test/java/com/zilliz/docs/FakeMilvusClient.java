@@ -0,0 +1,111 @@
+package com.zilliz.docs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import com.alibaba.fastjson.JSONObject;
+import com.google.common.util.concurrent.SettableFuture;
+
+import io.milvus.client.MilvusClient;
+import io.milvus.grpc.IDs;
+import io.milvus.grpc.LongArray;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.R;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.InsertParam.Field;
+
+/**
+ * A {@link MilvusClient} without a server, for tests and benchmarks. It answers {@code insertAsync} and
+ * {@code upsertAsync} on one of {@code lanes} threads after as long as {@code serviceNanos} says the request
+ * takes, with the ids of the request's {@code id} field. Any other call throws
+ * {@link UnsupportedOperationException}.
+ */
+final class FakeMilvusClient implements InvocationHandler {
+    final List<InsertParam> requests = Collections.synchronizedList(new ArrayList<>());
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ExecutorService lanes;
+    private final ToLongFunction<InsertParam> serviceNanos;
+    private volatile int failingRequest = -1;
+
+    FakeMilvusClient(int lanes, ToLongFunction<InsertParam> serviceNanos) {
+        this.lanes = Executors.newFixedThreadPool(lanes);
+        this.serviceNanos = serviceNanos;
+    }
+
+    MilvusClient client() {
+        return (MilvusClient) Proxy.newProxyInstance(MilvusClient.class.getClassLoader(),
+            new Class<?>[] {MilvusClient.class}, this);
+    }
+
+    /**
+     * Makes the request with the given index, counting from 0, fail.
+     */
+    void failRequest(int index) {
+        failingRequest = index;
+    }
+
+    void shutdown() {
+        lanes.shutdownNow();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (!method.getName().equals("insertAsync") && !method.getName().equals("upsertAsync")) {
+            throw new UnsupportedOperationException(method.getName());
+        }
+        InsertParam param = (InsertParam) args[0];
+        int index;
+        synchronized (requests) {
+            index = requests.size();
+            requests.add(param);
+        }
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long nanos = serviceNanos.applyAsLong(param);
+        SettableFuture<R<MutationResult>> future = SettableFuture.create();
+        lanes.execute(() -> {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            future.set(index == failingRequest
+                ? R.failed(R.Status.UnexpectedError, "request " + index + " failed") : R.success(result(param)));
+        });
+        return future;
+    }
+
+    private static MutationResult result(InsertParam param) {
+        LongArray.Builder ids = LongArray.newBuilder();
+        if (param.getRows() != null && !param.getRows().isEmpty()) {
+            for (JSONObject row : param.getRows()) {
+                ids.addData(row.getLongValue("id"));
+            }
+        } else {
+            for (Field field : param.getFields()) {
+                if (field.getName().equals("id")) {
+                    for (Object id : field.getValues()) {
+                        ids.addData((Long) id);
+                    }
+                }
+            }
+        }
+        MutationResult.Builder result = MutationResult.newBuilder()
+            .setInsertCnt(param.getRowCount())
+            .setIDs(IDs.newBuilder().setIntId(ids));
+        for (int i = 0; i < param.getRowCount(); i++) {
+            result.addSuccIndex(i);
+        }
+        return result.build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.milvus.grpc.DataType;
+import io.milvus.param.collection.CreateCollectionParam;
+import io.milvus.param.collection.FieldType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for writing bulk import files on local disk.
+ */
+class LocalBulkWriterTest {
+    private static final int DIMENSION = 768;
+    private static final long SEGMENT_SIZE = 1 << 20;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void writesTheRowsInOrderIntoFilesOfAtMostTheSegmentSize() throws IOException {
+        List<JSONObject> rows = new SyntheticArticles(5, DIMENSION).batch(0, 1000).articles()
+            .rows(1000, ColumnBatchTest.FIELDS);
+        List<Path> files;
+        try (LocalBulkWriter writer = new LocalBulkWriter(schema(false), output, SEGMENT_SIZE, 3)) {
+            for (JSONObject row : rows) {
+                writer.appendRow(row);
+            }
+            writer.commit();
+            files = writer.getDataFiles();
+            assertEquals(output, writer.getDataPath().getParent());
+        }
+
+        assertTrue(files.size() > 5, files.size() + " files");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals((i + 1) + ".json", files.get(i).getFileName().toString());
+            assertTrue(Files.size(files.get(i)) <= SEGMENT_SIZE);
+            JSONArray written = JSON.parseObject(new String(Files.readAllBytes(files.get(i)), "UTF-8"))
+                .getJSONArray("rows");
+            for (int j = 0; j < written.size(); j++) {
+                ids.add(written.getJSONObject(j).getLong("id"));
+            }
+        }
+        String text = new String(Files.readAllBytes(files.get(0)), "UTF-8");
+        assertTrue(text.startsWith("{\"rows\":[{\"id\":" + rows.get(0).getLong("id") + ",\"title\":"), text);
+        JSONObject first = JSON.parseObject(text).getJSONArray("rows").getJSONObject(0);
+        assertEquals(rows.get(0).getString("title"), first.getString("title"));
+        assertEquals(rows.get(0).get("title_vector"), first.getJSONArray("title_vector").toJavaList(Float.class));
+        List<Long> expected = new ArrayList<>();
+        for (JSONObject row : rows) {
+            expected.add(row.getLong("id"));
+        }
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void putsTheKeysTheSchemaDoesNotHaveInMeta() throws IOException {
+        JSONObject row = row(1);
+        row.put("color", "red");
+        try (LocalBulkWriter writer = new LocalBulkWriter(schema(true), output, SEGMENT_SIZE, 1)) {
+            writer.appendRow(row);
+            writer.commit();
+
+            JSONObject written = JSON.parseObject(new String(Files.readAllBytes(writer.getDataFiles().get(0)),
+                "UTF-8")).getJSONArray("rows").getJSONObject(0);
+            assertEquals("red", written.getJSONObject("$meta").getString("color"));
+            assertEquals(1L, written.getLongValue("id"));
+        }
+    }
+
+    @Test
+    void rejectsRowsThatDoNotMatchTheSchema() throws IOException {
+        try (LocalBulkWriter writer = new LocalBulkWriter(schema(false), output, SEGMENT_SIZE, 1)) {
+            JSONObject missing = row(1);
+            missing.remove("claps");
+            JSONObject unknown = row(2);
+            unknown.put("color", "red");
+            JSONObject wrongType = row(3);
+            wrongType.put("reading_time", "5 min");
+            JSONObject tooLong = row(4);
+            tooLong.put("title", new String(new char[171]).replace("\0", "ééé"));
+            JSONObject wrongDimension = row(5);
+            wrongDimension.put("title_vector", new FloatVector(new float[DIMENSION - 1]));
+
+            for (JSONObject row : Arrays.asList(missing, unknown, wrongType, tooLong, wrongDimension)) {
+                assertThrows(IllegalArgumentException.class, () -> writer.appendRow(row));
+            }
+            writer.appendRow(row(6));
+            writer.commit();
+            assertEquals(1, writer.getDataFiles().size());
+        }
+    }
+
+    private static JSONObject row(long id) {
+        return new SyntheticArticles(id, DIMENSION).batch(id, 1).articles().get(0).toRow();
+    }
+
+    /**
+     * Returns the schema of the Medium articles collection, as the demos create it.
+     */
+    static CreateCollectionParam schema(boolean dynamicField) {
+        CreateCollectionParam.Builder collection = CreateCollectionParam.newBuilder()
+            .withCollectionName("medium_articles")
+            .withEnableDynamicField(dynamicField);
+        for (String name : ColumnBatchTest.FIELDS) {
+            FieldType.Builder field = FieldType.newBuilder().withName(name);
+            if (name.equals("title_vector")) {
+                field.withDataType(DataType.FloatVector).withDimension(DIMENSION);
+            } else if (name.equals("title") || name.equals("link") || name.equals("publication")) {
+                field.withDataType(DataType.VarChar).withMaxLength(512);
+            } else {
+                field.withDataType(DataType.Int64).withPrimaryKey(name.equals("id"));
+            }
+            collection.addFieldType(field.build());
+        }
+        return collection.build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.zilliz.docs;
+
+import java.util.Arrays;
+
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * A row of the medium articles dataset, with its title vector kept as a {@link FloatVector} over a
+ * {@code float[]} or a mapped cache file.
+ */
+public final class Article {
+    /** The names of an article's fields in the dataset, in the order {@link #toRow()} puts them. */
+    static final String[] FIELDS = {
+        "id", "title", "link", "reading_time", "publication", "claps", "responses", "title_vector"
+    };
+
+    /** The mask {@link #mask} returns for every field. */
+    static final int ALL_FIELDS = (1 << FIELDS.length) - 1;
+
+    private final long id;
+    private final String title;
+    private final String link;
+    private final long readingTime;
+    private final String publication;
+    private final long claps;
+    private final long responses;
+    private final FloatVector titleVector;
+
+    public Article(long id, String title, String link, long readingTime, String publication, long claps,
+            long responses, FloatVector titleVector) {
+        this.id = id;
+        this.title = title;
+        this.link = link;
+        this.readingTime = readingTime;
+        this.publication = publication;
+        this.claps = claps;
+        this.responses = responses;
+        this.titleVector = titleVector;
+    }
+
+    /**
+     * Returns the fields with the given names as a mask, with bit {@code i} set for {@code FIELDS[i]}, or
+     * every field if no names are given.
+     */
+    static int mask(String... names) {
+        if (names.length == 0) {
+            return ALL_FIELDS;
+        }
+        int mask = 0;
+        for (String name : names) {
+            int field = Arrays.asList(FIELDS).indexOf(name);
+            if (field < 0) {
+                throw new IllegalArgumentException("No field named " + name);
+            }
+            mask |= 1 << field;
+        }
+        return mask;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public long getReadingTime() {
+        return readingTime;
+    }
+
+    public String getPublication() {
+        return publication;
+    }
+
+    public long getClaps() {
+        return claps;
+    }
+
+    public long getResponses() {
+        return responses;
+    }
+
+    /**
+     * Returns the title vector as the list of floats {@code InsertParam} expects, without copying it.
+     */
+    public FloatVector getTitleVector() {
+        return titleVector;
+    }
+
+    /**
+     * Returns the row as the dataset file has it, ready for {@code InsertParam.Builder.withRows}.
+     */
+    public JSONObject toRow() {
+        JSONObject row = new JSONObject(8, true);
+        row.put("id", id);
+        row.put("title", title);
+        row.put("link", link);
+        row.put("reading_time", readingTime);
+        row.put("publication", publication);
+        row.put("claps", claps);
+        row.put("responses", responses);
+        row.put("title_vector", titleVector);
+        return row;
+    }
+}
@@ -0,0 +1,436 @@
+package com.zilliz.docs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A binary copy of a medium articles dataset, written once next to the JSON file by {@link #main} and mapped
+ * by later runs.
+ *
+ * <p>{@code <name>.fvecs} holds the title vectors in the usual fvecs layout: for every row, a little-endian
+ * {@code int} dimension followed by that many {@code float}s. {@code <name>.columns} holds everything else
+ * column by column after a header that records the size and modification time of the JSON file: the
+ * {@code id}, {@code reading_time}, {@code claps} and {@code responses} columns as {@code long}s, then the
+ * {@code title}, {@code link} and {@code publication} columns, each as {@code rows + 1} {@code int} offsets
+ * into its UTF-8 bytes. The offset that ends a {@code null} value is stored as its complement, so it reads as
+ * negative. Both files are mapped with {@link FileChannel#map}, after {@link #open} has checked that every
+ * column fits, and every {@link Article} reads its vector straight from the mapping.
+ */
+public final class ArticleCache {
+    private static final int MAGIC = 0x5a44434c;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int LONG_COLUMNS = 4;
+    private static final int STRING_COLUMNS = 3;
+    /** Where each long and string column's field is in {@link Article#FIELDS}. */
+    private static final int[] LONG_FIELDS = {0, 3, 5, 6};
+    private static final int[] STRING_FIELDS = {1, 2, 4};
+    private static final int VECTOR_FIELD = 7;
+    /** The string column of {@code publication}, which is read through a {@link StringDictionary}. */
+    private static final int PUBLICATIONS = 2;
+
+    private final int rows;
+    private final FloatBuffer vectors;
+    private final int[] vectorOffsets;
+    private final int[] dimensions;
+    private final ByteBuffer columns;
+    /** Where the offsets of each string column start in {@link #columns}. */
+    private final int[] stringColumns;
+
+    private ArticleCache(int rows, FloatBuffer vectors, int[] vectorOffsets, int[] dimensions, ByteBuffer columns,
+            int[] stringColumns) {
+        this.rows = rows;
+        this.vectors = vectors;
+        this.vectorOffsets = vectorOffsets;
+        this.dimensions = dimensions;
+        this.columns = columns;
+        this.stringColumns = stringColumns;
+    }
+
+    static Path vectorsPath(Path dataset) {
+        return sibling(dataset, ".fvecs");
+    }
+
+    static Path columnsPath(Path dataset) {
+        return sibling(dataset, ".columns");
+    }
+
+    private static Path sibling(Path dataset, String extension) {
+        String name = dataset.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dataset.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + extension);
+    }
+
+    /**
+     * Maps the cache of a dataset, or returns {@code null} if there is none, it was made from another version
+     * of the dataset, or its files are truncated or corrupt.
+     */
+    public static ArticleCache open(Path dataset) throws IOException {
+        Path vectorsFile = vectorsPath(dataset);
+        Path columnsFile = columnsPath(dataset);
+        if (!Files.isRegularFile(vectorsFile) || !Files.isRegularFile(columnsFile)
+                || Files.size(vectorsFile) > Integer.MAX_VALUE || Files.size(columnsFile) > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        ByteBuffer columns = map(columnsFile);
+        if (columns.limit() < HEADER_BYTES || columns.getInt(0) != MAGIC || columns.getInt(4) != VERSION
+                || columns.getLong(8) != Files.size(dataset)
+                || columns.getLong(16) != Files.getLastModifiedTime(dataset).toMillis()) {
+            return null;
+        }
+        int rows = columns.getInt(24);
+        int[] stringColumns = stringColumns(columns, rows);
+        if (stringColumns == null) {
+            return null;
+        }
+
+        ByteBuffer mapped = map(vectorsFile);
+        IntBuffer ints = mapped.asIntBuffer();
+        int[] vectorOffsets = new int[rows];
+        int[] dimensions = new int[rows];
+        int at = 0;
+        for (int i = 0; i < rows; i++) {
+            if (at >= ints.limit()) {
+                return null;
+            }
+            dimensions[i] = ints.get(at);
+            if (dimensions[i] < 0 || dimensions[i] > ints.limit() - at - 1) {
+                return null;
+            }
+            vectorOffsets[i] = at + 1;
+            at += dimensions[i] + 1;
+        }
+        if (at != ints.limit()) {
+            return null;
+        }
+        return new ArticleCache(rows, mapped.asFloatBuffer(), vectorOffsets, dimensions, columns, stringColumns);
+    }
+
+    /**
+     * Returns where the offsets of each string column start, or {@code null} if the header's row count, the
+     * columns or their offsets do not fit the file.
+     */
+    private static int[] stringColumns(ByteBuffer columns, int rows) {
+        if (rows < 0) {
+            return null;
+        }
+        int[] stringColumns = new int[STRING_COLUMNS];
+        long at = HEADER_BYTES + (long) LONG_COLUMNS * rows * 8;
+        for (int c = 0; c < STRING_COLUMNS; c++) {
+            long bytes = at + (rows + 1) * 4L;
+            if (bytes > columns.limit() || columns.getInt((int) at) != 0) {
+                return null;
+            }
+            int previous = 0;
+            for (int i = 1; i <= rows; i++) {
+                int end = end(columns.getInt((int) at + i * 4));
+                if (end < previous) {
+                    return null;
+                }
+                previous = end;
+            }
+            stringColumns[c] = (int) at;
+            at = bytes + previous;
+        }
+        return at == columns.limit() ? stringColumns : null;
+    }
+
+    /**
+     * Returns the end of a value from its stored offset, which is complemented if the value is {@code null}.
+     */
+    private static int end(int offset) {
+        return offset < 0 ? ~offset : offset;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Parses a dataset once and writes its cache, replacing any older one. The dataset is streamed, or decoded
+     * on as many threads as {@link ArticleTable#PARALLELISM} asks for.
+     */
+    public static void write(Path dataset) throws IOException {
+        long size = Files.size(dataset);
+        long modified = Files.getLastModifiedTime(dataset).toMillis();
+        Path vectorsFile = vectorsPath(dataset);
+        Path columnsFile = columnsPath(dataset);
+        Path vectorsPartial = Files.createTempFile(vectorsFile.toAbsolutePath().getParent(),
+            vectorsFile.getFileName().toString(), ".tmp");
+        Path columnsPartial = Files.createTempFile(columnsFile.toAbsolutePath().getParent(),
+            columnsFile.getFileName().toString(), ".tmp");
+
+        try {
+            int rows = 0;
+            long[][] longs = new long[LONG_COLUMNS][1024];
+            int[][] offsets = new int[STRING_COLUMNS][1025];
+            ByteArrayOutputStream[] strings = new ByteArrayOutputStream[STRING_COLUMNS];
+            for (int c = 0; c < STRING_COLUMNS; c++) {
+                strings[c] = new ByteArrayOutputStream();
+            }
+
+            int parallelism = ArticleTable.parallelism();
+            ArticleTable table = parallelism > 1
+                ? ArticleTable.decode(dataset, Integer.MAX_VALUE, parallelism) : null;
+            try (DatasetReader reader = table == null ? new DatasetReader(dataset) : null;
+                    FileChannel out = FileChannel.open(vectorsPartial, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+                Article article;
+                while ((article = next(reader, table, rows)) != null) {
+                    FloatVector vector = article.getTitleVector();
+                    ensure(out, buffer, 4);
+                    buffer.putInt(vector.size());
+                    for (int i = 0; i < vector.size(); i++) {
+                        ensure(out, buffer, 4);
+                        buffer.putFloat(vector.getFloat(i));
+                    }
+
+                    if (rows == longs[0].length) {
+                        for (int c = 0; c < LONG_COLUMNS; c++) {
+                            longs[c] = Arrays.copyOf(longs[c], rows * 2);
+                        }
+                        for (int c = 0; c < STRING_COLUMNS; c++) {
+                            offsets[c] = Arrays.copyOf(offsets[c], rows * 2 + 1);
+                        }
+                    }
+                    longs[0][rows] = article.getId();
+                    longs[1][rows] = article.getReadingTime();
+                    longs[2][rows] = article.getClaps();
+                    longs[3][rows] = article.getResponses();
+                    String[] values = {article.getTitle(), article.getLink(), article.getPublication()};
+                    for (int c = 0; c < STRING_COLUMNS; c++) {
+                        if (values[c] == null) {
+                            offsets[c][rows + 1] = ~strings[c].size();
+                        } else {
+                            strings[c].write(values[c].getBytes(StandardCharsets.UTF_8));
+                            offsets[c][rows + 1] = strings[c].size();
+                        }
+                    }
+                    rows++;
+                }
+                buffer.flip();
+                flush(out, buffer);
+                if (out.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Too many vectors in " + dataset + " to map them");
+                }
+            }
+
+            long length = HEADER_BYTES + (long) LONG_COLUMNS * rows * 8;
+            for (int c = 0; c < STRING_COLUMNS; c++) {
+                length += (rows + 1) * 4L + strings[c].size();
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Too many rows in " + dataset + " to cache them");
+            }
+            ByteBuffer columns = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+            columns.putInt(MAGIC).putInt(VERSION).putLong(size).putLong(modified).putInt(rows).putInt(0);
+            for (int c = 0; c < LONG_COLUMNS; c++) {
+                for (int i = 0; i < rows; i++) {
+                    columns.putLong(longs[c][i]);
+                }
+            }
+            for (int c = 0; c < STRING_COLUMNS; c++) {
+                for (int i = 0; i <= rows; i++) {
+                    columns.putInt(offsets[c][i]);
+                }
+                columns.put(strings[c].toByteArray());
+            }
+            columns.flip();
+            try (FileChannel out = FileChannel.open(columnsPartial, StandardOpenOption.WRITE)) {
+                flush(out, columns);
+            }
+
+            Files.move(vectorsPartial, vectorsFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(columnsPartial, columnsFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(vectorsPartial);
+            Files.deleteIfExists(columnsPartial);
+        }
+    }
+
+    private static Article next(DatasetReader reader, ArticleTable table, int row) throws IOException {
+        if (table == null) {
+            return reader.nextArticle();
+        }
+        return row < table.size() ? table.get(row) : null;
+    }
+
+    private static void ensure(FileChannel out, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            flush(out, buffer);
+            buffer.clear();
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Returns the number of rows in the cache.
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Returns the row at the given index. Its strings are decoded now, its vector stays in the mapping.
+     */
+    public Article get(int index) {
+        if (index < 0 || index >= rows) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rows);
+        }
+        return get(index, Article.ALL_FIELDS);
+    }
+
+    /**
+     * Returns the first {@code limit} rows, or all of them if there are fewer.
+     */
+    public List<Article> articles(int limit) {
+        return articles(limit, Article.ALL_FIELDS);
+    }
+
+    /**
+     * Returns the first {@code limit} rows with only the fields in {@code projection}, a mask from
+     * {@link Article#mask}. The strings of the other fields are never decoded.
+     */
+    List<Article> articles(int limit, int projection) {
+        List<Article> articles = new ArrayList<>(Math.min(limit, rows));
+        for (int i = 0; i < rows && i < limit; i++) {
+            articles.add(get(i, projection));
+        }
+        return articles;
+    }
+
+    /**
+     * Returns the first {@code limit} rows, or all of them if there are fewer, as a table whose vectors stay in
+     * the mapping.
+     */
+    public ArticleTable table(int limit) {
+        return table(limit, Article.ALL_FIELDS);
+    }
+
+    /**
+     * Returns the first {@code limit} rows as a table with only the fields in {@code projection}, a mask from
+     * {@link Article#mask}.
+     */
+    ArticleTable table(int limit, int projection) {
+        int size = Math.min(limit, rows);
+        long[][] longs = new long[LONG_COLUMNS][size];
+        String[][] strings = new String[PUBLICATIONS][size];
+        int[] publications = new int[size];
+        StringDictionary publicationValues = new StringDictionary();
+        for (int c = 0; c < LONG_COLUMNS; c++) {
+            if ((projection & 1 << LONG_FIELDS[c]) != 0) {
+                for (int i = 0; i < size; i++) {
+                    longs[c][i] = longColumn(c, i);
+                }
+            }
+        }
+        for (int c = 0; c < PUBLICATIONS; c++) {
+            if ((projection & 1 << STRING_FIELDS[c]) != 0) {
+                for (int i = 0; i < size; i++) {
+                    strings[c][i] = string(c, i);
+                }
+            }
+        }
+        if ((projection & 1 << STRING_FIELDS[PUBLICATIONS]) != 0) {
+            encode(PUBLICATIONS, publications, size, publicationValues);
+        } else {
+            Arrays.fill(publications, -1);
+        }
+        return new ArticleTable(size, longs[0], strings[0], strings[1], longs[1], publications,
+            publicationValues.values(), longs[2], longs[3], vectors, vectorOffsets, dimensions, projection);
+    }
+
+    private Article get(int index, int projection) {
+        long[] longs = new long[LONG_COLUMNS];
+        String[] strings = new String[STRING_COLUMNS];
+        for (int c = 0; c < LONG_COLUMNS; c++) {
+            if ((projection & 1 << LONG_FIELDS[c]) != 0) {
+                longs[c] = longColumn(c, index);
+            }
+        }
+        for (int c = 0; c < STRING_COLUMNS; c++) {
+            if ((projection & 1 << STRING_FIELDS[c]) != 0) {
+                strings[c] = string(c, index);
+            }
+        }
+        FloatVector vector = (projection & 1 << VECTOR_FIELD) != 0
+            ? new FloatVector(vectors, vectorOffsets[index], dimensions[index])
+            : new FloatVector(new float[0]);
+        return new Article(longs[0], strings[0], strings[1], longs[1], strings[2], longs[2], longs[3], vector);
+    }
+
+    private long longColumn(int column, int index) {
+        return columns.getLong(HEADER_BYTES + (column * rows + index) * 8);
+    }
+
+    /**
+     * Puts the codes of the first {@code size} values of a string column into {@code codes}, making a
+     * {@code String} only for each distinct value. A {@code null} value gets -1.
+     */
+    private void encode(int column, int[] codes, int size, StringDictionary dictionary) {
+        int offsets = stringColumns[column];
+        byte[] bytes = new byte[end(columns.getInt(offsets + size * 4))];
+        ByteBuffer source = columns.duplicate();
+        source.position(offsets + (rows + 1) * 4);
+        source.get(bytes);
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            int offset = columns.getInt(offsets + (i + 1) * 4);
+            codes[i] = offset < 0 ? -1 : dictionary.encode(bytes, start, offset);
+            start = end(offset);
+        }
+    }
+
+    private String string(int column, int index) {
+        int offsets = stringColumns[column];
+        int start = end(columns.getInt(offsets + index * 4));
+        int end = columns.getInt(offsets + (index + 1) * 4);
+        if (end < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer source = columns.duplicate();
+        source.position(offsets + (rows + 1) * 4 + start);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the cache of every dataset file given.
+     *
+     * <p>Usage: {@code ArticleCache <dataset file>...}
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            Path dataset = Paths.get(arg);
+            long start = System.nanoTime();
+            write(dataset);
+            System.out.println("Cached " + dataset + " as " + vectorsPath(dataset).getFileName() + " and "
+                + columnsPath(dataset).getFileName() + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+}
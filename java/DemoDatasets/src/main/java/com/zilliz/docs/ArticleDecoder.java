@@ -0,0 +1,301 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.alibaba.fastjson2.JSONReader;
+
+/**
+ * Decodes the bytes of one row of the medium articles dataset into an {@link Article}.
+ *
+ * <p>The decoder walks the row's fields itself. A field outside the projection it was made with is only
+ * stepped over, the way {@link RowScanner} finds the end of a row, so a row decoded without its title
+ * vector never parses a single float of it. The title vector is parsed straight from the bytes by
+ * {@link FloatParser}, and fastjson is only asked to unescape strings that have escapes. Every row's
+ * {@code publication} is the same {@code String} as the other rows with that publication. A decoder keeps a
+ * scratch buffer for the vector and a dictionary of publications, so each thread needs its own.
+ */
+final class ArticleDecoder {
+    private static final byte[][] NAMES = new byte[Article.FIELDS.length][];
+    private static final boolean[] STRUCTURAL = new boolean[256];
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            NAMES[i] = Article.FIELDS[i].getBytes(StandardCharsets.UTF_8);
+        }
+        for (char c : new char[] {'"', '{', '[', '}', ']'}) {
+            STRUCTURAL[c] = true;
+        }
+    }
+
+    private final int projection;
+    private float[] vector = new float[1024];
+    private final StringDictionary publications = new StringDictionary();
+
+    ArticleDecoder() {
+        this(Article.ALL_FIELDS);
+    }
+
+    /**
+     * @param projection The fields to decode, as a mask from {@link Article#mask}.
+     */
+    ArticleDecoder(int projection) {
+        this.projection = projection;
+    }
+
+    /**
+     * Decodes the row in {@code bytes[offset, offset + length)}.
+     */
+    Article decode(byte[] bytes, int offset, int length) throws IOException {
+        long id = 0;
+        String title = null;
+        String link = null;
+        long readingTime = 0;
+        String publication = null;
+        long claps = 0;
+        long responses = 0;
+        float[] titleVector = new float[0];
+
+        int end = offset + length;
+        int at = skipWhitespace(bytes, offset, end);
+        expect(bytes, at, '{');
+        at = skipWhitespace(bytes, at + 1, end);
+        if (bytes[at] == '}') {
+            at = end;
+        }
+        while (at < end) {
+            expect(bytes, at, '"');
+            int nameEnd = stringEnd(bytes, at, end);
+            int field = field(bytes, at + 1, nameEnd - 1);
+            at = skipWhitespace(bytes, nameEnd, end);
+            expect(bytes, at, ':');
+            at = skipWhitespace(bytes, at + 1, end);
+            int valueEnd = valueEnd(bytes, at, end);
+
+            if (field >= 0 && (projection & 1 << field) != 0) {
+                switch (Article.FIELDS[field]) {
+                    case "id":
+                        id = readLong(bytes, at, valueEnd);
+                        break;
+                    case "title":
+                        title = readString(bytes, at, valueEnd);
+                        break;
+                    case "link":
+                        link = readString(bytes, at, valueEnd);
+                        break;
+                    case "reading_time":
+                        readingTime = readLong(bytes, at, valueEnd);
+                        break;
+                    case "publication":
+                        publication = readString(bytes, at, valueEnd, publications);
+                        break;
+                    case "claps":
+                        claps = readLong(bytes, at, valueEnd);
+                        break;
+                    case "responses":
+                        responses = readLong(bytes, at, valueEnd);
+                        break;
+                    default:
+                        titleVector = readVector(bytes, at, valueEnd);
+                        break;
+                }
+            }
+
+            at = skipWhitespace(bytes, valueEnd, end);
+            if (bytes[at] == ',') {
+                at = skipWhitespace(bytes, at + 1, end);
+            } else {
+                expect(bytes, at, '}');
+                at = end;
+            }
+        }
+        return new Article(id, title, link, readingTime, publication, claps, responses,
+            new FloatVector(titleVector));
+    }
+
+    /**
+     * Returns the index of the field whose name is in {@code bytes[start, end)}, or -1 for any other field.
+     */
+    private static int field(byte[] bytes, int start, int end) {
+        for (int i = 0; i < NAMES.length; i++) {
+            byte[] name = NAMES[i];
+            if (name.length == end - start) {
+                int j = 0;
+                while (j < name.length && name[j] == bytes[start + j]) {
+                    j++;
+                }
+                if (j == name.length) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index just past the value that starts at {@code at}, without decoding it.
+     */
+    private static int valueEnd(byte[] bytes, int at, int end) throws IOException {
+        byte first = bytes[at];
+        if (first == '"') {
+            return stringEnd(bytes, at, end);
+        }
+        if (first != '{' && first != '[') {
+            int i = at;
+            while (i < end && bytes[i] != ',' && bytes[i] != '}' && bytes[i] != ']' && bytes[i] > ' ') {
+                i++;
+            }
+            return i;
+        }
+        int depth = 0;
+        int i = at;
+        while (i < end) {
+            while (i < end && !STRUCTURAL[bytes[i] & 0xff]) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            byte b = bytes[i];
+            if (b == '"') {
+                i = stringEnd(bytes, i, end);
+            } else if (b == '{' || b == '[') {
+                depth++;
+                i++;
+            } else if (--depth == 0) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        throw new IOException("A row ends in the middle of a value");
+    }
+
+    /**
+     * Returns the index just past the closing quote of the string that starts at {@code at}.
+     */
+    private static int stringEnd(byte[] bytes, int at, int end) throws IOException {
+        for (int i = at + 1; i < end; i++) {
+            if (bytes[i] == '\\') {
+                i++;
+            } else if (bytes[i] == '"') {
+                return i + 1;
+            }
+        }
+        throw new IOException("A row ends in the middle of a string");
+    }
+
+    private static String readString(byte[] bytes, int start, int end) throws IOException {
+        if (isNull(bytes, start, end)) {
+            return null;
+        }
+        expect(bytes, start, '"');
+        for (int i = start + 1; i < end - 1; i++) {
+            if (bytes[i] == '\\') {
+                try (JSONReader reader = JSONReader.of(bytes, start, end - start, StandardCharsets.UTF_8)) {
+                    return reader.readString();
+                }
+            }
+        }
+        return new String(bytes, start + 1, end - start - 2, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a string of a column with few distinct values, returning the dictionary's instance of it and
+     * making none for a value the dictionary has already seen.
+     */
+    private static String readString(byte[] bytes, int start, int end, StringDictionary dictionary)
+            throws IOException {
+        if (isNull(bytes, start, end)) {
+            return null;
+        }
+        expect(bytes, start, '"');
+        for (int i = start + 1; i < end - 1; i++) {
+            if (bytes[i] == '\\') {
+                return dictionary.value(dictionary.encode(readString(bytes, start, end)));
+            }
+        }
+        return dictionary.value(dictionary.encode(bytes, start + 1, end - 1));
+    }
+
+    private static long readLong(byte[] bytes, int start, int end) throws IOException {
+        if (isNull(bytes, start, end)) {
+            return 0;
+        }
+        int i = start;
+        boolean negative = i < end && bytes[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        // 18 digits cannot overflow a long
+        for (; i < end && i - start < 18 && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+            value = value * 10 + (bytes[i] - '0');
+        }
+        if (i == end && i > (negative ? start + 1 : start)) {
+            return negative ? -value : value;
+        }
+        String text = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        try {
+            return new BigDecimal(text).longValue();
+        } catch (NumberFormatException e) {
+            throw new IOException("Expected a number but found " + text, e);
+        }
+    }
+
+    /**
+     * Reads an array of numbers into a {@code float[]} of exactly its length.
+     */
+    private float[] readVector(byte[] bytes, int start, int end) throws IOException {
+        if (isNull(bytes, start, end)) {
+            return new float[0];
+        }
+        expect(bytes, start, '[');
+        int size = 0;
+        int at = skipWhitespace(bytes, start + 1, end);
+        while (bytes[at] != ']') {
+            int numberEnd = at;
+            while (numberEnd < end && bytes[numberEnd] != ',' && bytes[numberEnd] != ']' && bytes[numberEnd] > ' ') {
+                numberEnd++;
+            }
+            if (size == vector.length) {
+                vector = Arrays.copyOf(vector, size * 2);
+            }
+            try {
+                vector[size++] = FloatParser.parse(bytes, at, numberEnd);
+            } catch (NumberFormatException e) {
+                throw new IOException("Expected a number in a vector but found "
+                    + new String(bytes, at, numberEnd - at, StandardCharsets.UTF_8), e);
+            }
+            at = skipWhitespace(bytes, numberEnd, end);
+            if (bytes[at] == ',') {
+                at = skipWhitespace(bytes, at + 1, end);
+            }
+        }
+        return Arrays.copyOf(vector, size);
+    }
+
+    private static boolean isNull(byte[] bytes, int start, int end) {
+        return end - start == NULL.length && bytes[start] == 'n' && bytes[start + 1] == 'u'
+            && bytes[start + 2] == 'l' && bytes[start + 3] == 'l';
+    }
+
+    private static void expect(byte[] bytes, int at, char c) throws IOException {
+        if (bytes[at] != c) {
+            throw new IOException("Expected '" + c + "' but found '" + (char) bytes[at] + "'");
+        }
+    }
+
+    private static int skipWhitespace(byte[] bytes, int at, int end) throws IOException {
+        while (at < end && (bytes[at] == ' ' || bytes[at] == '\n' || bytes[at] == '\r' || bytes[at] == '\t')) {
+            at++;
+        }
+        if (at == end) {
+            throw new IOException("A row ends in the middle of a value");
+        }
+        return at;
+    }
+}
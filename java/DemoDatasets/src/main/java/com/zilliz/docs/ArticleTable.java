@@ -0,0 +1,449 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * The rows of a medium articles dataset, decoded once into one array per column and one buffer holding every
+ * title vector.
+ *
+ * <p>Both ways of inserting them are views over the same columns. {@link #column} returns the values
+ * {@code InsertParam.Field} takes, with {@code long}s boxed and vectors wrapped in a {@link FloatVector} only
+ * as the SDK reads them. {@link #rows} returns the {@code JSONObject}s {@code InsertParam.Builder.withRows}
+ * takes, each made when it is read rather than kept for every row.
+ *
+ * <p>{@code publication} has only a few distinct values, so it is held as {@code int} codes into one
+ * {@code String} per value.
+ *
+ * <p>A table can be loaded with only some of the fields. The others are skipped while the JSON is tokenized,
+ * so a table without {@code title_vector} never parses a float, and asking it for a field it does not have
+ * is an error rather than a column of empty values.
+ */
+public final class ArticleTable {
+    /** The system property that sets how many threads {@link #load} decodes a dataset without a cache on. */
+    public static final String PARALLELISM = "dataset.parallelism";
+
+    private final int rows;
+    private final long[] ids;
+    private final String[] titles;
+    private final String[] links;
+    private final long[] readingTimes;
+    private final int[] publications;
+    private final String[] publicationValues;
+    private final long[] claps;
+    private final long[] responses;
+    private final FloatBuffer vectors;
+    private final int[] vectorOffsets;
+    private final int[] dimensions;
+    private final int fields;
+
+    /**
+     * @param publications The code of each row's {@code publication} in {@code publicationValues}, or -1 for
+     *     none.
+     */
+    ArticleTable(int rows, long[] ids, String[] titles, String[] links, long[] readingTimes, int[] publications,
+            String[] publicationValues, long[] claps, long[] responses, FloatBuffer vectors, int[] vectorOffsets,
+            int[] dimensions, int fields) {
+        this.rows = rows;
+        this.ids = ids;
+        this.titles = titles;
+        this.links = links;
+        this.readingTimes = readingTimes;
+        this.publications = publications;
+        this.publicationValues = publicationValues;
+        this.claps = claps;
+        this.responses = responses;
+        this.vectors = vectors;
+        this.vectorOffsets = vectorOffsets;
+        this.dimensions = dimensions;
+        this.fields = fields;
+    }
+
+    /**
+     * Loads the first {@code limit} rows of a dataset file, or all of them if there are fewer. The rows come
+     * from the file's {@link ArticleCache} if one has been written and is up to date, and are otherwise decoded
+     * from the JSON file in a single pass, on as many threads as the {@value #PARALLELISM} system property asks
+     * for.
+     * @param fields The fields to load, or none for all of them.
+     */
+    public static ArticleTable load(Path file, int limit, String... fields) throws IOException {
+        int projection = Article.mask(fields);
+        ArticleCache cache = ArticleCache.open(file);
+        if (cache != null) {
+            return cache.table(limit, projection);
+        }
+        int parallelism = parallelism();
+        return parallelism > 1 ? decode(file, limit, parallelism, projection) : stream(file, limit, projection);
+    }
+
+    /**
+     * Returns how many threads decode a dataset, 1 unless the {@value #PARALLELISM} system property says
+     * otherwise.
+     */
+    static int parallelism() {
+        return Math.max(1, Integer.getInteger(PARALLELISM, 1));
+    }
+
+    /**
+     * Decodes the first {@code limit} rows of a dataset file straight from its JSON, streaming it on the
+     * calling thread.
+     */
+    static ArticleTable decode(Path file, int limit) throws IOException {
+        return stream(file, limit, Article.ALL_FIELDS);
+    }
+
+    /**
+     * Decodes the fields in {@code projection}, a mask from {@link Article#mask}, of the first {@code limit}
+     * rows of a dataset file, streaming it on the calling thread.
+     */
+    static ArticleTable stream(Path file, int limit, int projection) throws IOException {
+        Builder builder = new Builder(Math.min(limit, 1024), projection);
+        try (DatasetReader reader = new DatasetReader(file, projection)) {
+            Article article;
+            while (builder.size < limit && (article = reader.nextArticle()) != null) {
+                builder.add(article);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decodes the first {@code limit} rows of a dataset file straight from its JSON on {@code parallelism}
+     * threads.
+     *
+     * <p>The whole file is read into memory and one pass over its bytes finds where every row starts and
+     * ends, which is cheap next to decoding the rows. Ranges of rows are then decoded on a
+     * {@link ForkJoinPool}, each row into its own slot, so the rows keep the order of the file. A file too
+     * large for one array is streamed as {@link #decode(Path, int)} does.
+     */
+    public static ArticleTable decode(Path file, int limit, int parallelism) throws IOException {
+        return decode(file, limit, parallelism, Article.ALL_FIELDS);
+    }
+
+    static ArticleTable decode(Path file, int limit, int parallelism, int projection) throws IOException {
+        if (Files.size(file) > Integer.MAX_VALUE - 8) {
+            return stream(file, limit, projection);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        RowScanner scanner = new RowScanner(bytes, bytes.length);
+        int[] offsets = new int[Math.min(limit, 1024)];
+        int[] lengths = new int[offsets.length];
+        int size = 0;
+        while (size < limit && scanner.next()) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, (int) Math.min(size * 2L, limit));
+                lengths = Arrays.copyOf(lengths, offsets.length);
+            }
+            offsets[size] = scanner.offset();
+            lengths[size] = scanner.length();
+            size++;
+        }
+
+        Article[] articles = new Article[size];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int grain = Math.max(1, size / (parallelism * 4));
+            pool.invoke(new DecodeTask(bytes, offsets, lengths, articles, 0, size, grain, projection));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+
+        Builder builder = new Builder(size, projection);
+        for (Article article : articles) {
+            builder.add(article);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Returns the row at the given index, with its vector viewing the table's. Fields the table was loaded
+     * without are left {@code null}, zero or empty.
+     */
+    public Article get(int index) {
+        checkIndex(index, rows);
+        FloatVector vector = (fields & Article.mask("title_vector")) != 0
+            ? vector(index) : new FloatVector(new float[0]);
+        return new Article(ids[index], titles[index], links[index], readingTimes[index], publication(index),
+            claps[index], responses[index], vector);
+    }
+
+    /**
+     * Returns the first {@code counts} values of a column, as {@code InsertParam.Field} takes them.
+     * @param name One of {@code id}, {@code title}, {@code link}, {@code reading_time}, {@code publication},
+     *     {@code claps}, {@code responses} and {@code title_vector}, if the table was loaded with it.
+     */
+    public List<?> column(String name, int counts) {
+        if ((fields & Article.mask(name)) == 0) {
+            throw new IllegalArgumentException("The table was loaded without " + name);
+        }
+        int size = Math.min(counts, rows);
+        switch (name) {
+            case "id":
+                return new LongColumn(ids, size);
+            case "title":
+                return Arrays.asList(titles).subList(0, size);
+            case "link":
+                return Arrays.asList(links).subList(0, size);
+            case "reading_time":
+                return new LongColumn(readingTimes, size);
+            case "publication":
+                return new DictionaryColumn(publications, publicationValues, size);
+            case "claps":
+                return new LongColumn(claps, size);
+            case "responses":
+                return new LongColumn(responses, size);
+            case "title_vector":
+                return new VectorColumn(size);
+            default:
+                throw new IllegalArgumentException("No column named " + name);
+        }
+    }
+
+    /**
+     * Returns the first {@code counts} rows with the given fields, or with every field the table was loaded
+     * with if none are given, as {@code InsertParam.Builder.withRows} takes them.
+     */
+    public List<JSONObject> rows(int counts, String... names) {
+        String[] selected = names.length == 0 ? loadedFields() : names.clone();
+        for (String field : selected) {
+            // fail here rather than when the SDK reads the first row
+            column(field, 0);
+        }
+        int size = Math.min(counts, rows);
+        return new RowView(selected, size);
+    }
+
+    private String[] loadedFields() {
+        List<String> names = new ArrayList<>(Article.FIELDS.length);
+        for (int i = 0; i < Article.FIELDS.length; i++) {
+            if ((fields & 1 << i) != 0) {
+                names.add(Article.FIELDS[i]);
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    Object value(String name, int row) {
+        switch (name) {
+            case "id":
+                return ids[row];
+            case "title":
+                return titles[row];
+            case "link":
+                return links[row];
+            case "reading_time":
+                return readingTimes[row];
+            case "publication":
+                return publication(row);
+            case "claps":
+                return claps[row];
+            case "responses":
+                return responses[row];
+            default:
+                return vector(row);
+        }
+    }
+
+    private String publication(int row) {
+        int code = publications[row];
+        return code < 0 ? null : publicationValues[code];
+    }
+
+    private FloatVector vector(int row) {
+        return new FloatVector(vectors, vectorOffsets[row], dimensions[row]);
+    }
+
+    static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Decodes the rows in {@code [from, to)}, splitting the range while it is larger than {@code grain}.
+     */
+    private static final class DecodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final Article[] articles;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final int projection;
+
+        DecodeTask(byte[] bytes, int[] offsets, int[] lengths, Article[] articles, int from, int to, int grain,
+                int projection) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.articles = articles;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.projection = projection;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                ArticleDecoder decoder = new ArticleDecoder(projection);
+                for (int i = from; i < to; i++) {
+                    try {
+                        articles[i] = decoder.decode(bytes, offsets[i], lengths[i]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecodeTask(bytes, offsets, lengths, articles, from, middle, grain, projection),
+                new DecodeTask(bytes, offsets, lengths, articles, middle, to, grain, projection));
+        }
+    }
+
+    /**
+     * Collects decoded rows into columns, with every vector copied into one growing {@code float[]} and every
+     * {@code publication} kept as a code into a {@link StringDictionary}.
+     */
+    private static final class Builder {
+        private long[][] longs;
+        private String[][] strings;
+        private int[] publications;
+        private final StringDictionary publicationValues = new StringDictionary();
+        private float[] slab;
+        private int[] vectorOffsets;
+        private int[] dimensions;
+        private int size;
+        private int floats;
+        private final int projection;
+
+        Builder(int capacity, int projection) {
+            this.projection = projection;
+            longs = new long[4][capacity];
+            strings = new String[2][capacity];
+            publications = new int[capacity];
+            slab = new float[(projection & Article.mask("title_vector")) != 0 ? capacity * 768 : 0];
+            vectorOffsets = new int[capacity];
+            dimensions = new int[capacity];
+        }
+
+        void add(Article article) {
+            if (size == vectorOffsets.length) {
+                int capacity = Math.max(16, size * 2);
+                for (int c = 0; c < longs.length; c++) {
+                    longs[c] = Arrays.copyOf(longs[c], capacity);
+                }
+                for (int c = 0; c < strings.length; c++) {
+                    strings[c] = Arrays.copyOf(strings[c], capacity);
+                }
+                publications = Arrays.copyOf(publications, capacity);
+                vectorOffsets = Arrays.copyOf(vectorOffsets, capacity);
+                dimensions = Arrays.copyOf(dimensions, capacity);
+            }
+            FloatVector vector = article.getTitleVector();
+            if (floats + vector.size() > slab.length) {
+                slab = Arrays.copyOf(slab, Math.max(slab.length * 2, floats + vector.size()));
+            }
+            vector.copyTo(slab, floats);
+            vectorOffsets[size] = floats;
+            dimensions[size] = vector.size();
+            floats += vector.size();
+
+            longs[0][size] = article.getId();
+            longs[1][size] = article.getReadingTime();
+            longs[2][size] = article.getClaps();
+            longs[3][size] = article.getResponses();
+            strings[0][size] = article.getTitle();
+            strings[1][size] = article.getLink();
+            String publication = article.getPublication();
+            publications[size] = publication == null ? -1 : publicationValues.encode(publication);
+            size++;
+        }
+
+        ArticleTable build() {
+            return new ArticleTable(size, longs[0], strings[0], strings[1], longs[1], publications,
+                publicationValues.values(), longs[2], longs[3], FloatBuffer.wrap(slab, 0, floats), vectorOffsets,
+                dimensions, projection);
+        }
+    }
+
+    private final class VectorColumn extends AbstractList<List<Float>> implements RandomAccess {
+        private final int size;
+
+        VectorColumn(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public List<Float> get(int index) {
+            checkIndex(index, size);
+            return vector(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final class RowView extends AbstractList<JSONObject> implements RandomAccess, ColumnRows {
+        private final String[] fields;
+        private final int size;
+
+        RowView(String[] fields, int size) {
+            this.fields = fields;
+            this.size = size;
+        }
+
+        @Override
+        public JSONObject get(int index) {
+            checkIndex(index, size);
+            JSONObject row = new JSONObject(fields.length, true);
+            for (int i = 0; i < fields.length; i++) {
+                row.put(fields[i], value(i, index));
+            }
+            return row;
+        }
+
+        @Override
+        public String[] fields() {
+            return fields;
+        }
+
+        @Override
+        public Object value(int field, int row) {
+            checkIndex(row, size);
+            return ArticleTable.this.value(fields[field], row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.zilliz.docs;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A batch of rows of {@code books.csv}, typed and held one array per column.
+ *
+ * <p>{@link #column} returns the values {@code InsertParam.Field} takes for each field of the schema in
+ * {@link BooksCsvReader#FIELDS}: {@code Int64} fields as {@code Long}s, {@code average_rating} as
+ * {@code Float}s and {@code VarChar} fields as {@code String}s. {@code publication_date} is an {@code Int64}
+ * such as {@code 20060916}, so it sorts and filters as a date. {@code language_code} and {@code publisher}
+ * have few distinct values, so they are held as codes into the reader's dictionaries, and every row with the
+ * same value returns the same {@code String}.
+ */
+public final class BookBatch {
+    final long[] ids;
+    final String[] titles;
+    final String[] authors;
+    final float[] averageRatings;
+    final long[] isbn13s;
+    final int[] languageCodes;
+    final long[] numPages;
+    final long[] ratingsCounts;
+    final long[] publicationDates;
+    final int[] publishers;
+    int size;
+    /** The values of the codes in {@link #languageCodes} and {@link #publishers}. */
+    String[] languageCodeValues;
+    String[] publisherValues;
+
+    BookBatch(int capacity) {
+        ids = new long[capacity];
+        titles = new String[capacity];
+        authors = new String[capacity];
+        averageRatings = new float[capacity];
+        isbn13s = new long[capacity];
+        languageCodes = new int[capacity];
+        numPages = new long[capacity];
+        ratingsCounts = new long[capacity];
+        publicationDates = new long[capacity];
+        publishers = new int[capacity];
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the values of a field, as {@code InsertParam.Field} takes them.
+     * @param name One of {@link BooksCsvReader#FIELDS}.
+     */
+    public List<?> column(String name) {
+        switch (name) {
+            case "id":
+                return new LongColumn(ids, size);
+            case "title":
+                return Arrays.asList(titles).subList(0, size);
+            case "authors":
+                return Arrays.asList(authors).subList(0, size);
+            case "average_rating":
+                return new FloatColumn(averageRatings, size);
+            case "isbn13":
+                return new LongColumn(isbn13s, size);
+            case "language_code":
+                return new DictionaryColumn(languageCodes, languageCodeValues, size);
+            case "num_pages":
+                return new LongColumn(numPages, size);
+            case "ratings_count":
+                return new LongColumn(ratingsCounts, size);
+            case "publication_date":
+                return new LongColumn(publicationDates, size);
+            case "publisher":
+                return new DictionaryColumn(publishers, publisherValues, size);
+            default:
+                throw new IllegalArgumentException("No field named " + name);
+        }
+    }
+
+    /**
+     * Returns the {@code average_rating} of a row without boxing it.
+     */
+    public float getAverageRating(int row) {
+        ArticleTable.checkIndex(row, size);
+        return averageRatings[row];
+    }
+
+    /**
+     * Returns the {@code ratings_count} of a row without boxing it.
+     */
+    public long getRatingsCount(int row) {
+        ArticleTable.checkIndex(row, size);
+        return ratingsCounts[row];
+    }
+
+    private static final class FloatColumn extends AbstractList<Float> implements RandomAccess {
+        private final float[] values;
+        private final int size;
+
+        FloatColumn(float[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public Float get(int index) {
+            ArticleTable.checkIndex(index, size);
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads {@code books.csv} into typed {@link BookBatch}es.
+ *
+ * <p>The file is read into memory once and cut into fields by a {@link CsvParser}, so the only objects a
+ * row makes are the strings of its {@code VarChar} fields. {@code language_code} and {@code publisher} go
+ * through a {@link StringDictionary} shared by all batches, so they make a string only for a value not seen
+ * before. Header names are matched with the spaces around them trimmed, which is how {@code "  num_pages"}
+ * is found. The file has a few rows with an unquoted comma in {@code authors}, such as
+ * {@code James Wesley, Rawles}. A row with more fields than the header therefore has its extra fields joined
+ * back into {@code authors}. A row whose numbers or date do not parse is skipped, and its line is kept in
+ * {@link #skippedLines()}.
+ */
+public final class BooksCsvReader {
+    /** The fields of a book, in the order {@link BookBatch#column} names them. */
+    public static final String[] FIELDS = {
+        "id", "title", "authors", "average_rating", "isbn13", "language_code", "num_pages", "ratings_count",
+        "publication_date", "publisher"
+    };
+
+    /** The column of the file each field comes from. */
+    private static final String[] HEADERS = {
+        "bookID", "title", "authors", "average_rating", "isbn13", "language_code", "num_pages", "ratings_count",
+        "publication_date", "publisher"
+    };
+
+    private static final int AUTHORS = 2;
+
+    private final CsvParser parser;
+    private final int headerFields;
+    private final int[] columns = new int[HEADERS.length];
+    private final List<Integer> skippedLines = new ArrayList<>();
+    private final StringDictionary languageCodes = new StringDictionary();
+    private final StringDictionary publishers = new StringDictionary();
+
+    public BooksCsvReader(Path file) throws IOException {
+        this(Files.readAllBytes(file));
+    }
+
+    public BooksCsvReader(byte[] bytes) throws IOException {
+        parser = new CsvParser(bytes, bytes.length);
+        if (!parser.next()) {
+            throw new IOException("The file has no header");
+        }
+        headerFields = parser.fields();
+        for (int c = 0; c < HEADERS.length; c++) {
+            columns[c] = -1;
+            for (int f = 0; f < headerFields; f++) {
+                if (parser.string(f).trim().equals(HEADERS[c])) {
+                    columns[c] = f;
+                }
+            }
+            if (columns[c] < 0) {
+                throw new IOException("The file has no column named " + HEADERS[c]);
+            }
+        }
+    }
+
+    /**
+     * Reads the next {@code batchSize} rows, or fewer at the end of the file.
+     * @return The rows, or {@code null} if there are none left.
+     */
+    public BookBatch next(int batchSize) throws IOException {
+        BookBatch batch = new BookBatch(batchSize);
+        while (batch.size < batchSize && parser.next()) {
+            if (parser.fields() < headerFields) {
+                skippedLines.add(parser.line());
+                continue;
+            }
+            try {
+                read(batch, batch.size);
+                batch.size++;
+            } catch (NumberFormatException e) {
+                skippedLines.add(parser.line());
+            }
+        }
+        batch.languageCodeValues = languageCodes.values();
+        batch.publisherValues = publishers.values();
+        return batch.size == 0 ? null : batch;
+    }
+
+    /**
+     * Returns the lines of the rows skipped so far.
+     */
+    public List<Integer> skippedLines() {
+        return Collections.unmodifiableList(skippedLines);
+    }
+
+    private void read(BookBatch batch, int row) {
+        int extra = parser.fields() - headerFields;
+        batch.ids[row] = parser.parseLong(field(0, extra));
+        batch.averageRatings[row] = parser.parseFloat(field(3, extra));
+        batch.isbn13s[row] = parser.parseLong(field(4, extra));
+        batch.numPages[row] = parser.parseLong(field(6, extra));
+        batch.ratingsCounts[row] = parser.parseLong(field(7, extra));
+        batch.publicationDates[row] = parser.parseDate(field(8, extra));
+        batch.titles[row] = parser.string(field(1, extra));
+        batch.authors[row] = parser.string(columns[AUTHORS], columns[AUTHORS] + extra);
+        batch.languageCodes[row] = parser.encode(field(5, extra), languageCodes);
+        batch.publishers[row] = parser.encode(field(9, extra), publishers);
+    }
+
+    /**
+     * Returns where a field is in a row with {@code extra} more fields than the header.
+     */
+    private int field(int column, int extra) {
+        return columns[column] > columns[AUTHORS] ? columns[column] + extra : columns[column];
+    }
+}
@@ -0,0 +1,18 @@
+package com.zilliz.docs;
+
+/**
+ * Rows that are made from columns only when they are read, such as those of {@link ArticleTable#rows} and
+ * {@link SyntheticBatch#rows}. Their values can be read without making the rows, as when only their size is
+ * wanted.
+ */
+public interface ColumnRows {
+    /**
+     * Returns the names of the fields every row has, in order.
+     */
+    String[] fields();
+
+    /**
+     * Returns the value of a field of a row, as the row holds it.
+     */
+    Object value(int field, int row);
+}
@@ -0,0 +1,278 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits CSV bytes into records and records into fields without copying any of them.
+ *
+ * <p>After {@link #next()} each field is a range of the original bytes, and nothing is decoded until a caller
+ * asks for a field as a {@code String} or a number. A field that starts with a quote is quoted as RFC 4180
+ * has it: it may hold commas and line breaks, and a doubled quote stands for one. A quote anywhere else is
+ * an ordinary character, and so are the quotes of a field that goes on after its closing quote, as some
+ * titles in {@code books.csv} do: {@code "Dear Genius...": A Memoir} reads as written. Lines may end in
+ * {@code \n} or {@code \r\n}, and blank lines are skipped.
+ */
+final class CsvParser {
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+    private int line = 1;
+    private int recordLine;
+
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private int fields;
+
+    CsvParser(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.limit = length;
+        // a UTF-8 byte order mark
+        if (length >= 3 && bytes[0] == (byte) 0xef && bytes[1] == (byte) 0xbb && bytes[2] == (byte) 0xbf) {
+            position = 3;
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     * @return Whether there was one.
+     */
+    boolean next() throws IOException {
+        while (position < limit && (bytes[position] == '\n' || bytes[position] == '\r')) {
+            if (bytes[position++] == '\n') {
+                line++;
+            }
+        }
+        if (position >= limit) {
+            return false;
+        }
+        recordLine = line;
+        fields = 0;
+        int i = position;
+        while (true) {
+            i = bytes[i] == '"' ? quotedField(i) : plainField(i);
+            if (i >= limit) {
+                position = limit;
+                return true;
+            }
+            if (bytes[i] == ',') {
+                i++;
+                if (i == limit) {
+                    add(i, i, false);
+                    position = limit;
+                    return true;
+                }
+                continue;
+            }
+            if (bytes[i] == '\r' && i + 1 < limit && bytes[i + 1] == '\n') {
+                i++;
+            }
+            if (bytes[i] != '\n') {
+                throw new IOException("Line " + recordLine + ": expected a comma or a line break after field "
+                    + fields + " but found '" + (char) bytes[i] + "'");
+            }
+            line++;
+            position = i + 1;
+            return true;
+        }
+    }
+
+    /**
+     * Adds the unquoted field starting at {@code i} and returns the index of the byte after it.
+     */
+    private int plainField(int i) {
+        int end = i;
+        while (end < limit && bytes[end] != ',' && bytes[end] != '\n') {
+            end++;
+        }
+        boolean crlf = end > i && bytes[end - 1] == '\r' && (end == limit || bytes[end] == '\n');
+        add(i, crlf ? end - 1 : end, false);
+        return end;
+    }
+
+    /**
+     * Adds the quoted field whose opening quote is at {@code i} and returns the index of the byte after its
+     * closing quote, or adds it as an unquoted field if something other than a comma or a line break follows
+     * that quote.
+     */
+    private int quotedField(int i) throws IOException {
+        boolean doubled = false;
+        int lines = 0;
+        int j = i + 1;
+        while (true) {
+            while (j < limit && bytes[j] != '"') {
+                if (bytes[j] == '\n') {
+                    lines++;
+                }
+                j++;
+            }
+            if (j >= limit) {
+                throw new IOException("Line " + recordLine + ": a quoted field is never closed");
+            }
+            if (j + 1 < limit && bytes[j + 1] == '"') {
+                doubled = true;
+                j += 2;
+            } else {
+                break;
+            }
+        }
+        int next = j + 1;
+        if (next < limit && bytes[next] == '\r' && next + 1 < limit && bytes[next + 1] == '\n') {
+            next++;
+        }
+        if (next < limit && bytes[next] != ',' && bytes[next] != '\n') {
+            return plainField(i);
+        }
+        line += lines;
+        add(i + 1, j, doubled);
+        return j + 1;
+    }
+
+    private void add(int start, int end, boolean doubled) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+            escaped = Arrays.copyOf(escaped, fields * 2);
+        }
+        starts[fields] = start;
+        ends[fields] = end;
+        escaped[fields] = doubled;
+        fields++;
+    }
+
+    /**
+     * Returns the number of fields in the current record.
+     */
+    int fields() {
+        return fields;
+    }
+
+    /**
+     * Returns the line the current record starts on, counting from 1.
+     */
+    int line() {
+        return recordLine;
+    }
+
+    /**
+     * Returns fields {@code from} to {@code to}, both included, as the text they span in the file, commas
+     * between them and all. One field reads as its unquoted value.
+     */
+    String string(int from, int to) {
+        int start = starts[from];
+        int end = ends[to];
+        if (from == to && escaped[from]) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8).replace("\"\"", "\"");
+        }
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    String string(int field) {
+        return string(field, field);
+    }
+
+    /**
+     * Returns the code of a field's unquoted value in a dictionary, without making a {@code String} for a
+     * value the dictionary has already seen.
+     */
+    int encode(int field, StringDictionary dictionary) {
+        if (escaped[field]) {
+            return dictionary.encode(string(field));
+        }
+        return dictionary.encode(bytes, starts[field], ends[field]);
+    }
+
+    /**
+     * Parses a field as a decimal {@code long}, ignoring spaces around it.
+     * @throws NumberFormatException If it is not one.
+     */
+    long parseLong(int field) {
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+        boolean negative = start < end && bytes[start] == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 18) {
+            return Long.parseLong(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \""
+                    + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a field as a {@code float}, ignoring spaces around it.
+     * @throws NumberFormatException If it is not one.
+     */
+    float parseFloat(int field) {
+        int start = trimStart(field);
+        return FloatParser.parse(bytes, start, trimEnd(field, start));
+    }
+
+    /**
+     * Parses a field written as {@code month/day/year} into {@code year * 10000 + month * 100 + day}.
+     * @throws NumberFormatException If it is not a date of the calendar.
+     */
+    int parseDate(int field) {
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+        int[] parts = new int[3];
+        int part = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '/' && part < 2 && digits > 0) {
+                part++;
+                digits = 0;
+            } else if (b >= '0' && b <= '9' && digits < 4) {
+                parts[part] = parts[part] * 10 + (b - '0');
+                digits++;
+            } else {
+                throw notADate(start, end);
+            }
+        }
+        int month = parts[0];
+        int day = parts[1];
+        int year = parts[2];
+        if (part < 2 || digits == 0 || month < 1 || month > 12 || day < 1 || day > daysIn(month, year)) {
+            throw notADate(start, end);
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int daysIn(int month, int year) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private NumberFormatException notADate(int start, int end) {
+        return new NumberFormatException("Not a month/day/year date: \""
+            + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+    }
+
+    private int trimStart(int field) {
+        int start = starts[field];
+        while (start < ends[field] && bytes[start] == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int field, int start) {
+        int end = ends[field];
+        while (end > start && bytes[end - 1] == ' ') {
+            end--;
+        }
+        return end;
+    }
+}
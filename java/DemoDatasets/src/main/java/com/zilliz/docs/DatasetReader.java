@@ -0,0 +1,137 @@
+package com.zilliz.docs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson2.JSONReader;
+
+/**
+ * Reads the rows of a demo dataset such as {@code medium_articles_2020_dpr.json} one at a time.
+ *
+ * <p>The file is never held as a whole: a {@link RowScanner} cuts the {@code rows} array into the bytes of
+ * one row, which fastjson's {@link JSONReader} decodes into the same {@link JSONObject} that
+ * {@code JSON.parseObject(content).getJSONArray("rows").getJSONObject(i)} would return. Reading stops as soon
+ * as the caller has the rows it asked for.
+ *
+ * <p>{@link #nextArticle()} decodes a row of the medium articles dataset straight into an {@link Article}
+ * instead, reading the title vector into a {@code float[]} without boxing any of it. {@link #readArticles}
+ * prefers an up-to-date {@link ArticleCache} of the dataset over the JSON file, and decodes only the fields it
+ * is asked for.
+ */
+public final class DatasetReader implements Closeable {
+    private final InputStream in;
+    private final RowScanner scanner;
+    private final ArticleDecoder decoder;
+
+    public DatasetReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    public DatasetReader(InputStream in) {
+        this(in, Article.ALL_FIELDS);
+    }
+
+    DatasetReader(Path file, int projection) throws IOException {
+        this(Files.newInputStream(file), projection);
+    }
+
+    DatasetReader(InputStream in, int projection) {
+        this.in = in;
+        this.scanner = new RowScanner(in);
+        this.decoder = new ArticleDecoder(projection);
+    }
+
+    /**
+     * Reads the first {@code limit} rows of a dataset file, or all of them if there are fewer.
+     */
+    public static JSONArray read(Path file, int limit) throws IOException {
+        JSONArray rows = new JSONArray(Math.min(limit, 1 << 16));
+        try (DatasetReader reader = new DatasetReader(file)) {
+            JSONObject row;
+            while (rows.size() < limit && (row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the first {@code limit} rows of a medium articles dataset file, or all of them if there are fewer.
+     * The rows come from the file's {@link ArticleCache} if one has been written, and are streamed from the JSON
+     * file otherwise.
+     * @param fields The fields to decode, or none for all of them. The others are left {@code null}, zero or
+     *     empty.
+     */
+    public static List<Article> readArticles(Path file, int limit, String... fields) throws IOException {
+        int projection = Article.mask(fields);
+        ArticleCache cache = ArticleCache.open(file);
+        if (cache != null) {
+            return cache.articles(limit, projection);
+        }
+
+        List<Article> articles = new ArrayList<>(Math.min(limit, 1 << 16));
+        try (DatasetReader reader = new DatasetReader(file, projection)) {
+            Article article;
+            while (articles.size() < limit && (article = reader.nextArticle()) != null) {
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    /**
+     * Returns the next row, or {@code null} after the last one.
+     */
+    public JSONObject next() throws IOException {
+        if (!scanner.next()) {
+            return null;
+        }
+        JSONObject row = new JSONObject();
+        try (JSONReader reader = JSONReader.of(scanner.bytes(), scanner.offset(), scanner.length(),
+                StandardCharsets.UTF_8)) {
+            reader.nextIfObjectStart();
+            while (!reader.nextIfObjectEnd()) {
+                String name = reader.readFieldName();
+                row.put(name, compatible(reader.readAny()));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Returns the next row as an {@link Article}, or {@code null} after the last one. Fields an article does
+     * not have, and those left out of the reader's projection, are skipped without being decoded.
+     */
+    public Article nextArticle() throws IOException {
+        return scanner.next() ? decoder.decode(scanner.bytes(), scanner.offset(), scanner.length()) : null;
+    }
+
+    /**
+     * Wraps nested objects and arrays in the fastjson 1 types the demos call {@code getJSONArray} and
+     * {@code getJSONObject} on.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object compatible(Object value) {
+        if (value instanceof Map) {
+            return new JSONObject((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            return new JSONArray((List<Object>) value);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.zilliz.docs;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only {@code List<String>} view over the codes of a dictionary-encoded column, returning the one
+ * shared {@code String} of each value.
+ */
+final class DictionaryColumn extends AbstractList<String> implements RandomAccess {
+    private final int[] codes;
+    private final String[] values;
+    private final int size;
+
+    DictionaryColumn(int[] codes, String[] values, int size) {
+        this.codes = codes;
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public String get(int index) {
+        ArticleTable.checkIndex(index, size);
+        int code = codes[index];
+        return code < 0 ? null : values[code];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
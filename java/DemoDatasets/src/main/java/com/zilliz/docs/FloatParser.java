@@ -0,0 +1,111 @@
+package com.zilliz.docs;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses JSON numbers into floats straight from their UTF-8 bytes.
+ *
+ * <p>fastjson's {@code readFloatValue} allocates a few hundred bytes for every number, which for 768-dimension
+ * vectors is far more garbage than the boxed floats it replaces. Numbers with at most 18 significant digits
+ * and a decimal exponent within 22 are instead converted with a single, correctly rounded double operation.
+ * Narrowing that double to a float rounds correctly too, unless it lies exactly halfway between two floats;
+ * that case, and every number outside the fast path, goes through {@link Float#parseFloat}.
+ */
+final class FloatParser {
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_DIGITS = 18;
+    // the bits a double has below a float's precision, and their value halfway between two floats
+    private static final long BELOW_FLOAT = (1L << 29) - 1;
+    private static final long HALFWAY = 1L << 28;
+
+    private FloatParser() {
+    }
+
+    /**
+     * Parses the number in {@code bytes[start, end)}.
+     * @throws NumberFormatException If it is not a number.
+     */
+    static float parse(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = i < end && bytes[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+
+        int from = i;
+        for (; i < end && isDigit(bytes[i]); i++) {
+            if (mantissa != 0 || bytes[i] != '0') {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                digits++;
+            }
+            if (digits > MAX_DIGITS) {
+                return slow(bytes, start, end);
+            }
+        }
+        if (i == from) {
+            return slow(bytes, start, end);
+        }
+        if (i < end && bytes[i] == '.') {
+            from = ++i;
+            for (; i < end && isDigit(bytes[i]); i++) {
+                if (mantissa != 0 || bytes[i] != '0') {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    digits++;
+                }
+                if (digits > MAX_DIGITS) {
+                    return slow(bytes, start, end);
+                }
+                exponent--;
+            }
+            if (i == from) {
+                return slow(bytes, start, end);
+            }
+        }
+        if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = i < end && bytes[i] == '-';
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                i++;
+            }
+            from = i;
+            int value = 0;
+            for (; i < end && isDigit(bytes[i]) && i - from < 4; i++) {
+                value = value * 10 + (bytes[i] - '0');
+            }
+            if (i == from) {
+                return slow(bytes, start, end);
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != end) {
+            return slow(bytes, start, end);
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0f : 0.0f;
+        }
+        if (exponent < -22 || exponent > 22 || mantissa > 1L << 53) {
+            return slow(bytes, start, end);
+        }
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        if (value < Float.MIN_NORMAL || (Double.doubleToRawLongBits(value) & BELOW_FLOAT) == HALFWAY) {
+            return slow(bytes, start, end);
+        }
+        float result = (float) value;
+        return negative ? -result : result;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static float slow(byte[] bytes, int start, int end) {
+        return Float.parseFloat(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+    }
+}
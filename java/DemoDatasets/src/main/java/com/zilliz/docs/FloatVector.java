@@ -0,0 +1,71 @@
+package com.zilliz.docs;
+
+import java.nio.FloatBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only {@code List<Float>} view over part of a {@code float[]} or of a {@link FloatBuffer}, such as
+ * one mapped from a vector cache file.
+ *
+ * <p>The SDK only accepts vectors as lists of {@link Float}, so this is what rows and fields hand to
+ * {@code InsertParam}. Each {@code Float} is boxed when the SDK reads it while serializing the request and is
+ * garbage right after, instead of 768 boxed values per row living as long as the dataset does.
+ */
+public final class FloatVector extends AbstractList<Float> implements RandomAccess {
+    private final FloatBuffer data;
+    private final int offset;
+    private final int dimension;
+
+    public FloatVector(float[] data) {
+        this(FloatBuffer.wrap(data), 0, data.length);
+    }
+
+    public FloatVector(FloatBuffer data, int offset, int dimension) {
+        if (offset < 0 || dimension < 0 || offset + dimension > data.limit()) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", dimension " + dimension
+                + ", limit " + data.limit());
+        }
+        this.data = data;
+        this.offset = offset;
+        this.dimension = dimension;
+    }
+
+    @Override
+    public Float get(int index) {
+        return getFloat(index);
+    }
+
+    /**
+     * Returns an element without boxing it.
+     */
+    public float getFloat(int index) {
+        if (index < 0 || index >= dimension) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + dimension);
+        }
+        return data.get(offset + index);
+    }
+
+    @Override
+    public int size() {
+        return dimension;
+    }
+
+    /**
+     * Copies the elements into {@code target}, starting at {@code at}.
+     */
+    public void copyTo(float[] target, int at) {
+        FloatBuffer source = data.duplicate();
+        source.position(offset);
+        source.get(target, at, dimension);
+    }
+
+    /**
+     * Returns a copy of the elements.
+     */
+    public float[] toFloatArray() {
+        float[] copy = new float[dimension];
+        copyTo(copy, 0);
+        return copy;
+    }
+}
@@ -0,0 +1,36 @@
+package com.zilliz.docs;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only {@code List<Long>} view over the start of a {@code long[]} column, boxing each value only when
+ * the SDK reads it.
+ */
+public final class LongColumn extends AbstractList<Long> implements RandomAccess {
+    private final long[] values;
+    private final int size;
+
+    LongColumn(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    /**
+     * Returns a value without boxing it.
+     */
+    public long getLong(int index) {
+        ArticleTable.checkIndex(index, size);
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,246 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits the {@code rows} array of a dataset file into the raw bytes of one row at a time.
+ *
+ * <p>The file is read through a fixed buffer and only the bytes of the current row are kept, so memory stays
+ * at a small multiple of one row whatever the size of the file. The scanner only tracks nesting and string
+ * literals; decoding a row is left to the caller. A file that is a bare array of rows works too.
+ *
+ * <p>A scanner over bytes that are already in memory copies nothing: {@link #bytes()} is the whole array and
+ * {@link #offset()} is where the current row starts in it.
+ */
+final class RowScanner {
+    private static final byte[] ROWS = {'"', 'r', 'o', 'w', 's', '"'};
+    private static final boolean[] STRUCTURAL = new boolean[256];
+
+    static {
+        for (char c : new char[] {'"', '{', '[', '}', ']'}) {
+            STRUCTURAL[c] = true;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    private byte[] row;
+    private int rowStart;
+    private int rowLength;
+    private boolean inRows;
+    private boolean done;
+
+    RowScanner(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[64 * 1024];
+        this.row = new byte[16 * 1024];
+    }
+
+    RowScanner(byte[] bytes, int length) {
+        this.in = null;
+        this.buffer = bytes;
+        this.limit = length;
+    }
+
+    /**
+     * Moves to the next row.
+     * @return Whether there was one.
+     */
+    boolean next() throws IOException {
+        if (done) {
+            return false;
+        }
+        if (!inRows && !seekRows()) {
+            done = true;
+            return false;
+        }
+        inRows = true;
+
+        int c = nextToken();
+        while (c == ',') {
+            c = nextToken();
+        }
+        if (c != '{') {
+            done = true;
+            if (c != ']') {
+                throw new IOException("Expected a row object but found " + describe(c));
+            }
+            return false;
+        }
+        position--;
+        rowStart = position;
+        rowLength = 0;
+        copyValue();
+        return true;
+    }
+
+    /**
+     * The bytes of the current row, from {@link #offset()} for {@link #length()} bytes, valid until the next
+     * call to {@link #next()}.
+     */
+    byte[] bytes() {
+        return in == null ? buffer : row;
+    }
+
+    int offset() {
+        return in == null ? rowStart : 0;
+    }
+
+    int length() {
+        return in == null ? position - rowStart : rowLength;
+    }
+
+    /**
+     * Copies one object, starting at the current position, into {@link #row}, a buffer-full at a time. Bytes
+     * that are already in memory are only moved past.
+     */
+    private void copyValue() throws IOException {
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                throw new IOException("The dataset ends in the middle of a row");
+            }
+            int start = position;
+            int end = -1;
+            int i = position;
+            while (i < limit) {
+                if (escaped) {
+                    escaped = false;
+                    i++;
+                } else if (inString) {
+                    while (i < limit && buffer[i] != '"' && buffer[i] != '\\') {
+                        i++;
+                    }
+                    if (i < limit) {
+                        escaped = buffer[i] == '\\';
+                        inString = escaped;
+                        i++;
+                    }
+                } else {
+                    // most of a row is digits, commas and whitespace
+                    while (i < limit && !STRUCTURAL[buffer[i] & 0xff]) {
+                        i++;
+                    }
+                    if (i == limit) {
+                        break;
+                    }
+                    byte b = buffer[i++];
+                    if (b == '"') {
+                        inString = true;
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (--depth == 0) {
+                        end = i;
+                        break;
+                    }
+                }
+            }
+            int stop = end < 0 ? limit : end;
+            if (in != null) {
+                append(start, stop - start);
+            }
+            position = stop;
+            if (end >= 0) {
+                return;
+            }
+        }
+    }
+
+    private void append(int offset, int length) {
+        if (rowLength + length > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, rowLength + length));
+        }
+        System.arraycopy(buffer, offset, row, rowLength, length);
+        rowLength += length;
+    }
+
+    /**
+     * Skips to just past the {@code [} that opens the {@code rows} member of the top-level object, or of a
+     * top-level array.
+     * @return Whether there is one.
+     */
+    private boolean seekRows() throws IOException {
+        int c = nextToken();
+        if (c == '[') {
+            return true;
+        }
+        if (c != '{') {
+            throw new IOException("A dataset must be an object with a rows array, not " + describe(c));
+        }
+        int depth = 1;
+        int matched = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean afterRows = false;
+        int b;
+        while ((b = read()) >= 0) {
+            if (inString) {
+                matched = matched > 0 && matched < ROWS.length && b == ROWS[matched] ? matched + 1 : 0;
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    afterRows = depth == 1 && matched == ROWS.length;
+                }
+                continue;
+            }
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || (b == ':' && afterRows)) {
+                continue;
+            }
+            if (b == '[' && afterRows) {
+                return true;
+            }
+            afterRows = false;
+            if (b == '"') {
+                inString = true;
+                matched = 1;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+        }
+        return false;
+    }
+
+    private int nextToken() throws IOException {
+        int b;
+        do {
+            b = read();
+        } while (b == ' ' || b == '\n' || b == '\r' || b == '\t');
+        return b;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int n = in.read(buffer);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    private static String describe(int c) {
+        return c < 0 ? "the end of the file" : "'" + (char) c + "'";
+    }
+}
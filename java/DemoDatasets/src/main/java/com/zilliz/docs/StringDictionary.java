@@ -0,0 +1,128 @@
+package com.zilliz.docs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives each distinct value of a low-cardinality string column, such as {@code publication} or
+ * {@code publisher}, an {@code int} code, and keeps one {@code String} per value.
+ *
+ * <p>A loader stores the codes and looks the values up only as it hands them to the SDK, so every row shares
+ * the same instance instead of holding its own copy. A value can be looked up from its UTF-8 bytes, which
+ * makes no {@code String} at all once the value has been seen.
+ *
+ * <p>A dictionary is not thread-safe. Values are only ever appended, and {@link #values()} returns an array
+ * whose first {@link #size()} entries never change, so a column keeps reading the array it was given while
+ * the dictionary grows.
+ */
+final class StringDictionary {
+    private String[] values = new String[16];
+    private int size;
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /** An open-addressing table of {@code code + 1}, or 0 for a free slot, by the hash of a value's bytes. */
+    private int[] slots = new int[32];
+    private byte[][] keys = new byte[32][];
+    private int keyCount;
+
+    /**
+     * Returns the code of a value.
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Returns the code of the value whose UTF-8 bytes are {@code bytes[start, end)}.
+     */
+    int encode(byte[] bytes, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            byte[] key = keys[slot];
+            if (key.length == end - start && equals(key, bytes, start)) {
+                return slots[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int code = encode(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        slots[slot] = code + 1;
+        keys[slot] = Arrays.copyOfRange(bytes, start, end);
+        if (++keyCount * 2 > slots.length) {
+            rehash();
+        }
+        return code;
+    }
+
+    /**
+     * Returns the value of a code.
+     */
+    String value(int code) {
+        return values[code];
+    }
+
+    /**
+     * Returns the values by code. Entries below {@link #size()} never change, even as the dictionary grows.
+     */
+    String[] values() {
+        return values;
+    }
+
+    /**
+     * Returns the number of distinct values.
+     */
+    int size() {
+        return size;
+    }
+
+    private static boolean equals(byte[] key, byte[] bytes, int start) {
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] oldSlots = slots;
+        byte[][] oldKeys = keys;
+        slots = new int[oldSlots.length * 2];
+        keys = new byte[slots.length][];
+        int mask = slots.length - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                byte[] key = oldKeys[i];
+                int hash = 1;
+                for (byte b : key) {
+                    hash = 31 * hash + b;
+                }
+                int slot = mix(hash) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = oldSlots[i];
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
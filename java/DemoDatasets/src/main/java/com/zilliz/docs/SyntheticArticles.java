@@ -0,0 +1,189 @@
+package com.zilliz.docs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Generates medium articles, with title vectors, scalar fields and the tags of {@code article_meta}, for
+ * load tests larger than the dataset.
+ *
+ * <p>Every row has its own {@link SplittableRandom}, seeded from the generator's seed and the row's index, so
+ * a row is the same whichever thread makes it, however the rows are batched and on every run. That lets
+ * {@link #generate} fill each batch on a {@link ForkJoinPool} and have the next batch made while the caller
+ * inserts the current one.
+ */
+public final class SyntheticArticles {
+    /** The number of tags in {@code tags_1}, each below {@link #TAG_VALUES}. */
+    public static final int TAGS_1 = 40;
+    /** The number of arrays in {@code tags_2}, each of {@link #TAGS_2_LENGTH} tags below {@link #TAG_VALUES}. */
+    public static final int TAGS_2 = 10;
+    public static final int TAGS_2_LENGTH = 4;
+    public static final int TAG_VALUES = 40;
+
+    static final String[] PUBLICATIONS = {
+        "The Startup", "Towards Data Science", "The Writing Cooperative", "Data Driven Investor", "UX Collective",
+        "Better Marketing", "Better Humans"
+    };
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final int dimension;
+
+    public SyntheticArticles(long seed, int dimension) {
+        this.seed = seed;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Generates {@code rows} articles, with ids from 0, in batches of {@code batchSize} made on
+     * {@code parallelism} threads, and hands each batch to {@code consumer} on the calling thread. The next
+     * batch is being made while {@code consumer} runs. If {@code consumer} throws, no more batches are made and
+     * the exception propagates.
+     */
+    public void generate(long rows, int batchSize, int parallelism, Consumer<SyntheticBatch> consumer) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int grain = Math.max(1, batchSize / (parallelism * 4));
+            ForkJoinTask<SyntheticBatch> next = rows > 0 ? pool.submit(task(0, (int) Math.min(batchSize, rows),
+                grain)) : null;
+            for (long first = 0; next != null; first += batchSize) {
+                SyntheticBatch batch = next.join();
+                long following = first + batchSize;
+                next = following < rows
+                    ? pool.submit(task(following, (int) Math.min(batchSize, rows - following), grain)) : null;
+                consumer.accept(batch);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the {@code size} articles from {@code first} on the calling thread.
+     */
+    public SyntheticBatch batch(long first, int size) {
+        SyntheticBatch batch = new SyntheticBatch(first, size, dimension);
+        fill(batch, 0, size);
+        return batch.build();
+    }
+
+    /**
+     * Returns the {@code tags_1} of an article.
+     */
+    public int[] tags1(long row) {
+        int[] tags = new int[TAGS_1];
+        fillTags(random(row), tags, 0, TAGS_1);
+        return tags;
+    }
+
+    /**
+     * Returns the {@code tags_2} of an article.
+     */
+    public List<int[]> tags2(long row) {
+        SplittableRandom random = random(row);
+        skipTags1(random);
+        List<int[]> tags = new ArrayList<>(TAGS_2);
+        for (int i = 0; i < TAGS_2; i++) {
+            int[] array = new int[TAGS_2_LENGTH];
+            fillTags(random, array, 0, TAGS_2_LENGTH);
+            tags.add(array);
+        }
+        return tags;
+    }
+
+    private ForkJoinTask<SyntheticBatch> task(long first, int size, int grain) {
+        SyntheticBatch batch = new SyntheticBatch(first, size, dimension);
+        return ForkJoinTask.adapt(() -> {
+            new FillTask(this, batch, 0, size, grain).invoke();
+            return batch.build();
+        });
+    }
+
+    /**
+     * Fills rows {@code [from, to)} of a batch. The tags come first in each row's stream, so
+     * {@link #tags1} and {@link #tags2} can stop early.
+     */
+    private void fill(SyntheticBatch batch, int from, int to) {
+        float[] vectors = batch.vectors;
+        for (int i = from; i < to; i++) {
+            long row = batch.first + i;
+            SplittableRandom random = random(row);
+            fillTags(random, batch.tags, i * SyntheticBatch.TAGS_PER_ROW, SyntheticBatch.TAGS_PER_ROW);
+
+            batch.ids[i] = row;
+            batch.titles[i] = "Synthetic article " + row;
+            batch.links[i] = "https://medium.com/synthetic/" + row;
+            batch.readingTimes[i] = 1 + random.nextInt(30);
+            batch.publications[i] = random.nextInt(PUBLICATIONS.length);
+            batch.claps[i] = random.nextInt(5000);
+            batch.responses[i] = random.nextInt(100);
+            for (int d = i * dimension, end = d + dimension; d < end; d++) {
+                vectors[d] = (float) (random.nextDouble() * 2 - 1);
+            }
+        }
+    }
+
+    private SplittableRandom random(long row) {
+        return new SplittableRandom(mix64(seed + GOLDEN_GAMMA * (row + 1)));
+    }
+
+    private static void fillTags(SplittableRandom random, int[] tags, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            tags[i] = random.nextInt(TAG_VALUES);
+        }
+    }
+
+    private static void skipTags1(SplittableRandom random) {
+        for (int i = 0; i < TAGS_1; i++) {
+            random.nextInt(TAG_VALUES);
+        }
+    }
+
+    /**
+     * Stafford's variant 13 of the MurmurHash3 finalizer, so that neighbouring rows get unrelated seeds rather
+     * than overlapping streams.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Fills a range of rows of a batch with the articles of {@code generator}, splitting it while it is larger
+     * than {@code grain}.
+     */
+    private static final class FillTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SyntheticArticles generator;
+        private final SyntheticBatch batch;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        FillTask(SyntheticArticles generator, SyntheticBatch batch, int from, int to, int grain) {
+            this.generator = generator;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                generator.fill(batch, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FillTask(generator, batch, from, middle, grain),
+                new FillTask(generator, batch, middle, to, grain));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.zilliz.docs;
+
+import java.nio.FloatBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * A batch of articles made by {@link SyntheticArticles}: an {@link ArticleTable} of their fields and the tags
+ * that go into their {@code article_meta}.
+ */
+public final class SyntheticBatch {
+    static final int TAGS_PER_ROW = SyntheticArticles.TAGS_1
+        + SyntheticArticles.TAGS_2 * SyntheticArticles.TAGS_2_LENGTH;
+
+    final long first;
+    final int size;
+    final long[] ids;
+    final String[] titles;
+    final String[] links;
+    final long[] readingTimes;
+    /** Indexes into {@link SyntheticArticles#PUBLICATIONS}. */
+    final int[] publications;
+    final long[] claps;
+    final long[] responses;
+    final float[] vectors;
+    final int[] tags;
+    private final int dimension;
+    private ArticleTable articles;
+
+    SyntheticBatch(long first, int size, int dimension) {
+        this.first = first;
+        this.size = size;
+        this.dimension = dimension;
+        ids = new long[size];
+        titles = new String[size];
+        links = new String[size];
+        readingTimes = new long[size];
+        publications = new int[size];
+        claps = new long[size];
+        responses = new long[size];
+        vectors = new float[size * dimension];
+        tags = new int[size * TAGS_PER_ROW];
+    }
+
+    SyntheticBatch build() {
+        int[] vectorOffsets = new int[size];
+        int[] dimensions = new int[size];
+        for (int i = 0; i < size; i++) {
+            vectorOffsets[i] = i * dimension;
+            dimensions[i] = dimension;
+        }
+        articles = new ArticleTable(size, ids, titles, links, readingTimes, publications,
+            SyntheticArticles.PUBLICATIONS, claps, responses, FloatBuffer.wrap(vectors), vectorOffsets, dimensions,
+            Article.ALL_FIELDS);
+        return this;
+    }
+
+    /**
+     * Returns the number of articles.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of the first article; the others follow it.
+     */
+    public long first() {
+        return first;
+    }
+
+    /**
+     * Returns the fields of the articles as a table, whose rows and columns go straight into
+     * {@code InsertParam}.
+     */
+    public ArticleTable articles() {
+        return articles;
+    }
+
+    public int[] tags1(int row) {
+        ArticleTable.checkIndex(row, size);
+        int at = row * TAGS_PER_ROW;
+        return Arrays.copyOfRange(tags, at, at + SyntheticArticles.TAGS_1);
+    }
+
+    public List<int[]> tags2(int row) {
+        ArticleTable.checkIndex(row, size);
+        List<int[]> arrays = new ArrayList<>(SyntheticArticles.TAGS_2);
+        int at = row * TAGS_PER_ROW + SyntheticArticles.TAGS_1;
+        for (int i = 0; i < SyntheticArticles.TAGS_2; i++, at += SyntheticArticles.TAGS_2_LENGTH) {
+            arrays.add(Arrays.copyOfRange(tags, at, at + SyntheticArticles.TAGS_2_LENGTH));
+        }
+        return arrays;
+    }
+
+    /**
+     * Returns the {@code article_meta} of an article as {@code SearchQueryWithAdvancedOpsDemo} inserts it: its
+     * scalar fields other than the title, and its tags.
+     */
+    public JSONObject articleMeta(int row) {
+        JSONObject meta = new JSONObject(7, true);
+        meta.put("link", links[row]);
+        meta.put("publication", SyntheticArticles.PUBLICATIONS[publications[row]]);
+        meta.put("reading_time", readingTimes[row]);
+        meta.put("claps", claps[row]);
+        meta.put("responses", responses[row]);
+        meta.put("tags_1", tags1(row));
+        meta.put("tags_2", tags2(row));
+        return meta;
+    }
+
+    /**
+     * Returns the articles with the given fields, any of those of {@link #articles()} and
+     * {@code article_meta}, as {@code InsertParam.Builder.withRows} takes them. Each row is made when it is
+     * read.
+     */
+    public List<JSONObject> rows(String... names) {
+        String[] fields = names.clone();
+        for (String field : fields) {
+            if (!field.equals("article_meta")) {
+                articles.column(field, 0);
+            }
+        }
+        return new RowView(fields);
+    }
+
+    private final class RowView extends AbstractList<JSONObject> implements RandomAccess, ColumnRows {
+        private final String[] fields;
+
+        RowView(String[] fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public JSONObject get(int index) {
+            ArticleTable.checkIndex(index, size);
+            JSONObject row = new JSONObject(fields.length, true);
+            for (int i = 0; i < fields.length; i++) {
+                row.put(fields[i], value(i, index));
+            }
+            return row;
+        }
+
+        @Override
+        public String[] fields() {
+            return fields;
+        }
+
+        @Override
+        public Object value(int field, int row) {
+            ArticleTable.checkIndex(row, size);
+            String name = fields[field];
+            return name.equals("article_meta") ? articleMeta(row) : articles.value(name, row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
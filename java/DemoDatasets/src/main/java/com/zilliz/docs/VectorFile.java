@@ -0,0 +1,291 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A file of vectors of one dimension, mapped with {@link FileChannel#map} rather than read.
+ *
+ * <p>The format comes from the file's extension:
+ * <ul>
+ *   <li>{@code .npy}, a NumPy array of shape {@code (rows, dimension)} of little-endian {@code float32}s in C
+ *   order, as {@code numpy.save} writes it;</li>
+ *   <li>{@code .fvecs}, {@code .bvecs} and {@code .ivecs}, the formats of the ANN benchmark sets such as
+ *   SIFT1M: for every row, a little-endian {@code int} dimension followed by that many {@code float}s,
+ *   unsigned bytes or {@code int}s.</li>
+ * </ul>
+ *
+ * <p>The vectors of {@code .npy} and {@code .fvecs} files are views of the mapping. Those of {@code .bvecs} and
+ * {@code .ivecs} files are widened to {@code float}s as they are read. {@code .ivecs} files usually hold the
+ * ids of each query's nearest neighbours, which {@link #getInts} reads as they are. A file is mapped in
+ * pieces of whole rows, so it can be larger than one mapping can be.
+ */
+public final class VectorFile implements VectorSource {
+    private static final int CHUNK_BYTES = 1 << 30;
+    private static final byte[] NPY_MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+    private static final Pattern NPY_DESCR = Pattern.compile("'descr'\\s*:\\s*'([^']*)'");
+    private static final Pattern NPY_FORTRAN_ORDER = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    private static final Pattern NPY_SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+
+    private enum Format {
+        NPY(4, 0), FVECS(4, 4), BVECS(1, 4), IVECS(4, 4);
+
+        /** The bytes of each element, and of what comes before the elements of each row. */
+        final int elementBytes;
+        final int rowHeaderBytes;
+
+        Format(int elementBytes, int rowHeaderBytes) {
+            this.elementBytes = elementBytes;
+            this.rowHeaderBytes = rowHeaderBytes;
+        }
+    }
+
+    private final Path file;
+    private final Format format;
+    private final int rows;
+    private final int dimension;
+    private final int rowsPerChunk;
+    private final ByteBuffer[] chunks;
+    private final FloatBuffer[] floatChunks;
+
+    private VectorFile(Path file, Format format, long dataOffset, int rows, int dimension, int chunkBytes,
+            FileChannel channel) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.rows = rows;
+        this.dimension = dimension;
+        long rowBytes = rowBytes(format, dimension);
+        rowsPerChunk = (int) Math.max(1, Math.min(chunkBytes / rowBytes, Integer.MAX_VALUE));
+        int count = rows == 0 ? 0 : (rows - 1) / rowsPerChunk + 1;
+        chunks = new ByteBuffer[count];
+        floatChunks = new FloatBuffer[count];
+        for (int c = 0; c < count; c++) {
+            long first = (long) c * rowsPerChunk;
+            long size = Math.min(rowsPerChunk, rows - first) * rowBytes;
+            // the mapping stays valid after the channel is closed
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + first * rowBytes, size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (format == Format.NPY || format == Format.FVECS) {
+                floatChunks[c] = chunks[c].asFloatBuffer();
+            }
+        }
+    }
+
+    /**
+     * Maps a {@code .npy}, {@code .fvecs}, {@code .bvecs} or {@code .ivecs} file.
+     * @throws IOException If the file cannot be read, or is not a file of vectors of one dimension in the
+     *     format of its extension.
+     */
+    public static VectorFile open(Path file) throws IOException {
+        return open(file, CHUNK_BYTES);
+    }
+
+    static VectorFile open(Path file, int chunkBytes) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Format format;
+        if (name.endsWith(".npy")) {
+            format = Format.NPY;
+        } else if (name.endsWith(".fvecs")) {
+            format = Format.FVECS;
+        } else if (name.endsWith(".bvecs")) {
+            format = Format.BVECS;
+        } else if (name.endsWith(".ivecs")) {
+            format = Format.IVECS;
+        } else {
+            throw new IOException(file + " is not a .npy, .fvecs, .bvecs or .ivecs file");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return format == Format.NPY ? openNpy(file, channel, chunkBytes) : openVecs(file, format, channel,
+                chunkBytes);
+        }
+    }
+
+    private static VectorFile openNpy(Path file, FileChannel channel, int chunkBytes) throws IOException {
+        ByteBuffer prefix = read(channel, 0, 12);
+        for (int i = 0; i < NPY_MAGIC.length; i++) {
+            if (prefix.get(i) != NPY_MAGIC[i]) {
+                throw new IOException(file + " is not a NumPy file");
+            }
+        }
+        int major = prefix.get(6);
+        long headerStart;
+        long headerLength;
+        if (major == 1) {
+            headerStart = 10;
+            headerLength = prefix.getShort(8) & 0xffff;
+        } else if (major == 2 || major == 3) {
+            headerStart = 12;
+            headerLength = prefix.getInt(8) & 0xffffffffL;
+        } else {
+            throw new IOException(file + " is a NumPy file of version " + major + ", which is not supported");
+        }
+        if (headerLength > 1 << 20) {
+            throw new IOException(file + " has a header of " + headerLength + " bytes");
+        }
+        ByteBuffer headerBytes = read(channel, headerStart, (int) headerLength);
+        String header = new String(headerBytes.array(), 0, headerBytes.limit(),
+            major == 3 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+
+        Matcher descr = NPY_DESCR.matcher(header);
+        Matcher fortranOrder = NPY_FORTRAN_ORDER.matcher(header);
+        Matcher shape = NPY_SHAPE.matcher(header);
+        if (!descr.find() || !fortranOrder.find() || !shape.find()) {
+            throw new IOException(file + " has a header NumPy did not write: " + header.trim());
+        }
+        if (!descr.group(1).equals("<f4")) {
+            throw new IOException(file + " holds " + descr.group(1) + " values rather than little-endian float32");
+        }
+        if (fortranOrder.group(1).equals("True")) {
+            throw new IOException(file + " is in Fortran order rather than C order");
+        }
+        String[] dimensions = shape.group(1).split(",");
+        if (dimensions.length != 2) {
+            throw new IOException(file + " has the shape (" + shape.group(1) + ") rather than (rows, dimension)");
+        }
+        long rows;
+        long dimension;
+        try {
+            rows = Long.parseLong(dimensions[0].trim());
+            dimension = Long.parseLong(dimensions[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IOException(file + " has the shape (" + shape.group(1) + ")", e);
+        }
+
+        long dataOffset = headerStart + headerLength;
+        checkSize(file, rows, dimension, rows * dimension * 4, channel.size() - dataOffset);
+        return new VectorFile(file, Format.NPY, dataOffset, (int) rows, (int) dimension, chunkBytes, channel);
+    }
+
+    private static VectorFile openVecs(Path file, Format format, FileChannel channel, int chunkBytes)
+            throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return new VectorFile(file, format, 0, 0, 0, chunkBytes, channel);
+        }
+        int dimension = read(channel, 0, 4).getInt(0);
+        if (dimension <= 0) {
+            throw new IOException(file + " starts with a vector of dimension " + dimension);
+        }
+        long rowBytes = rowBytes(format, dimension);
+        if (size % rowBytes != 0) {
+            throw new IOException(file + " is not a whole number of vectors of dimension " + dimension
+                + "; each row of a file must have the same dimension");
+        }
+        long rows = size / rowBytes;
+        checkSize(file, rows, dimension, size, size);
+        return new VectorFile(file, format, 0, (int) rows, dimension, chunkBytes, channel);
+    }
+
+    private static void checkSize(Path file, long rows, long dimension, long expected, long actual)
+            throws IOException {
+        if (rows < 0 || rows > Integer.MAX_VALUE || dimension < 1 || dimension > Integer.MAX_VALUE / 4 - 1) {
+            throw new IOException(file + " has " + rows + " vectors of dimension " + dimension);
+        }
+        if (expected != actual) {
+            throw new IOException(file + " should have " + expected + " bytes of vectors but has " + actual);
+        }
+    }
+
+    private static long rowBytes(Format format, int dimension) {
+        return format.rowHeaderBytes + (long) format.elementBytes * dimension;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The file ends after " + (position + buffer.position()) + " bytes");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the vector of a row, viewing the mapping for {@code .npy} and {@code .fvecs} files.
+     * @throws IllegalStateException If the row of a {@code .fvecs}, {@code .bvecs} or {@code .ivecs} file has
+     *     another dimension than the first.
+     */
+    @Override
+    public FloatVector get(int row) {
+        ArticleTable.checkIndex(row, rows);
+        int chunk = row / rowsPerChunk;
+        int within = row % rowsPerChunk;
+        switch (format) {
+            case NPY:
+                return new FloatVector(floatChunks[chunk], within * dimension, dimension);
+            case FVECS:
+                checkDimension(chunk, within, row);
+                return new FloatVector(floatChunks[chunk], within * (dimension + 1) + 1, dimension);
+            case BVECS: {
+                int at = checkDimension(chunk, within, row) + 4;
+                ByteBuffer bytes = chunks[chunk];
+                float[] vector = new float[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    vector[d] = bytes.get(at + d) & 0xff;
+                }
+                return new FloatVector(vector);
+            }
+            default: {
+                int[] ints = getInts(row);
+                float[] vector = new float[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    vector[d] = ints[d];
+                }
+                return new FloatVector(vector);
+            }
+        }
+    }
+
+    /**
+     * Returns the row of an {@code .ivecs} file as it is stored.
+     * @throws UnsupportedOperationException If the file is not an {@code .ivecs} file.
+     */
+    public int[] getInts(int row) {
+        if (format != Format.IVECS) {
+            throw new UnsupportedOperationException(file + " is not an .ivecs file");
+        }
+        ArticleTable.checkIndex(row, rows);
+        int chunk = row / rowsPerChunk;
+        int within = row % rowsPerChunk;
+        int at = checkDimension(chunk, within, row) + 4;
+        ByteBuffer bytes = chunks[chunk];
+        int[] ints = new int[dimension];
+        for (int d = 0; d < dimension; d++) {
+            ints[d] = bytes.getInt(at + d * 4);
+        }
+        return ints;
+    }
+
+    /**
+     * Returns where a row starts in its chunk, after checking the dimension it starts with.
+     */
+    private int checkDimension(int chunk, int within, int row) {
+        int at = (int) (within * rowBytes(format, dimension));
+        int rowDimension = chunks[chunk].getInt(at);
+        if (rowDimension != dimension) {
+            throw new IllegalStateException("Row " + row + " of " + file + " has dimension " + rowDimension
+                + " rather than " + dimension);
+        }
+        return at;
+    }
+}
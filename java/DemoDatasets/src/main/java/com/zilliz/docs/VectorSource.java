@@ -0,0 +1,49 @@
+package com.zilliz.docs;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Rows of vectors of one dimension, such as a {@link VectorFile}, read as the SDK takes them.
+ */
+public interface VectorSource {
+    /**
+     * Returns the number of vectors.
+     */
+    int size();
+
+    /**
+     * Returns the dimension of every vector.
+     */
+    int dimension();
+
+    /**
+     * Returns the vector of a row.
+     */
+    FloatVector get(int row);
+
+    /**
+     * Returns {@code count} vectors from {@code from}, or fewer at the end, as {@code InsertParam.Field} takes
+     * them. Each vector is read when the SDK reads it.
+     */
+    default List<List<Float>> column(int from, int count) {
+        if (from < 0 || from > size()) {
+            throw new IndexOutOfBoundsException("From: " + from + ", Size: " + size());
+        }
+        int size = Math.min(count, size() - from);
+        class Column extends AbstractList<List<Float>> implements RandomAccess {
+            @Override
+            public List<Float> get(int index) {
+                ArticleTable.checkIndex(index, size);
+                return VectorSource.this.get(from + index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        }
+        return new Column();
+    }
+}
@@ -0,0 +1,136 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit test for the binary dataset cache.
+ */
+class ArticleCacheTest {
+    private static final String DATASET = "{\"rows\": [\n"
+        + "  {\"id\": 3, \"title\": \"Caf\\u00e9\", \"link\": \"https://a\", \"reading_time\": 4,"
+        + " \"publication\": \"P\", \"claps\": 10, \"responses\": 1, \"title_vector\": [0.5, -1.25, 3e-2]},\n"
+        + "  {\"id\": 4, \"title\": \"\", \"link\": \"https://b\", \"reading_time\": 0,"
+        + " \"publication\": \"Q\", \"claps\": 0, \"responses\": 0, \"title_vector\": [1, 2]}\n"
+        + "]}";
+
+    @Test
+    void readsTheSameArticlesAsTheJsonFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.getBytes(StandardCharsets.UTF_8));
+        List<Article> expected = parse(file);
+
+        assertNull(ArticleCache.open(file));
+        assertSameRows(expected, DatasetReader.readArticles(file, 10));
+        assertEquals(expected.get(0).toRow(), ArticleTable.load(file, 1).get(0).toRow());
+        assertFalse(Files.exists(dir.resolve("articles.fvecs")));
+        assertFalse(Files.exists(dir.resolve("articles.columns")));
+
+        ArticleCache.main(new String[] {file.toString()});
+        List<Article> first = DatasetReader.readArticles(file, 10);
+        assertEquals(4 + 3 * 4 + 4 + 2 * 4, Files.size(dir.resolve("articles.fvecs")));
+
+        ArticleCache cache = ArticleCache.open(file);
+        assertNotNull(cache);
+        assertEquals(2, cache.size());
+        assertSameRows(expected, first);
+        assertSameRows(expected, cache.articles(10));
+        assertSameRows(expected.subList(0, 1), DatasetReader.readArticles(file, 1));
+    }
+
+    @Test
+    void ignoresACacheOfAnotherVersionOfTheFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.getBytes(StandardCharsets.UTF_8));
+        ArticleCache.write(file);
+
+        Files.write(file, DATASET.replace("\"id\": 4", "\"id\": 5").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        assertNull(ArticleCache.open(file));
+        assertEquals(5L, DatasetReader.readArticles(file, 10).get(1).getId());
+        assertNull(ArticleCache.open(file));
+
+        ArticleCache.write(file);
+        assertEquals(5L, ArticleCache.open(file).get(1).getId());
+    }
+
+    @Test
+    void keepsNullStringsApartFromEmptyOnes(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.replace("\"publication\": \"P\"", "\"publication\": null")
+            .replace("\"link\": \"https://b\"", "\"link\": null").getBytes(StandardCharsets.UTF_8));
+        ArticleCache.write(file);
+
+        ArticleCache cache = ArticleCache.open(file);
+        assertNull(cache.get(0).getPublication());
+        assertEquals("https://a", cache.get(0).getLink());
+        assertNull(cache.get(1).getLink());
+        assertEquals("", cache.get(1).getTitle());
+        assertEquals("Q", cache.get(1).getPublication());
+        ArticleTable table = cache.table(10);
+        assertEquals(Arrays.asList(null, "Q"), table.column("publication", 2));
+        assertSameRows(parse(file), cache.articles(10));
+    }
+
+    @Test
+    void ignoresATruncatedOrCorruptCache(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.getBytes(StandardCharsets.UTF_8));
+        ArticleCache.write(file);
+        Path columns = dir.resolve("articles.columns");
+        byte[] written = Files.readAllBytes(columns);
+
+        Files.write(columns, Arrays.copyOf(written, written.length - 1));
+        assertNull(ArticleCache.open(file));
+        for (int rows : new int[] {-1, 3, Integer.MAX_VALUE}) {
+            Files.write(columns, withInt(written, 24, rows));
+            assertNull(ArticleCache.open(file));
+        }
+        // the second title ends before the first
+        Files.write(columns, withInt(written, 32 + 4 * 2 * 8 + 8, 1));
+        assertNull(ArticleCache.open(file));
+
+        Files.write(columns, written);
+        assertEquals(2, ArticleCache.open(file).size());
+    }
+
+    private static byte[] withInt(byte[] bytes, int at, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(at, value);
+        return copy;
+    }
+
+    private static List<Article> parse(Path file) throws IOException {
+        List<Article> articles = new ArrayList<>();
+        try (DatasetReader reader = new DatasetReader(file)) {
+            Article article;
+            while ((article = reader.nextArticle()) != null) {
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    private static void assertSameRows(List<Article> expected, List<Article> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toRow(), actual.get(i).toRow());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the columnar dataset table.
+ */
+class ArticleTableTest {
+    private static final String DATASET = "{\"rows\": [\n"
+        + "  {\"id\": 3, \"title\": \"A\", \"link\": \"https://a\", \"reading_time\": 4,"
+        + " \"publication\": \"P\", \"claps\": 10, \"responses\": 1, \"title_vector\": [0.5, -1.25, 3e-2]},\n"
+        + "  {\"id\": 4, \"title\": \"B\", \"link\": \"https://b\", \"reading_time\": 0,"
+        + " \"publication\": \"Q\", \"claps\": 7, \"responses\": 0, \"title_vector\": [1, 2, 3]},\n"
+        + "  {\"id\": 5, \"title\": \"C\", \"link\": \"https://c\", \"reading_time\": 2,"
+        + " \"publication\": \"R\", \"claps\": 0, \"responses\": 9, \"title_vector\": [4, 5, 6]}\n"
+        + "]}";
+
+    @Test
+    void rowsAndColumnsShowTheSameValues(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.getBytes(StandardCharsets.UTF_8));
+
+        for (ArticleTable table : Arrays.asList(ArticleTable.decode(file, 2), ArticleTable.load(file, 2))) {
+            assertEquals(2, table.size());
+            List<JSONObject> rows = table.rows(5, "title", "claps", "title_vector");
+            assertEquals(2, rows.size());
+            assertEquals("{\"title\":\"B\",\"claps\":7,\"title_vector\":[1.0,2.0,3.0]}", rows.get(1).toJSONString());
+
+            assertEquals(Arrays.asList("A", "B"), table.column("title", 5));
+            assertEquals(Arrays.asList(3L, 4L), table.column("id", 5));
+            assertEquals(Arrays.asList(Arrays.asList(0.5f, -1.25f, 0.03f)), table.column("title_vector", 1));
+            assertEquals(rows.get(0).get("title_vector"), table.column("title_vector", 1).get(0));
+            assertEquals(8, table.rows(1).get(0).size());
+        }
+    }
+
+    @Test
+    void decodesInParallelInTheOrderOfTheFile(@TempDir Path dir) throws IOException {
+        StringBuilder json = new StringBuilder("{\"rows\": [");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",\n").append("{\"id\": ").append(i).append(", \"title\": \"T").append(i)
+                .append("\", \"title_vector\": [").append(i).append(", ").append(-i).append("]}");
+        }
+        Path file = dir.resolve("articles.json");
+        Files.write(file, json.append("]}").toString().getBytes(StandardCharsets.UTF_8));
+
+        ArticleTable sequential = ArticleTable.decode(file, 90);
+        ArticleTable parallel = ArticleTable.decode(file, 90, 4);
+        assertEquals(90, parallel.size());
+        assertEquals(sequential.rows(90), parallel.rows(90));
+        assertEquals(Arrays.asList(89f, -89f), parallel.get(89).getTitleVector());
+    }
+
+    @Test
+    void loadsOnlyTheProjectedFields(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.getBytes(StandardCharsets.UTF_8));
+
+        for (ArticleTable table : Arrays.asList(ArticleTable.stream(file, 3, Article.mask("title", "claps")),
+                ArticleTable.decode(file, 3, 2, Article.mask("title", "claps")),
+                ArticleTable.load(file, 3, "title", "claps"))) {
+            assertEquals("{\"title\":\"C\",\"claps\":0}", table.rows(3).get(2).toJSONString());
+            assertEquals(Arrays.asList(10L, 7L, 0L), table.column("claps", 3));
+            assertEquals(0, table.get(0).getTitleVector().size());
+            assertThrows(IllegalArgumentException.class, () -> table.column("title_vector", 3));
+            assertThrows(IllegalArgumentException.class, () -> table.rows(3, "title", "id"));
+        }
+    }
+
+    @Test
+    void rejectsUnknownColumns(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("articles.json");
+        Files.write(file, DATASET.getBytes(StandardCharsets.UTF_8));
+        ArticleTable table = ArticleTable.decode(file, 10);
+        assertThrows(IllegalArgumentException.class, () -> table.column("vector", 1));
+        assertThrows(IllegalArgumentException.class, () -> table.rows(1, "title", "vector"));
+    }
+}
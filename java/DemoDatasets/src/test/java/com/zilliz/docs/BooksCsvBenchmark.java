@@ -0,0 +1,42 @@
+package com.zilliz.docs;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Measures how many rows of {@code books.csv} a second {@link BooksCsvReader} parses into typed batches,
+ * with the file already in memory.
+ *
+ * <p>Run from {@code java/DemoDatasets} after {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes:<fastjson jars>
+ * com.zilliz.docs.BooksCsvBenchmark [books.csv] [batch size]}
+ */
+public final class BooksCsvBenchmark {
+    private static final int ROUNDS = 50;
+
+    private BooksCsvBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get(args.length > 0 ? args[0] : "../../books.csv");
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        byte[] bytes = Files.readAllBytes(file);
+
+        long best = Long.MAX_VALUE;
+        int rows = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            BooksCsvReader reader = new BooksCsvReader(bytes);
+            rows = 0;
+            BookBatch batch;
+            while ((batch = reader.next(batchSize)) != null) {
+                rows += batch.size();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s: %d rows, %d bytes%n", file, rows, bytes.length);
+        System.out.printf("parse only:  %8.2f ms  %10.0f rows/s  %6.1f MB/s%n", best / 1e6, rows / (best / 1e9),
+            bytes.length / (best / 1e9) / 1e6);
+    }
+}
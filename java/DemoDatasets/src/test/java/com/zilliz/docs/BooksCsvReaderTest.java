@@ -0,0 +1,80 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit test for the typed books.csv reader.
+ */
+class BooksCsvReaderTest {
+    private static final String HEADER = "bookID,title,authors,average_rating,isbn,isbn13,language_code,"
+        + "  num_pages,ratings_count,text_reviews_count,publication_date,publisher\n";
+
+    @Test
+    void readsTypedBatches() throws IOException {
+        BooksCsvReader reader = reader(HEADER
+            + "1,Harry Potter (Harry Potter  #6),J.K. Rowling/Mary GrandPré,4.57,0439785960,9780439785969,eng,"
+            + "652,2095690,27591,9/16/2006,Scholastic Inc.\n"
+            + "22128,Patriots,James Wesley, Rawles,3.63,156384155X,9781563841552,eng,342,38,4,1/15/1999,"
+            + "Huntington House Publishers\n"
+            + "31373,\"In Pursuit of the Proper Sinner\",Elizabeth George,4.10,0553575104,9780553575101,eng,"
+            + "718,10608,295,11/31/2000,Bantam Books\n"
+            + "3,Short,A,4.00,0,0,eng,1\n"
+            + "4,\"A \"\"Quoted\"\" Title\",B,0.00,0,9780000000002,en-US,0,0,0,1/1/1900,P\n");
+
+        BookBatch first = reader.next(2);
+        assertEquals(2, first.size());
+        assertEquals(Arrays.asList(1L, 22128L), first.column("id"));
+        assertEquals(Arrays.asList("J.K. Rowling/Mary GrandPré", "James Wesley, Rawles"), first.column("authors"));
+        assertEquals(Arrays.asList(4.57f, 3.63f), first.column("average_rating"));
+        assertEquals(Arrays.asList(652L, 342L), first.column("num_pages"));
+        assertEquals(Arrays.asList(20060916L, 19990115L), first.column("publication_date"));
+        assertEquals("Huntington House Publishers", first.column("publisher").get(1));
+
+        BookBatch second = reader.next(2);
+        assertEquals(1, second.size());
+        assertEquals("A \"Quoted\" Title", second.column("title").get(0));
+        assertEquals(Arrays.asList("en-US"), second.column("language_code"));
+        assertSame(first.column("language_code").get(0), first.column("language_code").get(1));
+        assertNull(reader.next(2));
+        assertEquals(Arrays.asList(4, 5), reader.skippedLines());
+        assertThrows(IllegalArgumentException.class, () -> second.column("isbn"));
+    }
+
+    @Test
+    void needsEveryColumnOfTheSchema() {
+        assertThrows(IOException.class, () -> reader("bookID,title\n1,A\n"));
+    }
+
+    @Test
+    void readsTheBooksFileOfThisRepository() throws IOException {
+        Path file = Paths.get("../../books.csv");
+        assumeTrue(Files.exists(file));
+
+        BooksCsvReader reader = new BooksCsvReader(file);
+        int rows = 0;
+        BookBatch batch;
+        while ((batch = reader.next(1000)) != null) {
+            rows += batch.size();
+        }
+        // 11/31/2000 and 6/31/1982 are not dates
+        assertEquals(11125, rows);
+        assertEquals(2, reader.skippedLines().size());
+    }
+
+    private static BooksCsvReader reader(String csv) throws IOException {
+        return new BooksCsvReader(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the byte-level CSV parser.
+ */
+class CsvParserTest {
+    @Test
+    void splitsQuotedAndUnquotedFields() throws IOException {
+        CsvParser parser = parser("﻿a,\"b, \"\"c\"\"\",News: \"d\" e\r\n"
+            + "\n"
+            + "\"two\nlines\",,x\n"
+            + "last,");
+
+        assertTrue(parser.next());
+        assertEquals(1, parser.line());
+        assertEquals(3, parser.fields());
+        assertEquals("a", parser.string(0));
+        assertEquals("b, \"c\"", parser.string(1));
+        assertEquals("News: \"d\" e", parser.string(2));
+
+        assertTrue(parser.next());
+        assertEquals(3, parser.line());
+        assertEquals("two\nlines", parser.string(0));
+        assertEquals("", parser.string(1));
+        assertEquals("x", parser.string(2));
+
+        assertTrue(parser.next());
+        assertEquals(5, parser.line());
+        assertEquals(2, parser.fields());
+        assertEquals("last", parser.string(0));
+        assertEquals("", parser.string(1));
+        assertFalse(parser.next());
+    }
+
+    @Test
+    void joinsFieldsAsTheyAreWritten() throws IOException {
+        CsvParser parser = parser("1,James Wesley, Rawles,3.63\n");
+        assertTrue(parser.next());
+        assertEquals("James Wesley, Rawles", parser.string(1, 2));
+    }
+
+    @Test
+    void parsesNumbersAndDates() throws IOException {
+        CsvParser parser = parser(" 652 ,4.57,9780439785969,9/16/2006,2/29/2000,11/31/2000,2/29/1900,x\n");
+        assertTrue(parser.next());
+        assertEquals(652L, parser.parseLong(0));
+        assertEquals(4.57f, parser.parseFloat(1));
+        assertEquals(9780439785969L, parser.parseLong(2));
+        assertEquals(20060916, parser.parseDate(3));
+        assertEquals(20000229, parser.parseDate(4));
+        assertThrows(NumberFormatException.class, () -> parser.parseDate(5));
+        assertThrows(NumberFormatException.class, () -> parser.parseDate(6));
+        assertThrows(NumberFormatException.class, () -> parser.parseLong(7));
+        assertThrows(NumberFormatException.class, () -> parser.parseDate(7));
+    }
+
+    @Test
+    void readsAFieldThatGoesOnAfterItsQuotesAsWritten() throws IOException {
+        CsvParser parser = parser("1,\"Dear Genius...\": A Memoir,\"Stand Back \" Said \"I'm\",x\n2\n");
+        assertTrue(parser.next());
+        assertEquals(4, parser.fields());
+        assertEquals("\"Dear Genius...\": A Memoir", parser.string(1));
+        assertEquals("\"Stand Back \" Said \"I'm\"", parser.string(2));
+        assertTrue(parser.next());
+        assertEquals(2, parser.line());
+    }
+
+    @Test
+    void rejectsAQuotedFieldThatIsNeverClosed() {
+        assertThrows(IOException.class, () -> parser("a,\"open\n").next());
+    }
+
+    private static CsvParser parser(String csv) {
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        return new CsvParser(bytes, bytes.length);
+    }
+}
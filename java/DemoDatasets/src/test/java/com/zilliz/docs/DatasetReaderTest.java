@@ -0,0 +1,95 @@
+package com.zilliz.docs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the streaming dataset reader.
+ */
+class DatasetReaderTest {
+    private static final String DATASET = "{\"name\": \"rows\", \"meta\": {\"rows\": [{\"id\": -1}]},\n"
+        + "  \"rows\" : [\n"
+        + "    {\"id\": 0, \"title\": \"Braces } and ] and \\\"rows\\\" in a title\", \"claps\": 12,"
+        + " \"title_vector\": [0.5, -1.25e-3, 3]},\n"
+        + "    {\"id\": 1, \"title\": \"Caf\\u00e9 été\", \"nested\": {\"a\": [1, {\"b\": \"}\"}]},"
+        + " \"title_vector\": []}\n"
+        + "  ], \"after\": 1}";
+
+    @Test
+    void readsTheSameRowsAsParsingTheWholeFile() throws IOException {
+        JSONArray expected = JSON.parseObject(DATASET).getJSONArray("rows");
+
+        try (DatasetReader reader = reader(DATASET)) {
+            for (int i = 0; i < expected.size(); i++) {
+                JSONObject row = reader.next();
+                assertEquals(expected.getJSONObject(i).toJSONString(), row.toJSONString());
+                assertEquals(expected.getJSONObject(i).getJSONArray("title_vector").toJavaList(Float.class),
+                    row.getJSONArray("title_vector").toJavaList(Float.class));
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void decodesArticlesWithPrimitiveVectors() throws IOException {
+        JSONArray expected = JSON.parseObject(DATASET).getJSONArray("rows");
+
+        try (DatasetReader reader = reader(DATASET)) {
+            for (int i = 0; i < expected.size(); i++) {
+                JSONObject row = expected.getJSONObject(i);
+                Article article = reader.nextArticle();
+                assertEquals(row.getLongValue("id"), article.getId());
+                assertEquals(row.getString("title"), article.getTitle());
+                assertEquals(row.getLongValue("claps"), article.getClaps());
+                List<Float> vector = row.getJSONArray("title_vector").toJavaList(Float.class);
+                assertEquals(vector, article.getTitleVector());
+                assertEquals(vector, article.toRow().getJSONArray("title_vector").toJavaList(Float.class));
+            }
+            assertNull(reader.nextArticle());
+        }
+    }
+
+    @Test
+    void skipsFieldsOutsideTheProjectionWithoutDecodingThem() throws IOException {
+        String json = "[{\"id\": 7, \"title\": \"T\", \"claps\": \"many\","
+            + " \"title_vector\": [\"]\", {\"not\": [\"a\", \"float\"]}, null]}]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        try (DatasetReader reader = new DatasetReader(new ByteArrayInputStream(bytes), Article.mask("id", "title"))) {
+            Article article = reader.nextArticle();
+            assertEquals(7L, article.getId());
+            assertEquals("T", article.getTitle());
+            assertEquals(0L, article.getClaps());
+            assertEquals(0, article.getTitleVector().size());
+            assertNull(reader.nextArticle());
+        }
+        try (DatasetReader reader = reader(json)) {
+            assertThrows(IOException.class, reader::nextArticle);
+        }
+    }
+
+    @Test
+    void readsABareArrayOfRows() throws IOException {
+        try (DatasetReader reader = reader("[{\"id\": 7}, {\"id\": 8}]")) {
+            assertEquals(7L, reader.next().getLong("id"));
+            assertEquals(8L, reader.next().getLong("id"));
+            assertNull(reader.next());
+        }
+    }
+
+    private static DatasetReader reader(String json) {
+        return new DatasetReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.zilliz.docs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the allocation-free float parser.
+ */
+class FloatParserTest {
+    @Test
+    void agreesWithFloatParseFloat() {
+        String[] numbers = {"0", "-0", "0.0", "1", "-1", "3", "0.5", "-1.25e-3", "1E5", "2.5e+2", "1e-45", "1e-40",
+            "3.4028235e38", "3.5e38", "0.1", "0.30000001192092896", "123456789012345678901234", "1.00000017881393432",
+            "16777217", "0.000000000000000000000000001", "-0.18512046", "9007199254740993"};
+        for (String number : numbers) {
+            assertEquals(Float.parseFloat(number), parse(number), number);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200_000; i++) {
+            float value = Float.intBitsToFloat(random.nextInt());
+            if (Float.isNaN(value) || Float.isInfinite(value)) {
+                continue;
+            }
+            String[] forms = {Float.toString(value), Double.toString(value), String.valueOf(random.nextDouble() - 0.5)};
+            for (String number : forms) {
+                assertEquals(Float.parseFloat(number), parse(number), number);
+            }
+        }
+    }
+
+    @Test
+    void rejectsWhatIsNotANumber() {
+        for (String number : new String[] {"", "-", ".5x", "1e", "abc", "1-2"}) {
+            assertThrows(NumberFormatException.class, () -> parse(number), number);
+        }
+    }
+
+    private static float parse(String number) {
+        byte[] bytes = ("[" + number + "]").getBytes(StandardCharsets.US_ASCII);
+        return FloatParser.parse(bytes, 1, bytes.length - 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.zilliz.docs;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Measures how decoding a dataset with {@link ArticleTable#decode(Path, int, int)} scales with the number of
+ * fork-join threads, next to the streaming single-threaded decode.
+ *
+ * <p>Run from {@code java/DemoDatasets} after {@code mvn test-compile}:
+ * {@code java -Xmx4g -cp target/classes:target/test-classes:<fastjson jars>
+ * com.zilliz.docs.ParallelDecodeBenchmark <dataset file> [rows] [threads...]}
+ */
+public final class ParallelDecodeBenchmark {
+    private static final int ROUNDS = 3;
+
+    private ParallelDecodeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get(args.length > 0 ? args[0] : "medium_articles_2020_dpr.json");
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+        int[] threads = {1, 4, 16, 32};
+        if (args.length > 2) {
+            threads = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                threads[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%s, %d cores%n", file, Runtime.getRuntime().availableProcessors());
+        long streaming = Long.MAX_VALUE;
+        int rows = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            rows = ArticleTable.decode(file, limit).size();
+            streaming = Math.min(streaming, System.nanoTime() - start);
+        }
+        System.out.printf("streaming:   %8.1f ms  %10.0f rows/s%n", streaming / 1e6, rows / (streaming / 1e9));
+
+        long base = 0;
+        for (int n : threads) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                rows = ArticleTable.decode(file, limit, n).size();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            if (base == 0) {
+                base = best;
+            }
+            System.out.printf("%2d threads:  %8.1f ms  %10.0f rows/s  %5.2fx%n", n, best / 1e6,
+                rows / (best / 1e9), (double) base / best);
+        }
+    }
+}
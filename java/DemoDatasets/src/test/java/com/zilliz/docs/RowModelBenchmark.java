@@ -0,0 +1,161 @@
+package com.zilliz.docs;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.fastjson.JSONArray;
+
+/**
+ * Compares the {@code toJavaList(Float.class)} vectors the demos used to build with {@link Article} rows and
+ * their {@link FloatVector} views: bytes allocated, heap still used while the vectors are held, and time spent
+ * in GC. Both paths then walk every element the way the SDK does when it serializes a request.
+ *
+ * <p>Run from {@code java/DemoDatasets} after {@code mvn test-compile}, with the heap fixed so GC numbers are
+ * comparable:
+ * {@code java -Xms1g -Xmx1g -cp target/classes:target/test-classes:<fastjson jars>
+ * com.zilliz.docs.RowModelBenchmark <dataset file> [rows]}
+ */
+public final class RowModelBenchmark {
+    private static final int ROUNDS = 5;
+
+    // keeps what was loaded reachable until the heap has been measured
+    private static Object held;
+
+    private RowModelBenchmark() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get(args.length > 0 ? args[0] : "medium_articles_2020_dpr.json");
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : 5979;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Sample boxed = measure(() -> {
+                JSONArray dataset = DatasetReader.read(file, limit);
+                List<List<Float>> vectors = new ArrayList<>(dataset.size());
+                for (int i = 0; i < dataset.size(); i++) {
+                    vectors.add(dataset.getJSONObject(i).getJSONArray("title_vector").toJavaList(Float.class));
+                }
+                return new Object[] {dataset, vectors};
+            }, held -> serialize((List<List<Float>>) ((Object[]) held)[1]));
+
+            Sample primitive = measure(() -> {
+                List<Article> dataset = new ArrayList<>();
+                try (DatasetReader reader = new DatasetReader(file)) {
+                    Article article;
+                    while (dataset.size() < limit && (article = reader.nextArticle()) != null) {
+                        dataset.add(article);
+                    }
+                }
+                List<List<Float>> vectors = new ArrayList<>(dataset.size());
+                for (Article article : dataset) {
+                    vectors.add(article.getTitleVector());
+                }
+                return new Object[] {dataset, vectors};
+            }, held -> serialize((List<List<Float>>) ((Object[]) held)[1]));
+
+            if (round == ROUNDS - 1) {
+                System.out.printf("%s, %d rows%n", file, limit);
+                System.out.println("                    load ms  allocated MB  held MB  GCs  GC ms  serialize ms");
+                System.out.println("List<Float> rows:  " + boxed);
+                System.out.println("float[] rows:      " + primitive);
+            }
+        }
+    }
+
+    /**
+     * Walks every element as the SDK does when it copies a vector into the request.
+     */
+    private static double serialize(List<List<Float>> vectors) {
+        double sum = 0;
+        for (List<Float> vector : vectors) {
+            for (Float value : vector) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    private static Sample measure(Load load, Serialize serialize) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        settle();
+        long heapBefore = usedHeap();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcMillis();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+
+        held = load.run();
+
+        Sample sample = new Sample();
+        sample.loadMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        sample.checksum = serialize.run(held);
+        sample.serializeMillis = (System.nanoTime() - start) / 1_000_000;
+        sample.allocatedBytes = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        sample.gcCount = gcCount() - gcCountBefore;
+        sample.gcMillis = gcMillis() - gcTimeBefore;
+        settle();
+        sample.heldBytes = usedHeap() - heapBefore;
+        held = null;
+        return sample;
+    }
+
+    private static void settle() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private interface Load {
+        Object run() throws Exception;
+    }
+
+    private interface Serialize {
+        double run(Object held);
+    }
+
+    private static final class Sample {
+        long loadMillis;
+        long allocatedBytes;
+        long heldBytes;
+        long gcCount;
+        long gcMillis;
+        long serializeMillis;
+        double checksum;
+
+        @Override
+        public String toString() {
+            return String.format("%8d  %12.1f  %7.1f  %3d  %5d  %12d   (checksum %.3f)", loadMillis,
+                allocatedBytes / 1048576.0, heldBytes / 1048576.0, gcCount, gcMillis, serializeMillis, checksum);
+        }
+    }
+}
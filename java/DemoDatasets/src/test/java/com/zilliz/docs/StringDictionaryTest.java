@@ -0,0 +1,54 @@
+package com.zilliz.docs;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit test for the dictionary of low-cardinality string columns.
+ */
+class StringDictionaryTest {
+    @Test
+    void givesEqualValuesOneCodeAndOneInstance() {
+        StringDictionary dictionary = new StringDictionary();
+        byte[] bytes = "eng,en-US,eng,Penguin Books,éd,en-US".getBytes(StandardCharsets.UTF_8);
+
+        int eng = dictionary.encode(bytes, 0, 3);
+        int us = dictionary.encode(bytes, 4, 9);
+        assertEquals(eng, dictionary.encode(bytes, 10, 13));
+        assertEquals(eng, dictionary.encode(new String("eng")));
+        assertEquals(us, dictionary.encode(bytes, bytes.length - 5, bytes.length));
+        int penguin = dictionary.encode("Penguin Books");
+        assertEquals(penguin, dictionary.encode(bytes, 14, 27));
+        int accented = dictionary.encode(bytes, 28, 31);
+
+        assertEquals(4, dictionary.size());
+        assertEquals("éd", dictionary.value(accented));
+        assertSame(dictionary.value(eng), dictionary.value(dictionary.encode(bytes, 10, 13)));
+    }
+
+    @Test
+    void keepsEarlierValuesWhileGrowing() {
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.encode("first");
+        String[] values = dictionary.values();
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = ("value " + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals(i + 1, dictionary.encode(bytes, 0, bytes.length));
+        }
+
+        assertEquals(1001, dictionary.size());
+        assertEquals("first", values[0]);
+        assertEquals("value 999", dictionary.value(1000));
+        byte[] bytes = "value 500".getBytes(StandardCharsets.UTF_8);
+        assertEquals(501, dictionary.encode(bytes, 0, bytes.length));
+
+        DictionaryColumn column = new DictionaryColumn(new int[] {1000, -1, 0}, dictionary.values(), 3);
+        assertEquals("value 999", column.get(0));
+        assertEquals(null, column.get(1));
+        assertEquals("first", column.get(2));
+    }
+}
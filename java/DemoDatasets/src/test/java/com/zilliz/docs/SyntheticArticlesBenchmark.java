@@ -0,0 +1,56 @@
+package com.zilliz.docs;
+
+/**
+ * Measures how fast {@link SyntheticArticles#generate} makes articles with 768-dimensional vectors on
+ * different numbers of threads, and checks that every run makes the same rows.
+ *
+ * <p>Run from {@code java/DemoDatasets} after {@code mvn test-compile}:
+ * {@code java -Xmx4g -cp target/classes:target/test-classes:<fastjson jars>
+ * com.zilliz.docs.SyntheticArticlesBenchmark [rows] [threads...]}
+ */
+public final class SyntheticArticlesBenchmark {
+    private static final int ROUNDS = 3;
+    private static final int BATCH_SIZE = 5000;
+
+    private SyntheticArticlesBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+        int[] threads = {1, 4, 16, 32};
+        if (args.length > 1) {
+            threads = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                threads[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%d rows, %d cores%n", rows, Runtime.getRuntime().availableProcessors());
+        SyntheticArticles generator = new SyntheticArticles(42, 768);
+        long base = 0;
+        for (int n : threads) {
+            long best = Long.MAX_VALUE;
+            long[] checksum = new long[1];
+            for (int round = 0; round < ROUNDS; round++) {
+                checksum[0] = 0;
+                long start = System.nanoTime();
+                generator.generate(rows, BATCH_SIZE, n, batch -> checksum[0] = 31 * checksum[0] + checksum(batch));
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            if (base == 0) {
+                base = best;
+            }
+            System.out.printf("%2d threads:  %8.1f ms  %10.0f rows/s  %5.2fx  checksum %016x%n", n, best / 1e6,
+                rows / (best / 1e9), (double) base / best, checksum[0]);
+        }
+    }
+
+    private static long checksum(SyntheticBatch batch) {
+        long sum = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            sum = 31 * sum + Float.floatToIntBits(batch.vectors[i * 768 + 767]) + batch.claps[i]
+                + batch.tags[i * SyntheticBatch.TAGS_PER_ROW];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package com.zilliz.docs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the synthetic article generator.
+ */
+class SyntheticArticlesTest {
+    @Test
+    void makesTheSameRowsWhateverTheBatchesAndThreads() {
+        SyntheticArticles generator = new SyntheticArticles(7, 8);
+        List<String> expected = rows(generator.batch(0, 500));
+
+        for (int[] run : new int[][] {{500, 1}, {64, 4}, {7, 3}}) {
+            List<String> rows = new ArrayList<>();
+            generator.generate(500, run[0], run[1], batch -> rows.addAll(rows(batch)));
+            assertEquals(expected, rows, Arrays.toString(run));
+        }
+        assertEquals(rows(generator.batch(300, 5)), expected.subList(300, 305));
+        assertEquals(expected, rows(new SyntheticArticles(7, 8).batch(0, 500)));
+        assertNotEquals(expected, rows(new SyntheticArticles(8, 8).batch(0, 500)));
+    }
+
+    @Test
+    void stopsAtTheFirstBatchTheConsumerRejects() {
+        List<Long> firsts = new ArrayList<>();
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> new SyntheticArticles(7, 8).generate(1000, 100, 2, batch -> {
+                firsts.add(batch.articles().get(0).getId());
+                if (firsts.size() == 2) {
+                    throw new IllegalStateException("insert failed");
+                }
+            }));
+
+        assertEquals("insert failed", thrown.getMessage());
+        assertEquals(Arrays.asList(0L, 100L), firsts);
+    }
+
+    @Test
+    void tagsMatchTheBatchesAndStayInRange() {
+        SyntheticArticles generator = new SyntheticArticles(42, 4);
+        SyntheticBatch batch = generator.batch(100, 20);
+        for (int i = 0; i < batch.size(); i++) {
+            assertArrayEquals(generator.tags1(100 + i), batch.tags1(i));
+            assertEquals(SyntheticArticles.TAGS_1, batch.tags1(i).length);
+            List<int[]> tags2 = generator.tags2(100 + i);
+            assertEquals(SyntheticArticles.TAGS_2, tags2.size());
+            for (int j = 0; j < tags2.size(); j++) {
+                assertArrayEquals(tags2.get(j), batch.tags2(i).get(j));
+            }
+            for (int tag : batch.tags1(i)) {
+                assertTrue(tag >= 0 && tag < SyntheticArticles.TAG_VALUES);
+            }
+            for (float value : batch.articles().get(i).getTitleVector().toFloatArray()) {
+                assertTrue(value >= -1 && value < 1);
+            }
+        }
+        JSONObject row = batch.rows("id", "article_meta").get(0);
+        assertEquals(100L, row.get("id"));
+        assertEquals(7, row.getJSONObject("article_meta").size());
+    }
+
+    private static List<String> rows(SyntheticBatch batch) {
+        List<String> rows = new ArrayList<>();
+        for (JSONObject row : batch.rows("id", "title", "publication", "claps", "title_vector", "article_meta")) {
+            rows.add(row.toJSONString());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,130 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the mapped vector files.
+ */
+class VectorFileTest {
+    private static final float[][] VECTORS = {{0.5f, -1f, 3f}, {2f, 0f, -0.25f}, {7f, 8f, 9f}};
+
+    @Test
+    void readsNumPyArrays(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("vectors.npy");
+        Files.write(file, npy("{'descr': '<f4', 'fortran_order': False, 'shape': (3, 3), }", VECTORS));
+
+        VectorFile vectors = VectorFile.open(file);
+        assertEquals(3, vectors.size());
+        assertEquals(3, vectors.dimension());
+        assertRows(vectors);
+        // each piece of the mapping holds whole rows
+        assertRows(VectorFile.open(file, 20));
+    }
+
+    @Test
+    void rejectsArraysThatAreNotFloat32RowsInCOrder(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("vectors.npy");
+        Files.write(file, npy("{'descr': '<f8', 'fortran_order': False, 'shape': (3, 3), }", VECTORS));
+        assertThrows(IOException.class, () -> VectorFile.open(file));
+        Files.write(file, npy("{'descr': '<f4', 'fortran_order': True, 'shape': (3, 3), }", VECTORS));
+        assertThrows(IOException.class, () -> VectorFile.open(file));
+        Files.write(file, npy("{'descr': '<f4', 'fortran_order': False, 'shape': (9,), }", VECTORS));
+        assertThrows(IOException.class, () -> VectorFile.open(file));
+        Files.write(file, npy("{'descr': '<f4', 'fortran_order': False, 'shape': (4, 3), }", VECTORS));
+        assertThrows(IOException.class, () -> VectorFile.open(file));
+    }
+
+    @Test
+    void readsFvecsBvecsAndIvecs(@TempDir Path dir) throws IOException {
+        Path fvecs = dir.resolve("base.fvecs");
+        ByteBuffer buffer = buffer(3 * 16);
+        for (float[] vector : VECTORS) {
+            buffer.putInt(3);
+            for (float value : vector) {
+                buffer.putFloat(value);
+            }
+        }
+        Files.write(fvecs, buffer.array());
+        assertRows(VectorFile.open(fvecs));
+        assertRows(VectorFile.open(fvecs, 1));
+
+        Path bvecs = dir.resolve("base.bvecs");
+        Files.write(bvecs, new byte[] {2, 0, 0, 0, 1, (byte) 255, 2, 0, 0, 0, 0, 7});
+        VectorFile bytes = VectorFile.open(bvecs);
+        assertEquals(2, bytes.size());
+        assertEquals(Arrays.asList(1f, 255f), bytes.get(0));
+        assertEquals(Arrays.asList(0f, 7f), bytes.get(1));
+
+        Path ivecs = dir.resolve("groundtruth.ivecs");
+        buffer = buffer(2 * 12);
+        buffer.putInt(2).putInt(42).putInt(-1).putInt(2).putInt(7).putInt(1 << 20);
+        Files.write(ivecs, buffer.array());
+        VectorFile ints = VectorFile.open(ivecs);
+        assertArrayEquals(new int[] {7, 1 << 20}, ints.getInts(1));
+        assertEquals(Arrays.asList(42f, -1f), ints.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> bytes.getInts(0));
+    }
+
+    @Test
+    void rejectsRowsOfAnotherDimension(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("mixed.fvecs");
+        ByteBuffer buffer = buffer(24);
+        buffer.putInt(2).putFloat(1).putFloat(2).putInt(1).putFloat(3).putFloat(4);
+        Files.write(file, buffer.array());
+        VectorFile vectors = VectorFile.open(file);
+        assertEquals(Arrays.asList(1f, 2f), vectors.get(0));
+        assertThrows(IllegalStateException.class, () -> vectors.get(1));
+
+        Files.write(file, Arrays.copyOf(buffer.array(), 20));
+        assertThrows(IOException.class, () -> VectorFile.open(file));
+        assertThrows(IOException.class, () -> VectorFile.open(dir.resolve("vectors.json")));
+    }
+
+    private static void assertRows(VectorSource vectors) {
+        for (int i = 0; i < VECTORS.length; i++) {
+            assertArrayEquals(VECTORS[i], vectors.get(i).toFloatArray());
+        }
+        List<List<Float>> column = vectors.column(1, 5);
+        assertEquals(2, column.size());
+        assertEquals(Arrays.asList(7f, 8f, 9f), column.get(1));
+    }
+
+    /**
+     * Writes a NumPy file of version 1.0 with the given header, padded as {@code numpy.save} pads it.
+     */
+    private static byte[] npy(String dictionary, float[][] vectors) {
+        StringBuilder header = new StringBuilder(dictionary);
+        while ((10 + header.length() + 1) % 64 != 0) {
+            header.append(' ');
+        }
+        header.append('\n');
+        ByteBuffer buffer = buffer(10 + header.length() + vectors.length * vectors[0].length * 4);
+        buffer.put(new byte[] {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0});
+        buffer.putShort((short) header.length());
+        buffer.put(header.toString().getBytes(StandardCharsets.US_ASCII));
+        for (float[] vector : vectors) {
+            for (float value : vector) {
+                buffer.putFloat(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
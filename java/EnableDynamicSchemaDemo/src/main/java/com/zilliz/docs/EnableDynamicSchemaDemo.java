@@ -15,14 +15,12 @@ import io.milvus.grpc.SearchResults;
 import io.milvus.response.SearchResultsWrapper;
 import io.milvus.param.collection.LoadCollectionParam;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Hello world!
@@ -157,12 +155,12 @@ public final class EnableDynamicSchemaDemo {
 
         // 6. Insert vectors
 
-        String content;
+        List<Article> dataset;
 
         // read a local file
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            dataset = DatasetReader.readArticles(file, 1000);
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
@@ -177,12 +175,9 @@ public final class EnableDynamicSchemaDemo {
 
 
 
-        // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-
         // Insert your data in rows, all the fields not pre-defined in the schema 
         // are recognized as pre-defined schema
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 1000);
+        List<JSONObject> rows = getRows(dataset, 1000);
 
         InsertParam insertParam = InsertParam.newBuilder()
             .withCollectionName(collectionName)
@@ -207,14 +202,13 @@ public final class EnableDynamicSchemaDemo {
 
 
         
-        // wait for a while
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
-        }          
+        // Wait until the inserted entities are visible to a search, rather than for a fixed time
+        R<RpcStatus> readyResponse = new CollectionReadiness(client, 60, TimeUnit.SECONDS)
+            .awaitSearchable(collectionName, mutationResultWrapper.getInsertCount());
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
+        }
 
         // 7. Search vectors
 
@@ -334,18 +328,10 @@ public final class EnableDynamicSchemaDemo {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
+    public static List<JSONObject> getRows(List<Article> dataset, int counts) {
         List<JSONObject> rows = new ArrayList<JSONObject>();
         for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            List<Float> vectors = row.getJSONArray("title_vector").toJavaList(Float.class);
-            Long reading_time = row.getLong("reading_time");
-            Long claps = row.getLong("claps");
-            Long responses = row.getLong("responses");
-            row.put("title_vector", vectors);
-            row.put("reading_time", reading_time);
-            row.put("claps", claps);
-            row.put("responses", responses);
+            JSONObject row = dataset.get(i).toRow();
             row.remove("id");
             rows.add(row);
         }
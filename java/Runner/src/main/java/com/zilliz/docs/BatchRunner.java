@@ -0,0 +1,105 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every demo module under {@code java/} on a bounded pool of workers and prints a wall-clock summary.
+ *
+ * <p>Each worker owns a collection namespace ({@code _w1}, {@code _w2}, ...) that is appended to the
+ * collection names of the demos it runs, so demos running at the same time never touch each other's
+ * collections.
+ */
+public final class BatchRunner {
+    private final DemoEngine engine;
+    private final Path envPath;
+    private final boolean debug;
+    private final boolean took;
+    private final int jobs;
+    private final ResultCache cache;
+
+    public BatchRunner(DemoEngine engine, Path envPath, boolean debug, boolean took, int jobs, ResultCache cache) {
+        this.engine = engine;
+        this.envPath = envPath;
+        this.debug = debug;
+        this.took = took;
+        this.jobs = jobs;
+        this.cache = cache;
+    }
+
+    /**
+     * Finds the demo modules in a directory: every sub-directory with a {@code pom.xml} and a main class named
+     * after the directory, except the Runner itself.
+     */
+    public static List<String> discover(Path javaDir) throws IOException {
+        List<String> demos = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(javaDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                String name = dir.getFileName().toString();
+                if (!name.equals("Runner") && Files.exists(dir.resolve("pom.xml"))
+                        && Files.exists(Runner.sourcePath(dir, name))) {
+                    demos.add(name);
+                }
+            }
+        }
+        Collections.sort(demos);
+        return demos;
+    }
+
+    /**
+     * Runs the demos and returns the number of failures.
+     */
+    public int run(List<String> demos) throws InterruptedException, IOException {
+        AtomicInteger workers = new AtomicInteger();
+        ThreadLocal<String> namespace = ThreadLocal.withInitial(() -> "_w" + workers.incrementAndGet());
+        ExecutorService pool = Executors.newFixedThreadPool(jobs);
+        RunTimings timings = RunTimings.defaults();
+
+        List<Future<Long>> futures = new ArrayList<>();
+        Set<String> cached = ConcurrentHashMap.newKeySet();
+        for (String demo : demos) {
+            futures.add(pool.submit(() -> {
+                long start = System.nanoTime();
+                if (Runner.run(engine, demo, envPath, debug, took, namespace.get(), cache)) {
+                    cached.add(demo);
+                }
+                return (System.nanoTime() - start) / 1_000_000;
+            }));
+        }
+        pool.shutdown();
+
+        int failures = 0;
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%n%-34s %-8s %10s%n", "Demo", "Status", "Time (ms)"));
+        for (int i = 0; i < demos.size(); i++) {
+            String demo = demos.get(i);
+            try {
+                long millis = futures.get(i).get();
+                if (cached.contains(demo)) {
+                    summary.append(String.format("%-34s %-8s %10d%n", demo, "CACHED", millis));
+                } else {
+                    timings.record(demo, engine.name(), millis);
+                    summary.append(String.format("%-34s %-8s %10d%n", demo, "OK", millis));
+                }
+            } catch (ExecutionException e) {
+                failures++;
+                summary.append(String.format("%-34s %-8s %10s  %s%n", demo, "FAILED", "-", e.getCause()));
+            }
+        }
+        System.out.print(summary);
+
+        return failures;
+    }
+}
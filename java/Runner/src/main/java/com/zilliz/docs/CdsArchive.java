@@ -0,0 +1,141 @@
+package com.zilliz.docs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * AppCDS archives of the classes a demo loads from its dependencies.
+ *
+ * <p>A training run ({@code Runner --cds}) launches the demo with plain {@code java} instead of
+ * {@code exec:java}, records every class it loads and dumps the ones that come from the module's dependency
+ * jars into {@code java/.runner-cache/cds/<Demo>.jsa}. Later subprocess runs launch the demo the same way
+ * with the archive mapped in, so the SDK, gRPC and protobuf classes arrive already parsed and verified.
+ *
+ * <p>Only jars can be archived, so the dependencies come first on the classpath and the module's own classes
+ * last. An archive is used until the module's {@code pom.xml} changes; if the JVM still finds it does not
+ * match, it quietly starts without it.
+ */
+public final class CdsArchive {
+    static final Path DIR = Paths.get("java", ".runner-cache", "cds");
+    private static final int PROBES = 3;
+
+    private CdsArchive() {
+    }
+
+    static Path classList(String demo) {
+        return DIR.resolve(demo + ".classlist").toAbsolutePath();
+    }
+
+    static Path archive(String demo) {
+        return DIR.resolve(demo + ".jsa").toAbsolutePath();
+    }
+
+    /**
+     * Tells whether a demo has an archive that is newer than its module's {@code pom.xml}.
+     */
+    public static boolean exists(Path moduleDir, String demo) throws IOException {
+        Path archive = archive(demo);
+        Path pom = moduleDir.resolve("pom.xml");
+        return Files.exists(archive) && Files.getLastModifiedTime(archive).compareTo(Files.getLastModifiedTime(pom)) > 0;
+    }
+
+    /**
+     * JVM options for a training run that records the classes the demo loads.
+     */
+    static List<String> trainingOptions(String demo) throws IOException {
+        Files.createDirectories(DIR);
+        return Arrays.asList("-XX:DumpLoadedClassList=" + classList(demo));
+    }
+
+    /**
+     * JVM options that map in the demo's archive.
+     */
+    static List<String> launchOptions(String demo) {
+        return Arrays.asList("-XX:SharedArchiveFile=" + archive(demo), "-Xshare:auto");
+    }
+
+    /**
+     * Puts the dependency jars first so that the archive, which only covers them, matches the launch
+     * classpath as a prefix.
+     */
+    static String classpath(List<String> dependencies, Path... extra) {
+        List<String> entries = new ArrayList<>(dependencies);
+        for (Path path : extra) {
+            entries.add(path.toAbsolutePath().toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    static String java() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    /**
+     * Dumps the archive from the class list of a training run.
+     */
+    static void dump(String demo, List<String> dependencies) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive(demo));
+        SubprocessEngine.exec("Dumping the class archive of " + demo, Arrays.asList(java(), "-Xshare:dump",
+            "-XX:SharedClassListFile=" + classList(demo), "-XX:SharedArchiveFile=" + archive(demo),
+            "-cp", classpath(dependencies)));
+    }
+
+    /**
+     * Compares how long a JVM takes to start and load the classes of a demo's training run, with and without
+     * its archive, taking the best of a few launches of each.
+     */
+    public static String compare(Path moduleDir, String demo) throws IOException, InterruptedException {
+        List<String> dependencies = InProcessEngine.classpathEntries(moduleDir);
+        Path self = Paths.get(CdsArchive.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+        String classpath = classpath(dependencies, self);
+
+        long without = Long.MAX_VALUE;
+        long with = Long.MAX_VALUE;
+        for (int i = 0; i < PROBES; i++) {
+            without = Math.min(without, probe(Arrays.asList(java(), "-cp", classpath), demo));
+            List<String> command = new ArrayList<>(Arrays.asList(java(), "-cp", classpath));
+            command.addAll(1, launchOptions(demo));
+            with = Math.min(with, probe(command, demo));
+        }
+        return String.format("%s: startup %d ms without the class archive, %d ms with it (best of %d)",
+            demo, without, with, PROBES);
+    }
+
+    private static long probe(List<String> launch, String demo) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(launch);
+        command.add(CdsArchive.class.getName());
+        command.add(classList(demo).toString());
+
+        long start = System.nanoTime();
+        SubprocessEngine.exec("Probing the startup of " + demo, command);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * The startup probe: loads, without initializing, every class in a class list.
+     */
+    public static void main(String[] args) throws IOException {
+        ClassLoader loader = CdsArchive.class.getClassLoader();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("@")) {
+                    continue;
+                }
+                String name = line.split(" ", 2)[0].replace('/', '.');
+                try {
+                    Class.forName(name, false, loader);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // generated and demo classes are not on the probe's classpath
+                }
+            }
+        }
+    }
+}
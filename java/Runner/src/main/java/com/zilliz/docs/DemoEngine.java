@@ -0,0 +1,44 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Compiles and executes an instrumented demo, streaming the results it reports on the
+ * {@link ResultChannel}.
+ */
+public interface DemoEngine {
+
+    /**
+     * Receives the results of a demo one at a time, while the demo runs.
+     */
+    interface ResultSink {
+        /**
+         * @param line The 1-based script line of the {@code System.out.println} that printed the result.
+         * @param text What it printed.
+         */
+        void accept(int line, String text) throws IOException;
+
+        /**
+         * @param line The 1-based script line where the timed client call starts.
+         * @param step The client method, e.g. {@code createCollection}.
+         * @param nanos How long the call took.
+         */
+        default void took(int line, String step, long nanos) throws IOException {
+        }
+    }
+
+    /**
+     * Runs a demo.
+     * @param demo The simple class name of the demo, e.g. {@code QuickStartDemo}.
+     * @param moduleDir The Maven module of the demo, e.g. {@code java/QuickStartDemo}.
+     * @param script The demo source with the placeholders substituted and its output instrumented.
+     * @param results Receives each result the demo reports.
+     */
+    void run(String demo, Path moduleDir, String script, ResultSink results) throws IOException, InterruptedException;
+
+    /**
+     * A short name used when reporting timings.
+     */
+    String name();
+}
@@ -0,0 +1,335 @@
+package com.zilliz.docs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles the rewritten demo with {@link JavaCompiler}, loads it in an isolated class loader over the
+ * module's dependency classpath and calls {@code main} in the current JVM.
+ *
+ * <p>The dependency classpath is resolved with {@code mvn dependency:build-classpath} once per module and
+ * kept in {@code target/runner-classpath.txt} until the module's {@code pom.xml} changes.
+ *
+ * <p>A long-lived engine can share one class loader for each module's dependencies across runs, so the SDK,
+ * gRPC and Netty classes stay loaded and JIT-compiled; only the demo itself gets a fresh loader every time.
+ */
+public final class InProcessEngine implements DemoEngine {
+    static final String CLASSPATH_FILE = "runner-classpath.txt";
+
+    private final Map<Path, List<URL>> classpaths = new ConcurrentHashMap<>();
+    private final Map<Path, DependencyLoader> dependencyLoaders = new ConcurrentHashMap<>();
+    private final boolean shareDependencies;
+
+    public InProcessEngine() {
+        this(false);
+    }
+
+    /**
+     * @param shareDependencies Whether to keep each module's dependencies loaded between runs.
+     */
+    public InProcessEngine(boolean shareDependencies) {
+        this.shareDependencies = shareDependencies;
+    }
+
+    @Override
+    public void run(String demo, Path moduleDir, String script, ResultSink results)
+            throws IOException, InterruptedException {
+        List<URL> classpath = classpath(moduleDir);
+        Map<String, String> sources = new HashMap<>();
+        sources.put(Runner.PACKAGE + "." + demo, script);
+        sources.put(Runner.PACKAGE + "." + ResultChannel.EMITTER, ResultChannel.emitterSource());
+        Map<String, byte[]> classes = compile(sources, classpath);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextLoader = thread.getContextClassLoader();
+
+        // the demo still prints everything; only the result channel matters here
+        OutputStream capture = OutputCapture.start(new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+
+        try (MemoryClassLoader loader = shareDependencies
+                ? new MemoryClassLoader(dependencyLoader(moduleDir, classpath), classes)
+                : new MemoryClassLoader(classpath, classes)) {
+            thread.setContextClassLoader(loader);
+            ResultChannel.connect(loader, results);
+            try {
+                invokeMain(loader.loadClass(Runner.PACKAGE + "." + demo));
+            } finally {
+                // a client left open keeps its gRPC threads running in this JVM after the demo
+                ResultChannel.closeClients(loader);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Failed to load demo " + demo, e);
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+            OutputCapture.restore(capture);
+        }
+    }
+
+    /**
+     * Returns the shared loader of a module's dependencies, replacing it when the classpath has changed.
+     */
+    private ClassLoader dependencyLoader(Path moduleDir, List<URL> classpath) throws IOException {
+        synchronized (dependencyLoaders) {
+            DependencyLoader loader = dependencyLoaders.get(moduleDir);
+            if (loader != null && loader.classpath.equals(classpath)) {
+                return loader;
+            }
+            if (loader != null) {
+                // runs still holding it keep working; the jars are only closed for new lookups
+                loader.close();
+            }
+            loader = new DependencyLoader(classpath);
+            dependencyLoaders.put(moduleDir, loader);
+            return loader;
+        }
+    }
+
+    @Override
+    public String name() {
+        return RunTimings.IN_PROCESS;
+    }
+
+    /**
+     * Returns the dependency classpath of a module, resolving it with Maven only when the cached copy is
+     * missing or older than the module's {@code pom.xml}.
+     */
+    List<URL> classpath(Path moduleDir) throws IOException, InterruptedException {
+        if (refreshClasspath(moduleDir)) {
+            classpaths.remove(moduleDir);
+        }
+
+        List<URL> urls = classpaths.get(moduleDir);
+        if (urls == null) {
+            urls = new ArrayList<>();
+            for (String entry : classpathEntries(moduleDir)) {
+                urls.add(new File(entry).toURI().toURL());
+            }
+            classpaths.put(moduleDir, urls);
+        }
+        return urls;
+    }
+
+    /**
+     * Resolves the classpath of a module again if {@code target/runner-classpath.txt} is missing or older
+     * than the module's {@code pom.xml}.
+     * @return Whether it had to be resolved.
+     */
+    static boolean refreshClasspath(Path moduleDir) throws IOException, InterruptedException {
+        Path pom = moduleDir.resolve("pom.xml");
+        Path cache = moduleDir.resolve("target").resolve(CLASSPATH_FILE);
+
+        if (!Files.exists(cache) || Files.getLastModifiedTime(cache).compareTo(Files.getLastModifiedTime(pom)) < 0) {
+            resolveClasspath(moduleDir, cache);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the entries of a module's dependency classpath, resolving it first if needed.
+     */
+    static List<String> classpathEntries(Path moduleDir) throws IOException, InterruptedException {
+        refreshClasspath(moduleDir);
+        Path cache = moduleDir.resolve("target").resolve(CLASSPATH_FILE);
+        List<String> entries = new ArrayList<>();
+        String text = new String(Files.readAllBytes(cache), StandardCharsets.UTF_8).trim();
+        for (String entry : text.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    static void resolveClasspath(Path moduleDir, Path cache) throws IOException, InterruptedException {
+        Files.createDirectories(cache.getParent());
+        Process process = new ProcessBuilder("mvn", "-q", "-f", moduleDir.toString(), "dependency:build-classpath",
+            "-Dmdep.outputFile=" + cache.toAbsolutePath(), "-Dmdep.includeScope=runtime")
+            .inheritIO()
+            .start();
+
+        if (process.waitFor() != 0 || !Files.exists(cache)) {
+            throw new IOException("Failed to resolve the classpath of " + moduleDir);
+        }
+    }
+
+    /**
+     * Compiles source files, keyed by class name, in memory and returns the bytecode of every class they
+     * define.
+     */
+    static Map<String, byte[]> compile(Map<String, String> sources, List<URL> classpath) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("No system Java compiler, run the Runner on a JDK");
+        }
+
+        StringBuilder cp = new StringBuilder();
+        for (URL url : classpath) {
+            if (cp.length() > 0) {
+                cp.append(File.pathSeparator);
+            }
+            cp.append(new File(URI.create(url.toString())).getPath());
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8);
+            JavaFileManager fileManager = new MemoryFileManager(standard, outputs)) {
+            List<JavaFileObject> units = new ArrayList<>();
+            for (Map.Entry<String, String> e : sources.entrySet()) {
+                units.add(new SourceFile(e.getKey(), e.getValue()));
+            }
+            List<String> options = Arrays.asList("-classpath", cp.toString(), "-proc:none", "-nowarn");
+            boolean ok = compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+
+            if (!ok) {
+                StringBuilder message = new StringBuilder("Failed to compile " + sources.keySet());
+                for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+                    if (d.getKind() == Diagnostic.Kind.ERROR) {
+                        message.append("\n  ").append(d.getSource() == null ? "" : d.getSource().getName())
+                            .append(" line ").append(d.getLineNumber()).append(": ").append(d.getMessage(null));
+                    }
+                }
+                throw new IOException(message.toString());
+            }
+        }
+
+        Map<String, byte[]> classes = new HashMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> e : outputs.entrySet()) {
+            classes.put(e.getKey(), e.getValue().toByteArray());
+        }
+        return classes;
+    }
+
+    private static void invokeMain(Class<?> mainClass) throws IOException {
+        try {
+            Method main = mainClass.getMethod("main", String[].class);
+            main.invoke(null, (Object) new String[0]);
+        } catch (InvocationTargetException e) {
+            throw new IOException("Demo " + mainClass.getSimpleName() + " failed", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Demo " + mainClass.getSimpleName() + " has no usable main method", e);
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes;
+
+        ClassFile(String className, ByteArrayOutputStream bytes) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+        private final Map<String, ByteArrayOutputStream> outputs;
+
+        MemoryFileManager(JavaFileManager delegate, Map<String, ByteArrayOutputStream> outputs) {
+            super(delegate);
+            this.outputs = outputs;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                FileObject sibling) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            outputs.put(className, bytes);
+            return new ClassFile(className, bytes);
+        }
+    }
+
+    /**
+     * Loads the freshly compiled demo classes first and resolves everything else from the module's
+     * dependencies. The parent is the platform loader, so nothing from the Runner's own classpath leaks in.
+     */
+    static final class MemoryClassLoader extends URLClassLoader {
+        private final Map<String, byte[]> classes;
+
+        MemoryClassLoader(List<URL> classpath, Map<String, byte[]> classes) {
+            super(classpath.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        /**
+         * Loads the demo classes on top of dependencies that are already loaded.
+         */
+        MemoryClassLoader(ClassLoader dependencies, Map<String, byte[]> classes) {
+            super(new URL[0], dependencies);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes != null) {
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+            return super.findClass(name);
+        }
+    }
+
+    private static final class DependencyLoader extends URLClassLoader {
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final List<URL> classpath;
+
+        DependencyLoader(List<URL> classpath) {
+            super(classpath.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+            this.classpath = classpath;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects how long each timed client call of a demo took, in the order the calls first ran, and writes them
+ * as a table next to the annotated copy so that a slower step shows up in a diff.
+ */
+public final class LatencyTable implements DemoEngine.ResultSink {
+    private final Map<Integer, Step> steps = new LinkedHashMap<>();
+
+    private static final class Step {
+        private final String name;
+        private int calls;
+        private long totalNanos;
+        private long maxNanos;
+
+        private Step(String name) {
+            this.name = name;
+        }
+    }
+
+    @Override
+    public void accept(int line, String text) {
+        // only timings go into the table
+    }
+
+    @Override
+    public void took(int line, String step, long nanos) {
+        Step entry = steps.computeIfAbsent(line, l -> new Step(step));
+        entry.calls++;
+        entry.totalNanos += nanos;
+        entry.maxNanos = Math.max(entry.maxNanos, nanos);
+    }
+
+    /**
+     * Writes one row per call site; a call inside a loop is summed over its iterations.
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write(String.format("%-28s %6s %6s %11s %9s%n", "Step", "Line", "Calls", "Total (ms)", "Max (ms)"));
+        for (Map.Entry<Integer, Step> e : steps.entrySet()) {
+            Step step = e.getValue();
+            writer.write(String.format("%-28s %6d %6d %11d %9d%n", step.name, e.getKey(), step.calls,
+                step.totalNanos / 1_000_000, step.maxNanos / 1_000_000));
+        }
+        writer.flush();
+    }
+}
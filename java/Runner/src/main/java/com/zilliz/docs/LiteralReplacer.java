@@ -0,0 +1,193 @@
+package com.zilliz.docs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Replaces many literal strings in a single pass over the text with an Aho–Corasick automaton.
+ *
+ * <p>Patterns are matched as plain text, so values such as URLs or tokens containing {@code ?}, {@code .} or
+ * {@code +} are safe. Where matches overlap, the leftmost one wins and, among those, the longest.
+ */
+public final class LiteralReplacer {
+    /** Maps a character to its column in {@link #delta}; characters outside every pattern use column 0. */
+    private final int[] column;
+    /** The complete transition table, one row of {@code columns} entries per state. */
+    private final int[] delta;
+    private final int columns;
+    private final int[] depth;
+    /** The pattern ending at a state, or {@code null}. */
+    private final String[] pattern;
+    /** The nearest state along the failure links that ends a pattern, or {@code -1}. */
+    private final int[] output;
+    /** Characters that start a pattern; the scan skips straight to the next one while in the root state. */
+    private final boolean[] first;
+    /** The only character that starts a pattern, or {@code -1} if there are several. */
+    private final int onlyFirst;
+    private final Map<String, String> replacements;
+
+    public LiteralReplacer(Map<String, String> replacements) {
+        this.replacements = new HashMap<>(replacements);
+
+        char max = 0;
+        for (String key : replacements.keySet()) {
+            for (int i = 0; i < key.length(); i++) {
+                max = (char) Math.max(max, key.charAt(i));
+            }
+        }
+        column = new int[max + 1];
+        int nextColumn = 1;
+        for (String key : replacements.keySet()) {
+            for (int i = 0; i < key.length(); i++) {
+                if (column[key.charAt(i)] == 0) {
+                    column[key.charAt(i)] = nextColumn++;
+                }
+            }
+        }
+        columns = nextColumn;
+
+        first = new boolean[max + 1];
+        int firstCount = 0;
+        int firstChar = -1;
+        for (String key : replacements.keySet()) {
+            if (!key.isEmpty() && !first[key.charAt(0)]) {
+                first[key.charAt(0)] = true;
+                firstChar = key.charAt(0);
+                firstCount++;
+            }
+        }
+        onlyFirst = firstCount == 1 ? firstChar : -1;
+
+        // build the trie
+        List<int[]> children = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        children.add(new int[columns]);
+        depths.add(0);
+        patterns.add(null);
+        for (String key : replacements.keySet()) {
+            if (key.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < key.length(); i++) {
+                int c = column[key.charAt(i)];
+                if (children.get(state)[c] == 0) {
+                    children.get(state)[c] = children.size();
+                    children.add(new int[columns]);
+                    depths.add(i + 1);
+                    patterns.add(null);
+                }
+                state = children.get(state)[c];
+            }
+            patterns.set(state, key);
+        }
+
+        int states = children.size();
+        delta = new int[states * columns];
+        depth = new int[states];
+        pattern = patterns.toArray(new String[0]);
+        output = new int[states];
+        Arrays.fill(output, -1);
+        for (int s = 0; s < states; s++) {
+            depth[s] = depths.get(s);
+        }
+
+        // turn the trie into a complete automaton, breadth first so that failure targets are always done
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 1; c < columns; c++) {
+            int child = children.get(0)[c];
+            delta[c] = child;
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = pattern[fail[state]] != null ? fail[state] : output[fail[state]];
+            for (int c = 1; c < columns; c++) {
+                int child = children.get(state)[c];
+                if (child != 0) {
+                    fail[child] = delta[fail[state] * columns + c];
+                    delta[state * columns + c] = child;
+                    queue.add(child);
+                } else {
+                    delta[state * columns + c] = delta[fail[state] * columns + c];
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of {@code text} with every pattern replaced.
+     */
+    public String replace(CharSequence text) {
+        String string = text.toString();
+        char[] chars = string.toCharArray();
+        StringBuilder result = new StringBuilder(chars.length + 256);
+        int copied = 0;
+        int state = 0;
+        int pendingStart = -1;
+        String pending = null;
+
+        int i = 0;
+        while (true) {
+            if (state == 0 && pending == null) {
+                i = skip(string, chars, i);
+            }
+            if (i == chars.length && pending == null) {
+                break;
+            }
+
+            if (i < chars.length) {
+                char ch = chars[i];
+                state = delta[state * columns + (ch < column.length ? column[ch] : 0)];
+            }
+            // at the end, or once no match that is still growing can start at or before the pending one
+            if (pending != null && (i == chars.length || i + 1 - depth[state] > pendingStart)) {
+                result.append(chars, copied, pendingStart - copied).append(replacements.get(pending));
+                copied = pendingStart + pending.length();
+                pending = null;
+                // matches that start after the pending one may have been passed over; scan them again
+                state = 0;
+                i = copied;
+                continue;
+            }
+
+            for (int o = pattern[state] != null ? state : output[state]; o >= 0; o = output[o]) {
+                int start = i + 1 - depth[o];
+                if (start >= copied) {
+                    if (pending == null || start <= pendingStart) {
+                        pending = pattern[o];
+                        pendingStart = start;
+                    }
+                    break;
+                }
+            }
+            i++;
+        }
+
+        return result.append(chars, copied, chars.length - copied).toString();
+    }
+
+    /**
+     * Returns the position of the next character at or after {@code from} that can start a pattern.
+     */
+    private int skip(String string, char[] chars, int from) {
+        if (onlyFirst >= 0) {
+            int next = string.indexOf(onlyFirst, from);
+            return next < 0 ? chars.length : next;
+        }
+        int i = from;
+        while (i < chars.length && (chars[i] >= first.length || !first[chars[i]])) {
+            i++;
+        }
+        return i;
+    }
+}
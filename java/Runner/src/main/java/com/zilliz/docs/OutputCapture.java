@@ -0,0 +1,81 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Captures {@code System.out} per thread, so that several demos can run in the same JVM at the same time
+ * without their output interleaving. Threads that are not capturing keep writing to the original stdout.
+ */
+public final class OutputCapture {
+    private static final InheritableThreadLocal<OutputStream> TARGET = new InheritableThreadLocal<>();
+    private static PrintStream original;
+
+    private OutputCapture() {
+    }
+
+    /**
+     * Sends everything the current thread, and threads it starts, print to {@code System.out} into
+     * {@code target} until {@link #stop()} or {@link #restore(OutputStream)} is called.
+     * @return The capture this one replaces, or {@code null} if the thread was not capturing.
+     */
+    public static OutputStream start(OutputStream target) throws UnsupportedEncodingException {
+        install();
+        OutputStream previous = TARGET.get();
+        TARGET.set(target);
+        return previous;
+    }
+
+    public static void stop() {
+        TARGET.remove();
+    }
+
+    /**
+     * Goes back to the capture {@link #start(OutputStream)} replaced.
+     */
+    public static void restore(OutputStream previous) {
+        if (previous == null) {
+            stop();
+        } else {
+            TARGET.set(previous);
+        }
+    }
+
+    /**
+     * Returns the real stdout, for messages that must not end up in a capture.
+     */
+    public static synchronized PrintStream console() {
+        return original != null ? original : System.out;
+    }
+
+    private static synchronized void install() throws UnsupportedEncodingException {
+        if (original == null) {
+            original = System.out;
+            System.setOut(new PrintStream(new Router(), true, "UTF-8"));
+        }
+    }
+
+    private static final class Router extends OutputStream {
+        private OutputStream target() {
+            OutputStream target = TARGET.get();
+            return target != null ? target : original;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of Runner results. A demo's entry is keyed by a SHA-256 of its source, the env
+ * file, the module's {@code pom.xml}, every jar and class directory on the module's runtime classpath and
+ * the dataset files the demo reads, and holds the output of the run together with the generated
+ * {@code <Demo>Copy.java} and its latency table.
+ *
+ * <p>The digest of a classpath entry or dataset file is kept for as long as its size and modification time
+ * stay the same, so a batch run reads the SDK jars and the datasets once rather than once per demo.
+ */
+public final class ResultCache {
+    /** Bump when the annotated format changes, so that older entries stop matching. */
+    static final String FORMAT = "4";
+    static final String COPY = "copy.java";
+    static final String LATENCY = "latency.txt";
+    static final String OUTPUT = "output.txt";
+
+    /** A {@code "/<name>.<extension>"} literal naming a dataset file the demo reads from its directory. */
+    private static final Pattern DATASET = Pattern.compile("\"/([\\w.-]+\\.(?:json|csv|npy|fvecs|bvecs|ivecs))\"");
+    private static final Map<String, byte[]> DIGESTS = new ConcurrentHashMap<>();
+
+    private final Path dir;
+    private final boolean force;
+
+    /**
+     * @param dir Where entries are kept.
+     * @param force Whether to ignore existing entries; fresh results are stored either way.
+     */
+    public ResultCache(Path dir, boolean force) {
+        this.dir = dir;
+        this.force = force;
+    }
+
+    /**
+     * Computes the key of a demo run from everything that can change its result.
+     * @param inputs The files and directories the run reads besides its source, env file and {@code pom.xml},
+     *     as {@link #inputs} returns them.
+     */
+    public static String key(String demo, Path moduleDir, Path envPath, boolean took, List<Path> inputs)
+            throws IOException {
+        MessageDigest digest = sha256();
+        update(digest, (FORMAT + (took ? "+took" : "")).getBytes(StandardCharsets.UTF_8));
+        update(digest, demo.getBytes(StandardCharsets.UTF_8));
+        update(digest, Files.readAllBytes(Runner.sourcePath(moduleDir, demo)));
+        update(digest, Files.readAllBytes(envPath));
+        update(digest, Files.readAllBytes(moduleDir.resolve("pom.xml")));
+        for (Path input : inputs) {
+            update(digest, input.toString().getBytes(StandardCharsets.UTF_8));
+            update(digest, digest(input));
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * Returns what a demo reads besides its source: the entries of its module's runtime classpath, which
+     * hold the DemoClient and DemoDatasets code it calls, and the dataset files its source names.
+     */
+    public static List<Path> inputs(String demo, Path moduleDir) throws IOException, InterruptedException {
+        List<Path> inputs = new ArrayList<>();
+        for (String entry : InProcessEngine.classpathEntries(moduleDir)) {
+            inputs.add(Paths.get(entry));
+        }
+        inputs.addAll(datasetFiles(new String(Files.readAllBytes(Runner.sourcePath(moduleDir, demo)),
+            StandardCharsets.UTF_8)));
+        return inputs;
+    }
+
+    /**
+     * Returns the dataset files a demo source names as {@code System.getProperty("user.dir") + "/<file>"},
+     * resolved against the directory the demos run in.
+     */
+    static List<Path> datasetFiles(String source) {
+        List<Path> files = new ArrayList<>();
+        Matcher matcher = DATASET.matcher(source);
+        while (matcher.find()) {
+            Path file = Paths.get(System.getProperty("user.dir"), matcher.group(1));
+            if (!files.contains(file)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the digest of a file, of the files under a directory with their relative names, or of nothing
+     * if the path does not exist.
+     */
+    private static byte[] digest(Path input) throws IOException {
+        if (!Files.exists(input)) {
+            return new byte[0];
+        }
+        if (Files.isDirectory(input)) {
+            MessageDigest digest = sha256();
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(input)) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                update(digest, input.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                update(digest, digest(file));
+            }
+            return digest.digest();
+        }
+        String stamp = input.toAbsolutePath() + "|" + Files.size(input) + "|" + Files.getLastModifiedTime(input);
+        byte[] known = DIGESTS.get(stamp);
+        if (known != null) {
+            return known;
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(input)) {
+            byte[] buffer = new byte[1 << 16];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        byte[] computed = digest.digest();
+        DIGESTS.put(stamp, computed);
+        return computed;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void update(MessageDigest digest, byte[] bytes) {
+        // length-prefix every input so that moving bytes between them changes the key
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(bytes);
+    }
+
+    /**
+     * Copies a cached annotated copy and its latency table into place.
+     * @return Whether there was an entry to use.
+     */
+    public boolean restore(String key, Path copyPath, Path latencyPath) throws IOException {
+        Path entry = dir.resolve(key);
+        if (force || !Files.exists(entry.resolve(COPY))) {
+            return false;
+        }
+        Files.copy(entry.resolve(COPY), copyPath, StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(entry.resolve(LATENCY), latencyPath, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    /**
+     * Returns a temporary file for the output of a run that is about to be stored.
+     */
+    public Path newOutputFile(String key) throws IOException {
+        Files.createDirectories(dir);
+        return Files.createTempFile(dir, key, ".out");
+    }
+
+    /**
+     * Stores the result of a successful run. The entry appears atomically, so a concurrent reader never sees
+     * half of it.
+     */
+    public void store(String key, Path copyPath, Path latencyPath, Path output) throws IOException {
+        Path staging = Files.createTempDirectory(dir, key);
+        Files.copy(copyPath, staging.resolve(COPY));
+        Files.copy(latencyPath, staging.resolve(LATENCY));
+        Files.move(output, staging.resolve(OUTPUT));
+
+        Path entry = dir.resolve(key);
+        try {
+            if (force) {
+                delete(entry);
+            }
+            Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // another worker stored the same inputs first
+            delete(staging);
+        } catch (IOException e) {
+            delete(staging);
+            if (!Files.exists(entry)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void delete(Path entry) throws IOException {
+        if (Files.isDirectory(entry)) {
+            Files.deleteIfExists(entry.resolve(COPY));
+            Files.deleteIfExists(entry.resolve(LATENCY));
+            Files.deleteIfExists(entry.resolve(OUTPUT));
+        }
+        Files.deleteIfExists(entry);
+    }
+}
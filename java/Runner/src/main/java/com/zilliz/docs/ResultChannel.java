@@ -0,0 +1,343 @@
+package com.zilliz.docs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The side channel demos report their results on.
+ *
+ * <p>Before a demo runs, every {@code System.out.println(...)} in it is rewritten into
+ * {@code DemoResults.println(<line>, ...)}, and the {@code DemoResults} emitter is compiled along with it.
+ * The emitter writes length-prefixed records tagged with the source line, so the Runner never has to tell
+ * demo output apart from build and SDK logging, nor guess which call printed which line.
+ *
+ * <p>Every {@code R<...> x = client.*(...);} statement is also wrapped in a pair of timing probes, which
+ * report how long the call took on the same channel, and every {@code new ...MilvusClient(...)} is handed to
+ * the emitter, which can close the clients the demo leaves open.
+ */
+public final class ResultChannel {
+    static final String EMITTER = "DemoResults";
+    static final String PROPERTY = "runner.results";
+    private static final String STARTED = "$started";
+
+    private static final Pattern PRINTLN = Pattern.compile("System\\.out\\.println\\((\\s*\\))?");
+    private static final Pattern NEW_CLIENT = Pattern.compile("\\bnew\\s+\\w*Milvus\\w*Client\\s*\\(");
+    private static final Pattern CLIENT_CALL = Pattern.compile("\\bR<[^;=]*>\\s+\\w+\\s*=\\s*client\\.(\\w+)\\s*\\(");
+    private static final byte RESULT = 'R';
+    private static final byte TIMING = 'T';
+
+    private ResultChannel() {
+    }
+
+    /**
+     * Rewrites every {@code System.out.println} into a call to the emitter tagged with its line number, and
+     * puts timing probes around every client call whose response is kept. Calls in comments and string
+     * literals are left alone. Line numbers do not change.
+     */
+    public static String instrument(String script) {
+        return instrumentPrintln(instrumentClientCalls(trackClients(script)));
+    }
+
+    /**
+     * Wraps every {@code new ...MilvusClient(...)} in {@code DemoResults.track(...)}.
+     */
+    static String trackClients(String script) {
+        StringBuilder result = new StringBuilder(script.length() + 256);
+        String code = code(script);
+        Matcher matcher = NEW_CLIENT.matcher(code);
+        int copied = 0;
+        while (matcher.find(copied)) {
+            int close = argumentsEnd(code, matcher.end());
+            if (close < 0) {
+                break;
+            }
+            result.append(script, copied, matcher.start())
+                .append(EMITTER).append(".track(")
+                .append(script, matcher.start(), close + 1)
+                .append(')');
+            copied = close + 1;
+        }
+        return result.append(script, copied, script.length()).toString();
+    }
+
+    static String instrumentClientCalls(String script) {
+        StringBuilder result = new StringBuilder(script.length() + 1024);
+        instrumentClientCalls(script, code(script), 0, script.length(), new int[1], result);
+        return result.toString();
+    }
+
+    /**
+     * Instruments the client calls in {@code [from, to)} of the script, and those nested in their arguments,
+     * such as a call in a lambda passed to another.
+     * @param calls How many calls are instrumented so far, counted on.
+     */
+    private static void instrumentClientCalls(String script, String code, int from, int to, int[] calls,
+            StringBuilder result) {
+        Matcher matcher = CLIENT_CALL.matcher(code).useTransparentBounds(true);
+        int copied = from;
+        while (copied < to && matcher.region(copied, to).find()) {
+            int end = statementEnd(code, matcher.end());
+            if (end < 0 || end >= to) {
+                break;
+            }
+            // a variable of its own, unique in the script, holds the start time of each call
+            String started = STARTED + ++calls[0];
+            result.append(script, copied, matcher.start())
+                .append("long ").append(started).append(" = ").append(EMITTER).append(".start(); ")
+                .append(script, matcher.start(), matcher.end());
+            instrumentClientCalls(script, code, matcher.end(), end + 1, calls, result);
+            result.append(' ').append(EMITTER).append(".took(").append(lineOf(script, matcher.start()))
+                .append(", \"").append(matcher.group(1)).append("\", ").append(started).append(");");
+            copied = end + 1;
+        }
+        result.append(script, copied, to);
+    }
+
+    private static int lineOf(String script, int index) {
+        int line = 1;
+        for (int i = 0; i < index; i++) {
+            if (script.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Returns the index of the {@code ;} that ends the statement in {@link #code}, skipping over nested
+     * brackets, or -1 if there is none.
+     */
+    private static int statementEnd(String code, int from) {
+        int depth = 0;
+        for (int i = from; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '(' || c == '{' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == '}' || c == ']') {
+                depth--;
+            } else if (c == ';' && depth < 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the {@code )} that closes the arguments starting at {@code from} in {@link #code},
+     * or -1 if there is none.
+     */
+    private static int argumentsEnd(String code, int from) {
+        int depth = 0;
+        for (int i = from; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '(' || c == '{' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == '}' || c == ']') {
+                if (depth == 0) {
+                    return c == ')' ? i : -1;
+                }
+                depth--;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the script with every comment and the inside of every string and character literal blanked out,
+     * newlines kept, so that an index into it is the same index into the script.
+     */
+    static String code(String script) {
+        char[] code = script.toCharArray();
+        int i = 0;
+        while (i < code.length) {
+            int end;
+            if (script.startsWith("//", i)) {
+                end = script.indexOf('\n', i);
+                end = end < 0 ? code.length : end;
+            } else if (script.startsWith("/*", i)) {
+                end = script.indexOf("*/", i + 2);
+                end = end < 0 ? code.length : end + 2;
+            } else if (code[i] == '"' || code[i] == '\'') {
+                end = literalEnd(script, i, code[i]);
+                // keep the quotes, so a literal still reads as a value
+                blank(code, i + 1, end);
+                i = end + 1;
+                continue;
+            } else {
+                i++;
+                continue;
+            }
+            blank(code, i, end);
+            i = end;
+        }
+        return new String(code);
+    }
+
+    private static void blank(char[] code, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (code[i] != '\n') {
+                code[i] = ' ';
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the quote that closes a literal, or of the end of the line if it is not closed.
+     */
+    private static int literalEnd(String script, int start, char quote) {
+        for (int i = start + 1; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i;
+            } else if (c == '\n') {
+                return i;
+            }
+        }
+        return script.length();
+    }
+
+    private static String instrumentPrintln(String script) {
+        StringBuilder result = new StringBuilder(script.length() + 1024);
+        String[] lines = script.split("\n", -1);
+        String[] codeLines = code(script).split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                result.append('\n');
+            }
+            Matcher matcher = PRINTLN.matcher(codeLines[i]);
+            int copied = 0;
+            while (matcher.find()) {
+                result.append(lines[i], copied, matcher.start())
+                    .append(EMITTER).append(".println(").append(i + 1)
+                    .append(matcher.group(1) != null ? ")" : ", ");
+                copied = matcher.end();
+            }
+            result.append(lines[i], copied, lines[i].length());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the source of the emitter, to be compiled in the demo's package.
+     */
+    public static String emitterSource() throws IOException {
+        try (InputStream in = ResultChannel.class.getResourceAsStream(EMITTER + ".java.template")) {
+            ByteArrayOutputStream source = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                source.write(buffer, 0, n);
+            }
+            return new String(source.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads records until the end of the stream, handing each to {@code sink} as it is read.
+     */
+    public static void read(InputStream in, DemoEngine.ResultSink sink) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        while (true) {
+            byte kind;
+            try {
+                kind = data.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            int line = data.readInt();
+            byte[] body = new byte[data.readInt()];
+            data.readFully(body);
+            dispatch(kind, line, body, sink);
+        }
+    }
+
+    /**
+     * Closes the clients a demo loaded in the Runner's own JVM left open.
+     */
+    public static void closeClients(ClassLoader loader) throws ReflectiveOperationException {
+        Method close = loader.loadClass(Runner.PACKAGE + "." + EMITTER).getDeclaredMethod("closeClients");
+        close.setAccessible(true);
+        close.invoke(null);
+    }
+
+    /**
+     * Points an emitter loaded in the Runner's own JVM straight at {@code sink}.
+     */
+    public static void connect(ClassLoader loader, DemoEngine.ResultSink sink) throws ReflectiveOperationException {
+        Field out = loader.loadClass(Runner.PACKAGE + "." + EMITTER).getDeclaredField("out");
+        // the emitter is package-private in a package defined by another class loader
+        out.setAccessible(true);
+        out.set(null, decoder(sink));
+    }
+
+    /**
+     * Returns a stream that decodes the records written to it and hands each to {@code sink} as soon as it is
+     * complete, for demos that run in the Runner's own JVM.
+     */
+    public static OutputStream decoder(DemoEngine.ResultSink sink) {
+        return new OutputStream() {
+            private final byte[] header = new byte[9];
+            private int headerSize;
+            private byte[] body;
+            private int bodySize;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                int end = off + len;
+                while (off < end) {
+                    if (headerSize < header.length) {
+                        int n = Math.min(header.length - headerSize, end - off);
+                        System.arraycopy(b, off, header, headerSize, n);
+                        headerSize += n;
+                        off += n;
+                        if (headerSize == header.length) {
+                            body = new byte[readInt(header, 5)];
+                            bodySize = 0;
+                        }
+                    } else {
+                        int n = Math.min(body.length - bodySize, end - off);
+                        System.arraycopy(b, off, body, bodySize, n);
+                        bodySize += n;
+                        off += n;
+                    }
+                    if (headerSize == header.length && bodySize == body.length) {
+                        headerSize = 0;
+                        dispatch(header[0], readInt(header, 1), body, sink);
+                    }
+                }
+            }
+        };
+    }
+
+    private static void dispatch(byte kind, int line, byte[] body, DemoEngine.ResultSink sink) throws IOException {
+        if (kind == TIMING) {
+            long nanos = ((long) readInt(body, 0) << 32) | (readInt(body, 4) & 0xffffffffL);
+            sink.took(line, new String(body, 8, body.length - 8, StandardCharsets.UTF_8), nanos);
+        } else if (kind == RESULT) {
+            sink.accept(line, new String(body, StandardCharsets.UTF_8));
+        } else {
+            throw new IOException("Unknown result record kind " + kind);
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+            | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+    }
+}
@@ -0,0 +1,58 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Remembers the last wall-clock time of every demo per engine so that each run can be compared with the
+ * other execution path. Kept under {@code java/Runner/target} because the subprocess engine cleans the
+ * demo modules.
+ */
+public final class RunTimings {
+    static final String SUBPROCESS = "subprocess";
+    static final String IN_PROCESS = "in-process";
+
+    private final Path file;
+    private final Properties timings = new Properties();
+
+    public RunTimings(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                timings.load(in);
+            }
+        }
+    }
+
+    public static RunTimings defaults() throws IOException {
+        return new RunTimings(Paths.get("java", "Runner", "target", "runner-timings.properties"));
+    }
+
+    /**
+     * Records a run and returns a one-line report that includes the time saved against the other engine,
+     * when a timing for it is known.
+     */
+    public synchronized String record(String demo, String engine, long millis) throws IOException {
+        timings.setProperty(demo + "." + engine, Long.toString(millis));
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            timings.store(out, "Runner timings in milliseconds");
+        }
+
+        String other = SUBPROCESS.equals(engine) ? IN_PROCESS : SUBPROCESS;
+        String previous = timings.getProperty(demo + "." + other);
+        StringBuilder report = new StringBuilder(demo + ": " + engine + " " + millis + " ms");
+        if (previous != null) {
+            long otherMillis = Long.parseLong(previous);
+            long saved = SUBPROCESS.equals(engine) ? millis - otherMillis : otherMillis - millis;
+            report.append(" (last ").append(other).append(" run ").append(otherMillis).append(" ms, ")
+                .append("in-process saves ").append(saved).append(" ms)");
+        }
+        return report.toString();
+    }
+}
@@ -2,147 +2,268 @@ package com.zilliz.docs;
 
 import java.io.*;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Arrays;
-import java.util.regex.*;
-import org.json.JSONObject;
-import org.json.JSONArray;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Hello world!
  */
 public final class Runner {
+    static final String PACKAGE = "com.zilliz.docs";
+    static final Pattern COLLECTION_NAME = Pattern.compile("String\\s+collectionName\\s*=\\s*\"([^\"]+)\"");
+
     private Runner() {
     }
 
     /**
-     * Says hello to the world.
+     * Runs a demo and writes a copy of it annotated with the output of every {@code System.out.println}.
+     *
+     * <p>Usage: {@code Runner [--in-process] [--took] <Demo> <env file> [debug]}, or
+     * {@code Runner --all [--jobs=N] [--in-process] [--took] <env file> [debug]} to run every demo module under
+     * {@code java/} in parallel. By default each demo is built and run with Maven in a subprocess;
+     * {@code --in-process} compiles and runs it inside this JVM instead. Results are cached under
+     * {@code java/.runner-cache} and reused while the demo source, the env file, the module's
+     * {@code pom.xml}, the jars and classes on its classpath and the dataset files it reads stay the same;
+     * {@code --force} runs the demo regardless. How long each client call took
+     * is written to {@code <Demo>Copy.latency.txt}; {@code --took} also annotates every call with it.
+     * {@code --cds} makes every run a training run for the demo's {@link CdsArchive}, which later subprocess
+     * runs pick up by themselves, and compares startup with and without it for a single demo.
+     *
+     * <p>{@code Runner --daemon [--port=N]} starts a warm {@link RunnerDaemon} in the repository root, and
+     * {@code Runner --connect [--port=N] <arguments>} hands the rest of the arguments to it instead of running
+     * them here, with the token the daemon keeps in {@code java/.runner-daemon}.
      * @param args The arguments of the program.
      */
     public static void main(String[] args) throws IOException, InterruptedException {
-        String mainClass = "com.zilliz.docs." + args[0];
-        String classPath = "java/" + args[0];
-
-        Path scriptPath = Paths.get(classPath + "/src/main/java/com/zilliz/docs/" + args[0] + ".java");
-        String script = new String(Files.readAllBytes(scriptPath));
+        List<String> rest = new ArrayList<>();
+        boolean daemon = false;
+        boolean connect = false;
+        int port = RunnerDaemon.DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.equals("--daemon")) {
+                daemon = true;
+            } else if (arg.equals("--connect")) {
+                connect = true;
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else {
+                rest.add(arg);
+            }
+        }
 
-        script = script.replaceAll("(?m)^[ \t]*// Output:.*(?:\n[ \t]*//.*)*", "");
-        script = script.replaceAll("(?m)^\n{3,}", "\n\n");
-        
-        Path envPath = Paths.get(args[1]);
-        String env = new String(Files.readAllBytes(envPath));
+        int status;
+        if (daemon) {
+            new RunnerDaemon(port).serve();
+            return;
+        } else if (connect) {
+            status = RunnerDaemon.submit(port, rest);
+        } else {
+            status = execute(rest, null);
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
 
-        String[] envs = env.split("\n");
-        
-        for (String e : envs) {
-            String[] kv = e.split("=");
-            String key = kv[0];
-            String value = kv[1];
-            script = script.replaceAll(key, value.substring(1, value.length() - 1));
+    /**
+     * Runs the demos the arguments ask for.
+     * @param args The arguments of the program, without the daemon options.
+     * @param warm The engine to run every demo with, or {@code null} to pick one from the arguments.
+     * @return The exit status.
+     */
+    static int execute(List<String> args, DemoEngine warm) throws IOException, InterruptedException {
+        List<String> positional = new ArrayList<>();
+        boolean inProcess = false;
+        boolean all = false;
+        boolean force = false;
+        boolean took = false;
+        boolean cds = false;
+        int jobs = Math.min(4, Runtime.getRuntime().availableProcessors());
+        for (String arg : args) {
+            if (arg.equals("--in-process")) {
+                inProcess = true;
+            } else if (arg.equals("--all")) {
+                all = true;
+            } else if (arg.equals("--force")) {
+                force = true;
+            } else if (arg.equals("--took")) {
+                took = true;
+            } else if (arg.equals("--cds")) {
+                cds = true;
+            } else if (arg.startsWith("--jobs=")) {
+                jobs = Integer.parseInt(arg.substring("--jobs=".length()));
+            } else {
+                positional.add(arg);
+            }
         }
 
-        Files.write(scriptPath, script.getBytes(), StandardOpenOption.TRUNCATE_EXISTING);
+        DemoEngine engine = warm != null ? warm : inProcess ? new InProcessEngine() : new SubprocessEngine(cds);
+        // a training run has to actually run
+        ResultCache cache = new ResultCache(Paths.get("java", ".runner-cache"), force || cds);
 
-        ProcessBuilder processBuilder = new ProcessBuilder("mvn", "-f", classPath, "clean", "compile", "exec:java", "-Dexec.mainClass=" + mainClass);
-        Process process = processBuilder.start();
+        if (all) {
+            Path envPath = Paths.get(positional.get(0));
+            boolean debug = positional.size() > 1 && positional.get(1).equals("debug");
+            BatchRunner batch = new BatchRunner(engine, envPath, debug, took, jobs, cache);
+            return batch.run(BatchRunner.discover(Paths.get("java"))) > 0 ? 1 : 0;
+        }
 
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String demo = positional.get(0);
+        Path envPath = Paths.get(positional.get(1));
+        boolean debug = positional.size() > 2 && positional.get(2).equals("debug");
 
-        String line;
-        StringBuilder output = new StringBuilder();
+        long start = System.nanoTime();
+        if (run(engine, demo, envPath, debug, took, null, cache)) {
+            System.out.println(demo + ": inputs unchanged, reused the cached result (--force to run it)");
+            return 0;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
 
-        while ((line = reader.readLine()) != null) {
-            if (
-                line.startsWith("[INFO]") || 
-                line.startsWith("[ERROR]") || 
-                line.startsWith("[WARNING]") ||
-                line.startsWith("INFO:") ||
-                line.matches("^\\d{4}-\\d{2}-\\d{2}.*")
-            ) {
-                continue;
-            }
-            output.append(line + "\n");
+        System.out.println(RunTimings.defaults().record(demo, engine.name(), millis));
+        if (cds && engine instanceof SubprocessEngine) {
+            System.out.println(CdsArchive.compare(Paths.get("java", demo), demo));
         }
+        return 0;
+    }
+
+    /**
+     * Runs a single demo with the given engine and writes {@code <Demo>Copy.java} next to it.
+     */
+    public static void run(DemoEngine engine, String demo, Path envPath, boolean debug)
+            throws IOException, InterruptedException {
+        run(engine, demo, envPath, debug, false, null, null);
+    }
+
+    /**
+     * Runs a single demo with the given engine and writes {@code <Demo>Copy.java} and
+     * {@code <Demo>Copy.latency.txt} next to it, with {@code // Took:} comments in the copy if {@code took}
+     * is set. When a namespace is given, every collection the demo declares gets it as a suffix while the demo runs, and
+     * the suffix is taken out again in the annotated copy. When a cache is given and already holds a result
+     * for the same inputs, the demo is not run at all.
+     * @return Whether the result came from the cache.
+     */
+    public static boolean run(DemoEngine engine, String demo, Path envPath, boolean debug, boolean took,
+            String namespace, ResultCache cache) throws IOException, InterruptedException {
+        Path moduleDir = Paths.get("java", demo);
+        Path scriptPath = sourcePath(moduleDir, demo);
+        Path newScriptPath = sourcePath(moduleDir, demo + "Copy");
+        Path latencyPath = newScriptPath.resolveSibling(demo + "Copy.latency.txt");
 
-        List<String> outputLines = Arrays.asList(output.toString().split("\\n"));
+        String key = cache == null ? null
+            : ResultCache.key(demo, moduleDir, envPath, took, ResultCache.inputs(demo, moduleDir));
+        if (cache != null && cache.restore(key, newScriptPath, latencyPath)) {
+            return true;
+        }
 
-        List<String> scriptLines = Arrays.asList(script.split("\\n"));
+        String script = new String(Files.readAllBytes(scriptPath));
 
-        int idx = 0;
+        script = script.replaceAll("(?m)^[ \t]*// Output:.*(?:\n[ \t]*//.*)*", "");
+        script = script.replaceAll("(?m)^\n{3,}", "\n\n");
+        
+        Map<String, String> env = readEnv(envPath);
+        Map<String, String> forward = new HashMap<>(env);
+        Map<String, String> reverse = new HashMap<>();
+        for (Map.Entry<String, String> e : env.entrySet()) {
+            reverse.put(e.getValue(), e.getKey());
+        }
 
-        for (int i = 0; i < scriptLines.size(); i++) {
-            String line1 = scriptLines.get(i);
-            if (line1.contains(args[0])) {
-                scriptLines.set(i, line1.replace(args[0], args[0]+"Copy"));
+        if (namespace != null) {
+            for (String collection : collectionNames(script)) {
+                forward.put("\"" + collection + "\"", "\"" + collection + namespace + "\"");
+                reverse.put(collection + namespace, collection);
             }
+        }
 
-            if (line1.contains("System.out.println")) {
-                String line2 = outputLines.get(idx);
-                if (args[2] == "debug") {
-                    System.out.println(line2);
-                }
-                String pretty;
-                if (line2.trim().startsWith("{")) {
-                    JSONObject originalObject = new JSONObject(line2);
-                    pretty = ((JSONObject) limitArraySize(originalObject, 10)).toString(4);
-                } else if (line2.trim().startsWith("[")) {
-                    JSONArray originalArray = new JSONArray(line2);
-                    pretty = ((JSONArray) limitArraySize(originalArray, 10)).toString(4);
-                } else {
-                    pretty = line2;
+        script = new LiteralReplacer(forward).replace(script);
+
+        Path partial = Files.createTempFile(newScriptPath.getParent(), demo + "Copy", ".tmp");
+        Path output = cache == null ? null : cache.newOutputFile(key);
+        LatencyTable latencies = new LatencyTable();
+
+        try (Writer writer = Files.newBufferedWriter(partial);
+            Writer outputWriter = output == null ? null : Files.newBufferedWriter(output)) {
+            LiteralReplacer reverser = new LiteralReplacer(reverse);
+            StreamingAnnotator annotator = new StreamingAnnotator(demo, script, reverser, writer, debug, took);
+            engine.run(demo, moduleDir, ResultChannel.instrument(script), new DemoEngine.ResultSink() {
+                @Override
+                public void accept(int line, String text) throws IOException {
+                    if (outputWriter != null) {
+                        outputWriter.write(line + ": " + reverser.replace(text) + "\n");
+                    }
+                    annotator.accept(line, text);
                 }
-                String indent = line1.substring(0, line1.indexOf("System.out.println"));
-                StringBuilder indented = new StringBuilder();
-                for (String split : pretty.split("\n")) {
-                    indented.append(indent + "// " + split + "\n");
+
+                @Override
+                public void took(int line, String step, long nanos) throws IOException {
+                    if (outputWriter != null) {
+                        outputWriter.write(line + ": " + step + " took " + nanos + " ns\n");
+                    }
+                    latencies.took(line, step, nanos);
+                    annotator.took(line, step, nanos);
                 }
-                pretty = indented.toString();
-                scriptLines.set(i, line1 + "\n\n" + indent + "// Output:\n" + pretty + "\n\n");
-                idx++;
+            });
+            annotator.finish();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            if (output != null) {
+                Files.deleteIfExists(output);
             }
+            throw e;
         }
 
-        script = String.join("\n", scriptLines);
-
-        for (String e : envs) {
-            String[] kv = e.split("=");
-            String key = kv[0];
-            String value = kv[1];
-            script = script.replaceAll(value.substring(1, value.length() - 1), key);
+        Files.move(partial, newScriptPath, StandardCopyOption.REPLACE_EXISTING);
+        try (Writer writer = Files.newBufferedWriter(latencyPath)) {
+            latencies.write(writer);
         }
-
-        Path newScriptPath = Paths.get(classPath + "/src/main/java/com/zilliz/docs/" + args[0] + "Copy.java");
-
-        Files.write(newScriptPath, script.getBytes());
+        if (cache != null) {
+            cache.store(key, newScriptPath, latencyPath, output);
+        }
+        return false;
     }
 
-    public static Object limitArraySize(Object obj, int maxElements) {
-        if (obj instanceof JSONArray) {
-            JSONArray originalArray = (JSONArray) obj;
-            JSONArray newArray = new JSONArray();
-    
-            for (int i = 0; i < Math.min(originalArray.length(), maxElements); i++) {
-                newArray.put(limitArraySize(originalArray.get(i), maxElements));
+    /**
+     * Reads {@code KEY="value"} lines from an env file. Quotes around the value are optional and the value
+     * may itself contain {@code =}.
+     */
+    static Map<String, String> readEnv(Path envPath) throws IOException {
+        Map<String, String> env = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(envPath)) {
+            int eq = line.indexOf('=');
+            if (line.trim().isEmpty() || line.trim().startsWith("#") || eq < 0) {
+                continue;
             }
-
-            if (originalArray.length() > maxElements) {
-                int hiddenElements = originalArray.length() - maxElements;
-                String hiddenElement = "(" + hiddenElements + " elements are hidden)";
-                newArray.put(hiddenElement);
+            String key = line.substring(0, eq).trim();
+            String value = line.substring(eq + 1).trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
             }
-    
-            return newArray;
-        } else if (obj instanceof JSONObject) {
-            JSONObject originalObject = (JSONObject) obj;
-            JSONObject newObject = new JSONObject();
-    
-            for (String key : originalObject.keySet()) {
-                newObject.put(key, limitArraySize(originalObject.get(key), maxElements));
+            if (!key.isEmpty() && !value.isEmpty()) {
+                env.put(key, value);
+            }
+        }
+        return env;
+    }
+
+    /**
+     * Returns the collection names a demo declares with {@code String collectionName = "...";}.
+     */
+    static List<String> collectionNames(String script) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = COLLECTION_NAME.matcher(script);
+        while (matcher.find()) {
+            if (!names.contains(matcher.group(1))) {
+                names.add(matcher.group(1));
             }
-    
-            return newObject;
-        } else {
-            return obj;
         }
+        return names;
+    }
+
+    static Path sourcePath(Path moduleDir, String className) {
+        return moduleDir.resolve(Paths.get("src", "main", "java", "com", "zilliz", "docs", className + ".java"));
     }
 }
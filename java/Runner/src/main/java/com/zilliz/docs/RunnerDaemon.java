@@ -0,0 +1,221 @@
+package com.zilliz.docs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A long-lived Runner that keeps the SDK, gRPC and Netty classes loaded and JIT-compiled between jobs.
+ *
+ * <p>Clients connect to a TCP port on the loopback interface and send the Runner arguments of one job. The
+ * daemon runs the job in its own JVM with a shared {@link InProcessEngine}, so every demo still gets a fresh
+ * class loader while its dependencies stay loaded, and streams everything the job prints back to the client,
+ * followed by its exit status. Relative paths are resolved against the daemon's working directory, so a
+ * client must run from the same directory.
+ *
+ * <p>The port is open to every local user, so a job is only run for a client that knows the daemon's token: a
+ * random value the daemon writes, on start, to {@code java/.runner-daemon/<port>.token}, readable by its owner
+ * alone. A client reads it from there.
+ *
+ * <p>Protocol: the client sends the token, its working directory and the arguments with
+ * {@link DataOutputStream#writeUTF}, the arguments after their count; the daemon answers with output frames
+ * (int length, bytes) and ends with a length of -1 followed by the exit status.
+ */
+public final class RunnerDaemon {
+    static final int DEFAULT_PORT = 7099;
+
+    private final int port;
+    private final InProcessEngine engine = new InProcessEngine(true);
+    private final String root = Paths.get("").toAbsolutePath().toString();
+    private byte[] token;
+
+    public RunnerDaemon(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Accepts jobs until the process is killed. Each connection runs on its own thread.
+     */
+    public void serve() throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            token = writeToken(tokenFile(port)).getBytes(StandardCharsets.UTF_8);
+            System.out.println("Runner daemon serving " + root + " on port " + port);
+            while (true) {
+                Socket socket = server.accept();
+                new Thread(() -> handle(socket), "runner-job-" + socket.getPort()).start();
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (!MessageDigest.isEqual(token, in.readUTF().getBytes(StandardCharsets.UTF_8))) {
+                byte[] refusal = ("Wrong token for the Runner daemon on port " + port + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+                out.writeInt(refusal.length);
+                out.write(refusal);
+                out.writeInt(-1);
+                out.writeInt(2);
+                out.flush();
+                return;
+            }
+            String dir = in.readUTF();
+            List<String> args = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                args.add(in.readUTF());
+            }
+
+            OutputStream frames = new FrameOutputStream(out);
+            PrintStream printer = new PrintStream(frames, true, "UTF-8");
+            OutputCapture.start(frames);
+            int status;
+            try {
+                if (!dir.equals(root)) {
+                    printer.println("The daemon serves " + root + ", not " + dir);
+                    status = 2;
+                } else {
+                    status = Runner.execute(args, engine);
+                }
+            } catch (Exception e) {
+                e.printStackTrace(printer);
+                status = 1;
+            } finally {
+                OutputCapture.stop();
+            }
+
+            synchronized (out) {
+                out.writeInt(-1);
+                out.writeInt(status);
+                out.flush();
+            }
+        } catch (IOException e) {
+            OutputCapture.console().println("Lost a client: " + e);
+        } finally {
+            // the streams may not have been opened
+            try {
+                socket.close();
+            } catch (IOException e) {
+                OutputCapture.console().println("Lost a client: " + e);
+            }
+        }
+    }
+
+    /**
+     * Sends a job to a running daemon and copies its output to {@code System.out}.
+     * @return The exit status of the job.
+     */
+    public static int submit(int port, List<String> args) throws IOException {
+        String token;
+        try {
+            token = new String(Files.readAllBytes(tokenFile(port)), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            System.err.println("No Runner daemon on port " + port + "; start one with Runner --daemon");
+            return 2;
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            out.writeUTF(token);
+            out.writeUTF(Paths.get("").toAbsolutePath().toString());
+            out.writeInt(args.size());
+            for (String arg : args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.readInt()) >= 0) {
+                if (length > buffer.length) {
+                    buffer = new byte[length];
+                }
+                in.readFully(buffer, 0, length);
+                System.out.write(buffer, 0, length);
+                System.out.flush();
+            }
+            return in.readInt();
+        } catch (ConnectException e) {
+            System.err.println("No Runner daemon on port " + port + "; start one with Runner --daemon");
+            return 2;
+        }
+    }
+
+    static Path tokenFile(int port) {
+        return Paths.get("java", ".runner-daemon", port + ".token");
+    }
+
+    /**
+     * Writes a new random token to a file only its owner can read, which goes away with the daemon.
+     */
+    static String writeToken(Path file) throws IOException {
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        StringBuilder token = new StringBuilder();
+        for (byte b : random) {
+            token.append(String.format("%02x", b));
+        }
+        Files.createDirectories(file.getParent());
+        Files.deleteIfExists(file);
+        try {
+            // created private, so there is no moment when another user could open it
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system; the file is as private as the directory it is in
+            Files.createFile(file);
+        }
+        Files.write(file, token.toString().getBytes(StandardCharsets.UTF_8));
+        file.toFile().deleteOnExit();
+        return token.toString();
+    }
+
+    /**
+     * Writes each chunk of output as a frame. Batch workers print from several threads at once, so frames are
+     * written under the lock of the socket stream.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+
+        FrameOutputStream(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (out) {
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+}
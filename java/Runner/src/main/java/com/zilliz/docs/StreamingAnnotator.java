@@ -0,0 +1,149 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+
+/**
+ * Writes the annotated copy of a demo while the demo is still running.
+ *
+ * <p>Every result carries the line of the {@code System.out.println} that reported it, so the script lines
+ * before that call are written out as soon as the result arrives. A call is annotated with the results it
+ * reports one after another, up to the first result of any other line: a loop with one call in its body has
+ * every iteration under that call, and a loop with several calls has the first iteration under each, the
+ * later iterations coming back to lines that are already written. When asked to, the first timing of each
+ * client call is written above it as a {@code // Took:} comment.
+ */
+public final class StreamingAnnotator implements DemoEngine.ResultSink {
+    static final String PRINTLN = "System.out.println";
+    private static final int MAX_OUTPUTS = 10;
+
+    private final String demo;
+    private final String[] scriptLines;
+    private final LiteralReplacer reverse;
+    private final Writer writer;
+    private final boolean debug;
+    private final boolean took;
+    private final List<String> outputs = new ArrayList<>();
+    private int hidden;
+    private int next;
+    private int lastTook;
+    private boolean written;
+
+    public StreamingAnnotator(String demo, String script, LiteralReplacer reverse, Writer writer, boolean debug,
+            boolean took) {
+        this.demo = demo;
+        this.scriptLines = script.split("\n", -1);
+        this.reverse = reverse;
+        this.writer = writer;
+        this.debug = debug;
+        this.took = took;
+    }
+
+    /**
+     * Annotates the call on the given 1-based line with a result. Results for lines that were already
+     * written, such as a loop going back to an earlier call, are dropped, and end the results of the call
+     * being annotated.
+     */
+    @Override
+    public void accept(int line, String text) throws IOException {
+        if (debug) {
+            OutputCapture.console().println(text);
+        }
+        if (!outputs.isEmpty() && line == next) {
+            if (outputs.size() < MAX_OUTPUTS) {
+                outputs.add(text);
+            } else {
+                hidden++;
+            }
+            return;
+        }
+        flushOutputs();
+        if (line <= next || line > scriptLines.length) {
+            return;
+        }
+        while (next < line - 1) {
+            write(scriptLines[next++].replace(demo, demo + "Copy"));
+        }
+        next++;
+        outputs.add(text);
+    }
+
+    /**
+     * Writes a {@code // Took:} comment above the client call on the given 1-based line, unless it already has
+     * one or was already written.
+     */
+    @Override
+    public void took(int line, String step, long nanos) throws IOException {
+        if (!took || line <= Math.max(next, lastTook) || line > scriptLines.length) {
+            return;
+        }
+        flushOutputs();
+        while (next < line - 1) {
+            write(scriptLines[next++].replace(demo, demo + "Copy"));
+        }
+        String statement = scriptLines[line - 1];
+        String indent = statement.substring(0, statement.length() - statement.replaceAll("^\\s+", "").length());
+        write(indent + "// Took: " + nanos / 1_000_000 + " ms");
+        lastTook = line;
+    }
+
+    /**
+     * Writes the rest of the script once the demo has finished.
+     */
+    public void finish() throws IOException {
+        flushOutputs();
+        while (next < scriptLines.length) {
+            write(scriptLines[next++].replace(demo, demo + "Copy"));
+        }
+        writer.flush();
+    }
+
+    private void flushOutputs() throws IOException {
+        if (outputs.isEmpty()) {
+            return;
+        }
+        if (hidden > 0) {
+            outputs.add("(" + hidden + " more outputs are hidden)");
+        }
+        write(annotate(scriptLines[next - 1].replace(demo, demo + "Copy"), outputs));
+        outputs.clear();
+        hidden = 0;
+    }
+
+    private void write(String line) throws IOException {
+        if (written) {
+            writer.write("\n");
+        }
+        writer.write(reverse.replace(line));
+        written = true;
+    }
+
+    static String annotate(String line, List<String> outputs) {
+        int at = line.indexOf(PRINTLN);
+        String indent = line.substring(0, at < 0 ? line.length() - line.replaceAll("^\\s+", "").length() : at);
+        StringBuilder indented = new StringBuilder();
+        for (String output : outputs) {
+            for (String split : pretty(output).split("\n")) {
+                indented.append(indent + "// " + split + "\n");
+            }
+        }
+        return line + "\n\n" + indent + "// Output:\n" + indented + "\n\n";
+    }
+
+    private static String pretty(String output) {
+        String pretty = output;
+        if (output.trim().startsWith("{") || output.trim().startsWith("[")) {
+            try {
+                pretty = new TruncatingJsonPrinter(10, 4).print(output);
+            } catch (JSONException e) {
+                // not JSON after all, keep the line as printed
+                pretty = output;
+            }
+        }
+        return pretty;
+    }
+}
@@ -0,0 +1,129 @@
+package com.zilliz.docs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Writes the instrumented demo and the result emitter into its module, runs it with
+ * {@code mvn clean compile exec:java} and puts the original source back afterwards. Results come back
+ * through a temporary file named by the {@code runner.results} property; the build log is only kept to
+ * explain a failed run.
+ *
+ * <p>A demo with a {@link CdsArchive} is compiled with Maven but launched with plain {@code java}, so the
+ * archive can be mapped in. A training engine launches every demo that way and dumps a fresh archive after
+ * each successful run.
+ */
+public final class SubprocessEngine implements DemoEngine {
+    private static final int LOG_TAIL = 40;
+
+    private final boolean trainCds;
+
+    public SubprocessEngine() {
+        this(false);
+    }
+
+    /**
+     * @param trainCds Whether every run is a training run for the demo's class archive.
+     */
+    public SubprocessEngine(boolean trainCds) {
+        this.trainCds = trainCds;
+    }
+
+    @Override
+    public void run(String demo, Path moduleDir, String script, ResultSink results)
+            throws IOException, InterruptedException {
+        Path scriptPath = Runner.sourcePath(moduleDir, demo);
+        Path emitterPath = Runner.sourcePath(moduleDir, ResultChannel.EMITTER);
+        Path resultsPath = Files.createTempFile("runner-results", ".bin");
+        byte[] original = Files.readAllBytes(scriptPath);
+        Files.write(scriptPath, script.getBytes(), StandardOpenOption.TRUNCATE_EXISTING);
+        Files.write(emitterPath, ResultChannel.emitterSource().getBytes());
+
+        try {
+            if (trainCds || CdsArchive.exists(moduleDir, demo)) {
+                launch(demo, moduleDir, resultsPath);
+            } else {
+                build(demo, moduleDir, resultsPath);
+            }
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(resultsPath))) {
+                ResultChannel.read(in, results);
+            }
+        } finally {
+            // keep credentials and collection namespaces out of the checked-in source
+            Files.write(scriptPath, original, StandardOpenOption.TRUNCATE_EXISTING);
+            Files.deleteIfExists(emitterPath);
+            Files.deleteIfExists(resultsPath);
+        }
+    }
+
+    private static void build(String demo, Path moduleDir, Path resultsPath) throws IOException, InterruptedException {
+        exec("Demo " + demo, Arrays.asList("mvn", "-f", moduleDir.toString(), "clean", "compile", "exec:java",
+            "-Dexec.mainClass=" + Runner.PACKAGE + "." + demo,
+            "-D" + ResultChannel.PROPERTY + "=" + resultsPath.toAbsolutePath()));
+    }
+
+    private void launch(String demo, Path moduleDir, Path resultsPath) throws IOException, InterruptedException {
+        Path classpathFile = moduleDir.resolve("target").resolve(InProcessEngine.CLASSPATH_FILE);
+        exec("Building " + demo, Arrays.asList("mvn", "-q", "-f", moduleDir.toString(), "clean", "compile",
+            "dependency:build-classpath", "-Dmdep.outputFile=" + classpathFile.toAbsolutePath(),
+            "-Dmdep.includeScope=runtime"));
+        List<String> dependencies = InProcessEngine.classpathEntries(moduleDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(CdsArchive.java());
+        command.addAll(trainCds ? CdsArchive.trainingOptions(demo) : CdsArchive.launchOptions(demo));
+        command.add("-D" + ResultChannel.PROPERTY + "=" + resultsPath.toAbsolutePath());
+        command.add("-cp");
+        command.add(CdsArchive.classpath(dependencies, moduleDir.resolve("target").resolve("classes")));
+        command.add(Runner.PACKAGE + "." + demo);
+        exec("Demo " + demo, command);
+
+        if (trainCds) {
+            CdsArchive.dump(demo, dependencies);
+        }
+    }
+
+    /**
+     * Runs a command to completion, keeping only the end of its output to explain a failure.
+     */
+    static void exec(String what, List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        Process process = processBuilder.start();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        Deque<String> tail = new ArrayDeque<>();
+
+        String line;
+
+        try {
+            while ((line = reader.readLine()) != null) {
+                if (tail.size() == LOG_TAIL) {
+                    tail.removeFirst();
+                }
+                tail.addLast(line);
+            }
+            if (process.waitFor() != 0) {
+                throw new IOException(what + " failed:\n" + String.join("\n", tail));
+            }
+        } finally {
+            process.destroy();
+        }
+    }
+
+    @Override
+    public String name() {
+        return RunTimings.SUBPROCESS;
+    }
+}
@@ -0,0 +1,319 @@
+package com.zilliz.docs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Pretty-prints a JSON line the way {@code org.json}'s {@code toString(4)} does, keeping only the first
+ * {@code maxElements} elements of every array and replacing the rest with an
+ * {@code "(N elements are hidden)"} marker.
+ *
+ * <p>The input is read token by token and written straight out; nothing is built for the elements past the
+ * limit, they are only scanned to count them. The grammar follows {@code org.json}'s lenient tokenizer
+ * (single quotes, unquoted words, empty array slots) and scalars go through {@link JSONObject#stringToValue}
+ * and {@link JSONObject#quote}, so kept values print exactly as before. Object keys keep their input order.
+ */
+public final class TruncatingJsonPrinter {
+    private static final Pattern NUMBER = Pattern.compile("-?(?:0|[1-9]\\d*)(?:\\.\\d+)?(?:[eE][+-]?\\d+)?");
+    private static final String DELIMITERS = ",:]}/\\\"[{;=#";
+
+    private final int maxElements;
+    private final int indentFactor;
+    private String text;
+    private int pos;
+
+    public TruncatingJsonPrinter(int maxElements, int indentFactor) {
+        this.maxElements = maxElements;
+        this.indentFactor = indentFactor;
+    }
+
+    /**
+     * Prints a JSON object or array.
+     * @throws JSONException If the line is not valid JSON.
+     */
+    public String print(String json) {
+        text = json;
+        pos = 0;
+        char c = nextClean();
+        if (c != '{' && c != '[') {
+            throw error("A JSON text must begin with '{' or '['");
+        }
+        pos--;
+        StringBuilder out = new StringBuilder();
+        value(out, 0);
+        text = null;
+        return out.toString();
+    }
+
+    /**
+     * Writes the next value, or only scans past it when {@code out} is {@code null}.
+     */
+    private void value(StringBuilder out, int indent) {
+        char c = nextClean();
+        if (c == '{') {
+            object(out, indent);
+        } else if (c == '[') {
+            array(out, indent);
+        } else if (c == '"' || c == '\'') {
+            String string = string(c, out != null);
+            if (out != null) {
+                out.append(JSONObject.quote(string));
+            }
+        } else {
+            scalar(c, out);
+        }
+    }
+
+    private void object(StringBuilder out, int indent) {
+        List<StringBuilder> entries = out == null ? null : new ArrayList<StringBuilder>();
+        while (true) {
+            char c = nextClean();
+            if (c == 0) {
+                throw error("A JSONObject text must end with '}'");
+            }
+            if (c == '}') {
+                break;
+            }
+            String key = c == '"' || c == '\'' ? string(c, out != null) : word(c, out != null);
+            if (nextClean() != ':') {
+                throw error("Expected a ':' after a key");
+            }
+            StringBuilder entry = null;
+            if (out != null) {
+                entry = new StringBuilder(JSONObject.quote(key)).append(indentFactor > 0 ? ": " : ":");
+                entries.add(entry);
+            }
+            value(entry, indent + indentFactor);
+
+            c = nextClean();
+            if (c == ',' || c == ';') {
+                c = nextClean();
+                if (c == '}') {
+                    break;
+                }
+                if (c == 0) {
+                    throw error("A JSONObject text must end with '}'");
+                }
+                pos--;
+            } else if (c != '}') {
+                throw error("Expected a ',' or '}'");
+            } else {
+                break;
+            }
+        }
+        if (out != null) {
+            close(out, '{', entries, '}', indent);
+        }
+    }
+
+    private void array(StringBuilder out, int indent) {
+        List<StringBuilder> elements = out == null ? null : new ArrayList<StringBuilder>();
+        int count = 0;
+        char c = nextClean();
+        if (c == 0) {
+            throw error("Expected a ',' or ']'");
+        }
+        if (c != ']') {
+            pos--;
+            while (true) {
+                StringBuilder element = null;
+                if (out != null && count < maxElements) {
+                    element = new StringBuilder();
+                    elements.add(element);
+                }
+                count++;
+                if (nextClean() == ',') {
+                    pos--;
+                    if (element != null) {
+                        element.append("null");
+                    }
+                } else {
+                    pos--;
+                    value(element, indent + indentFactor);
+                }
+
+                c = nextClean();
+                if (c == ',') {
+                    c = nextClean();
+                    if (c == 0) {
+                        throw error("Expected a ',' or ']'");
+                    }
+                    if (c == ']') {
+                        break;
+                    }
+                    pos--;
+                } else if (c == ']') {
+                    break;
+                } else {
+                    throw error("Expected a ',' or ']'");
+                }
+            }
+        }
+        if (out != null) {
+            if (count > maxElements) {
+                elements.add(new StringBuilder(JSONObject.quote("(" + (count - maxElements)
+                    + " elements are hidden)")));
+            }
+            close(out, '[', elements, ']', indent);
+        }
+    }
+
+    /**
+     * Lays out the members of an object or array: a single member stays on the opening line, more go one per
+     * line. Members were rendered one level deeper, so a single member is shifted back.
+     */
+    private void close(StringBuilder out, char open, List<StringBuilder> members, char end, int indent) {
+        out.append(open);
+        if (members.size() == 1) {
+            StringBuilder member = members.get(0);
+            for (int i = 0; i < member.length(); i++) {
+                out.append(member.charAt(i));
+                if (member.charAt(i) == '\n') {
+                    i += indentFactor;
+                }
+            }
+        } else if (!members.isEmpty()) {
+            for (int i = 0; i < members.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                if (indentFactor > 0) {
+                    out.append('\n');
+                }
+                indent(out, indent + indentFactor);
+                out.append(members.get(i));
+            }
+            if (indentFactor > 0) {
+                out.append('\n');
+            }
+            indent(out, indent);
+        }
+        out.append(end);
+    }
+
+    private void scalar(char first, StringBuilder out) {
+        String word = word(first, out != null);
+        if (out == null) {
+            return;
+        }
+        Object value = JSONObject.stringToValue(word);
+        if (value instanceof Number) {
+            String number = JSONObject.numberToString((Number) value);
+            out.append(NUMBER.matcher(number).matches() ? number : JSONObject.quote(number));
+        } else if (value instanceof String) {
+            out.append(JSONObject.quote((String) value));
+        } else {
+            out.append(value);
+        }
+    }
+
+    /**
+     * Reads an unquoted word up to the next delimiter, returning {@code null} when it is only skipped.
+     */
+    private String word(char first, boolean keep) {
+        int start = pos - 1;
+        char c = first;
+        while (c >= ' ' && DELIMITERS.indexOf(c) < 0) {
+            c = next();
+        }
+        pos--;
+        if (pos == start) {
+            throw error("Missing value");
+        }
+        return keep ? text.substring(start, pos).trim() : null;
+    }
+
+    /**
+     * Reads a quoted string with the same escapes as {@code org.json}, returning {@code null} when it is only
+     * skipped.
+     */
+    private String string(char quote, boolean keep) {
+        StringBuilder sb = keep ? new StringBuilder() : null;
+        while (true) {
+            char c = next();
+            switch (c) {
+                case 0:
+                case '\n':
+                case '\r':
+                    throw error("Unterminated string");
+                case '\\':
+                    c = escape(next());
+                    break;
+                default:
+                    if (c == quote) {
+                        return keep ? sb.toString() : null;
+                    }
+            }
+            if (keep) {
+                sb.append(c);
+            }
+        }
+    }
+
+    private char escape(char c) {
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case 'u':
+                if (pos + 4 > text.length()) {
+                    throw error("Substring bounds error");
+                }
+                try {
+                    char u = (char) Integer.parseInt(text.substring(pos, pos + 4), 16);
+                    pos += 4;
+                    return u;
+                } catch (NumberFormatException e) {
+                    throw error("Illegal escape.");
+                }
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw error("Illegal escape.");
+        }
+    }
+
+    /**
+     * Returns the next character, or 0 past the end. Stepping back is always {@code pos--}.
+     */
+    private char next() {
+        if (pos >= text.length()) {
+            pos++;
+            return 0;
+        }
+        return text.charAt(pos++);
+    }
+
+    private char nextClean() {
+        while (true) {
+            char c = next();
+            if (c == 0 || c > ' ') {
+                return c;
+            }
+        }
+    }
+
+    private void indent(StringBuilder out, int indent) {
+        for (int i = 0; i < indent; i++) {
+            out.append(' ');
+        }
+    }
+
+    private JSONException error(String message) {
+        return new JSONException(message + " at " + pos);
+    }
+}
@@ -0,0 +1,33 @@
+package com.zilliz.docs;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the in-memory compile path.
+ */
+class InProcessEngineTest {
+    @Test
+    void compilesAndLoadsInMemory() throws Exception {
+        String source = "package com.zilliz.docs;\n"
+            + "public final class HelloDemo {\n"
+            + "    public static String greet() { return \"hello\"; }\n"
+            + "}\n";
+
+        Map<String, byte[]> classes = InProcessEngine.compile(
+            Collections.singletonMap("com.zilliz.docs.HelloDemo", source), Collections.emptyList());
+        assertTrue(classes.containsKey("com.zilliz.docs.HelloDemo"));
+
+        try (InProcessEngine.MemoryClassLoader loader = new InProcessEngine.MemoryClassLoader(
+                Collections.emptyList(), classes)) {
+            Method greet = loader.loadClass("com.zilliz.docs.HelloDemo").getMethod("greet");
+            assertEquals("hello", greet.invoke(null));
+        }
+    }
+}
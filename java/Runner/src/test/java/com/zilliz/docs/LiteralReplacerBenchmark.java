@@ -0,0 +1,78 @@
+package com.zilliz.docs;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares the per-key {@code replaceAll} loop the Runner used to apply env files with
+ * {@link LiteralReplacer}, forward and back, on the UseCustomizedSchemaDemo source.
+ *
+ * <p>Run from {@code java/Runner} after {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes com.zilliz.docs.LiteralReplacerBenchmark}
+ */
+public final class LiteralReplacerBenchmark {
+    private static final int ROUNDS = 2000;
+
+    private LiteralReplacerBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path path = Paths.get(args.length > 0 ? args[0]
+            : "../UseCustomizedSchemaDemo/src/main/java/com/zilliz/docs/UseCustomizedSchemaDemo.java");
+        String source = new String(Files.readAllBytes(path));
+
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("YOUR_CLUSTER_ENDPOINT", "https://in01-0123456789abcdef.api.gcp-us-west1.zillizcloud.com:443");
+        env.put("YOUR_CLUSTER_TOKEN", "db_admin:Zilliz+Cloud.Token");
+        env.put("YOUR_USER_NAME", "db_admin");
+        env.put("YOUR_PASSWORD", "p4ss.word?");
+        env.put("YOUR_API_KEY", "0123456789abcdef0123456789abcdef");
+        env.put("YOUR_PROJECT_ID", "proj-0123456789abcdef");
+        env.put("YOUR_BUCKET_NAME", "zilliz-docs-bucket");
+        env.put("YOUR_CLOUD_REGION", "gcp-us-west1");
+
+        Map<String, String> reverse = new HashMap<>();
+        for (Map.Entry<String, String> e : env.entrySet()) {
+            reverse.put(e.getValue(), e.getKey());
+        }
+
+        String regexResult = "";
+        String literalResult = "";
+        // built once per env file, as the Runner does
+        LiteralReplacer forward = new LiteralReplacer(env);
+        LiteralReplacer backward = new LiteralReplacer(reverse);
+
+        for (int warmup = 0; warmup < 5; warmup++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                String script = source;
+                for (Map.Entry<String, String> e : env.entrySet()) {
+                    script = script.replaceAll(e.getKey(), e.getValue());
+                }
+                for (Map.Entry<String, String> e : env.entrySet()) {
+                    script = script.replaceAll(e.getValue(), e.getKey());
+                }
+                regexResult = script;
+            }
+            long regexNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                literalResult = backward.replace(forward.replace(source));
+            }
+            long literalNanos = System.nanoTime() - start;
+
+            if (warmup == 4) {
+                System.out.printf("%d lines, %d keys, %d rounds%n", source.split("\n").length, env.size(), ROUNDS);
+                System.out.printf("replaceAll loop:   %8.1f us/round, round trip intact: %b%n",
+                    regexNanos / 1000.0 / ROUNDS, regexResult.equals(source));
+                System.out.printf("LiteralReplacer:   %8.1f us/round, round trip intact: %b%n",
+                    literalNanos / 1000.0 / ROUNDS, literalResult.equals(source));
+            }
+        }
+    }
+}
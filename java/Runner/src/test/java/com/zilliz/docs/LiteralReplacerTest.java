@@ -0,0 +1,107 @@
+package com.zilliz.docs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for the single-pass literal replacer.
+ */
+class LiteralReplacerTest {
+    @Test
+    void roundTripsValuesWithRegexMetacharacters() {
+        Map<String, String> forward = new HashMap<>();
+        forward.put("YOUR_CLUSTER_ENDPOINT", "https://in01-abc.zillizcloud.com:443?x=1");
+        forward.put("YOUR_CLUSTER_TOKEN", "db_admin:a+b.c$1");
+        Map<String, String> reverse = new HashMap<>();
+        for (Map.Entry<String, String> e : forward.entrySet()) {
+            reverse.put(e.getValue(), e.getKey());
+        }
+
+        String source = "uri = \"YOUR_CLUSTER_ENDPOINT\"; token = \"YOUR_CLUSTER_TOKEN\";";
+        String replaced = new LiteralReplacer(forward).replace(source);
+
+        assertEquals("uri = \"https://in01-abc.zillizcloud.com:443?x=1\"; token = \"db_admin:a+b.c$1\";", replaced);
+        assertEquals(source, new LiteralReplacer(reverse).replace(replaced));
+    }
+
+    @Test
+    void prefersLeftmostLongestMatch() {
+        Map<String, String> map = new HashMap<>();
+        map.put("abc", "1");
+        map.put("abcd", "2");
+        map.put("bcde", "3");
+        map.put("e", "4");
+
+        assertEquals("2" + "4" + "x", new LiteralReplacer(map).replace("abcdex"));
+        assertEquals("x1y", new LiteralReplacer(map).replace("xabcy"));
+        assertEquals("x3y", new LiteralReplacer(map).replace("xbcdey"));
+    }
+
+    @Test
+    void findsMatchesInsideALongerPartialMatch() {
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("db_admin", "YOUR_USER");
+        credentials.put("db_admin:db_admin!", "YOUR_TOKEN");
+        Map<String, String> map = new HashMap<>();
+        map.put("ab", "1");
+        map.put("abcabd", "2");
+
+        assertEquals("user=YOUR_USER:YOUR_USER? ",
+            new LiteralReplacer(credentials).replace("user=db_admin:db_admin? "));
+        assertEquals("1c1x", new LiteralReplacer(map).replace("abcabx"));
+        assertEquals("1c1", new LiteralReplacer(map).replace("abcab"));
+        assertEquals("2", new LiteralReplacer(map).replace("abcabd"));
+    }
+
+    @Test
+    void replacesAsLeftmostLongestMatchingDoes() {
+        Random random = new Random(3);
+        for (int run = 0; run < 20_000; run++) {
+            // short keys over a small alphabet, so keys overlap and share prefixes
+            Map<String, String> map = new HashMap<>();
+            int keys = 1 + random.nextInt(5);
+            for (int k = 0; k < keys; k++) {
+                map.put(text(random, 1 + random.nextInt(6)), Integer.toString(k));
+            }
+            String text = text(random, random.nextInt(30));
+
+            assertEquals(naive(map, text), new LiteralReplacer(map).replace(text), map + " on " + text);
+        }
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(3)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Replaces the longest key at each position, moving past it, or one character when none matches.
+     */
+    private static String naive(Map<String, String> map, String text) {
+        StringBuilder result = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            String longest = null;
+            for (String key : map.keySet()) {
+                if (text.startsWith(key, i) && (longest == null || key.length() > longest.length())) {
+                    longest = key;
+                }
+            }
+            if (longest == null) {
+                result.append(text.charAt(i++));
+            } else {
+                result.append(map.get(longest));
+                i += longest.length();
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the cache of Runner results.
+ */
+class ResultCacheTest {
+    @TempDir
+    Path dir;
+
+    private Path module;
+    private Path env;
+    private Path jar;
+    private Path classes;
+    private Path copy;
+    private Path latency;
+
+    @BeforeEach
+    void writeInputs() throws IOException {
+        module = dir.resolve("HelloDemo");
+        write(Runner.sourcePath(module, "HelloDemo"), "class HelloDemo {}");
+        write(module.resolve("pom.xml"), "<project/>");
+        env = write(dir.resolve("env"), "TOKEN=\"t\"");
+        jar = write(dir.resolve("repository/DemoClient.jar"), "jar");
+        classes = dir.resolve("DemoDatasets/classes");
+        write(classes.resolve("com/zilliz/docs/ArticleTable.class"), "table");
+        copy = dir.resolve("HelloDemoCopy.java");
+        latency = dir.resolve("HelloDemoCopy.latency.txt");
+    }
+
+    @Test
+    void reusesTheResultOfTheSameInputs() throws IOException {
+        ResultCache cache = new ResultCache(dir.resolve("cache"), false);
+        String key = key();
+        assertFalse(cache.restore(key, copy, latency));
+
+        store(cache, key, "annotated");
+        Files.delete(copy);
+
+        assertEquals(key, key());
+        assertTrue(cache.restore(key, copy, latency));
+        assertEquals("annotated", read(copy));
+    }
+
+    @Test
+    void missesWhenTheClasspathOrADatasetChanges() throws IOException {
+        String key = key();
+
+        write(jar, "jar, rebuilt");
+        String rebuilt = key();
+        write(classes.resolve("com/zilliz/docs/ArticleTable.class"), "table, changed");
+        String changed = key();
+        Path dataset = write(dir.resolve("articles.json"), "{\"rows\":[]}");
+        String withDataset = key(dataset);
+        write(dataset, "{\"rows\":[{}]}");
+
+        assertNotEquals(key, rebuilt);
+        assertNotEquals(rebuilt, changed);
+        assertNotEquals(changed, withDataset);
+        assertNotEquals(withDataset, key(dataset));
+    }
+
+    @Test
+    void forceRunsAgainAndReplacesTheEntry() throws IOException {
+        String key = key();
+        store(new ResultCache(dir.resolve("cache"), false), key, "first");
+
+        ResultCache forced = new ResultCache(dir.resolve("cache"), true);
+        assertFalse(forced.restore(key, copy, latency));
+        store(forced, key, "second");
+
+        assertTrue(new ResultCache(dir.resolve("cache"), false).restore(key, copy, latency));
+        assertEquals("second", read(copy));
+    }
+
+    @Test
+    void findsTheDatasetFilesADemoReads() {
+        String source = "String data_file = System.getProperty(\"user.dir\") + \"/medium_articles_2020_dpr.json\";\n"
+            + "String books = System.getProperty(\"user.dir\") + \"/books.csv\";\n"
+            + "String again = System.getProperty(\"user.dir\") + \"/books.csv\";\n"
+            + "String uri = \"https://example.com/a.json?x\";";
+
+        assertEquals(Arrays.asList(Paths.get(System.getProperty("user.dir"), "medium_articles_2020_dpr.json"),
+            Paths.get(System.getProperty("user.dir"), "books.csv")), ResultCache.datasetFiles(source));
+    }
+
+    private String key(Path... datasets) throws IOException {
+        List<Path> inputs = new ArrayList<>(Arrays.asList(jar, classes));
+        Collections.addAll(inputs, datasets);
+        return ResultCache.key("HelloDemo", module, env, false, inputs);
+    }
+
+    private void store(ResultCache cache, String key, String annotated) throws IOException {
+        write(copy, annotated);
+        write(latency, "step");
+        Path output = cache.newOutputFile(key);
+        write(output, "2: hello");
+        cache.store(key, copy, latency, output);
+    }
+
+    private static Path write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
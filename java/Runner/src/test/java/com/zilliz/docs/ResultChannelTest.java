@@ -0,0 +1,181 @@
+package com.zilliz.docs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the result side channel.
+ */
+class ResultChannelTest {
+    @Test
+    void instrumentsEveryPrintlnWithItsLine() {
+        String script = "int a = 1;\n"
+            + "System.out.println(a);\n"
+            + "System.out.println( );";
+
+        assertEquals("int a = 1;\n"
+            + "DemoResults.println(2, a);\n"
+            + "DemoResults.println(3);", ResultChannel.instrument(script));
+    }
+
+    @Test
+    void wrapsClientCallsInTimingProbes() {
+        String script = "R<RpcStatus> res = client.createIndex(\n"
+            + "    CreateIndexParam.newBuilder()\n"
+            + "        .withFieldName(\"vector;\") // not the end;\n"
+            + "        .build());\n"
+            + "R<Boolean> has = client.hasCollection(param); client.flush(param);";
+
+        assertEquals("long $started1 = DemoResults.start(); R<RpcStatus> res = client.createIndex(\n"
+            + "    CreateIndexParam.newBuilder()\n"
+            + "        .withFieldName(\"vector;\") // not the end;\n"
+            + "        .build()); DemoResults.took(1, \"createIndex\", $started1);\n"
+            + "long $started2 = DemoResults.start(); R<Boolean> has = client.hasCollection(param);"
+            + " DemoResults.took(5, \"hasCollection\", $started2); client.flush(param);",
+            ResultChannel.instrument(script));
+    }
+
+    @Test
+    void leavesCallsInCommentsAndLiteralsAlone() {
+        String script = "// R<RpcStatus> old = client.dropCollection(\n"
+            + "/* R<Boolean> has = client.hasCollection(param); */\n"
+            + "String hint = \"R<Long> n = client.count(x); System.out.println(n);\";\n"
+            + "R<RpcStatus> res = client.flush(param); // ;\n"
+            + "System.out.println(hint); // System.out.println(res);";
+
+        assertEquals("// R<RpcStatus> old = client.dropCollection(\n"
+            + "/* R<Boolean> has = client.hasCollection(param); */\n"
+            + "String hint = \"R<Long> n = client.count(x); System.out.println(n);\";\n"
+            + "long $started1 = DemoResults.start(); R<RpcStatus> res = client.flush(param);"
+            + " DemoResults.took(4, \"flush\", $started1); // ;\n"
+            + "DemoResults.println(5, hint); // System.out.println(res);", ResultChannel.instrument(script));
+    }
+
+    @Test
+    void tracksTheClientsADemoCreates() {
+        String script = "MilvusServiceClient client = new MilvusServiceClient(connect(\"uri)\"));\n"
+            + "// new MilvusServiceClient(param);\n"
+            + "ColumnarMilvusClient columns = new ColumnarMilvusClient(param);";
+
+        assertEquals("MilvusServiceClient client = DemoResults.track(new MilvusServiceClient(connect(\"uri)\")));\n"
+            + "// new MilvusServiceClient(param);\n"
+            + "ColumnarMilvusClient columns = DemoResults.track(new ColumnarMilvusClient(param));",
+            ResultChannel.instrument(script));
+    }
+
+    @Test
+    void closesTheClientsADemoLeftOpen() throws Exception {
+        String source = "package com.zilliz.docs;\n"
+            + "public final class LeakyDemo {\n"
+            + "    public static final class FakeMilvusClient {\n"
+            + "        public static int closed;\n"
+            + "        public void close() {\n"
+            + "            closed++;\n"
+            + "        }\n"
+            + "    }\n"
+            + "    public static void main(String[] args) {\n"
+            + "        FakeMilvusClient client = new FakeMilvusClient();\n"
+            + "    }\n"
+            + "}\n";
+        Map<String, String> sources = new HashMap<>();
+        sources.put("com.zilliz.docs.LeakyDemo", ResultChannel.instrument(source));
+        sources.put("com.zilliz.docs.DemoResults", ResultChannel.emitterSource());
+
+        Map<String, byte[]> classes = InProcessEngine.compile(sources, Collections.emptyList());
+        try (InProcessEngine.MemoryClassLoader loader = new InProcessEngine.MemoryClassLoader(
+                Collections.emptyList(), classes)) {
+            loader.loadClass("com.zilliz.docs.LeakyDemo").getMethod("main", String[].class)
+                .invoke(null, (Object) new String[0]);
+            ResultChannel.closeClients(loader);
+            ResultChannel.closeClients(loader);
+
+            assertEquals(1, loader.loadClass("com.zilliz.docs.LeakyDemo$FakeMilvusClient").getField("closed")
+                .get(null));
+        }
+    }
+
+    @Test
+    void timesNestedCallsApart() throws Exception {
+        String source = "package com.zilliz.docs;\n"
+            + "public final class NestedDemo {\n"
+            + "    static final class R<T> {\n"
+            + "    }\n"
+            + "    R<Long> outer(java.util.function.Supplier<Long> inner) throws Exception {\n"
+            + "        Thread.sleep(50);\n"
+            + "        inner.get();\n"
+            + "        return new R<>();\n"
+            + "    }\n"
+            + "    R<Long> inner() {\n"
+            + "        return new R<>();\n"
+            + "    }\n"
+            + "    public static void main(String[] args) throws Exception {\n"
+            + "        NestedDemo client = new NestedDemo();\n"
+            + "        R<Long> a = client.outer(() -> {\n"
+            + "            R<Long> b = client.inner();\n"
+            + "            return 1L;\n"
+            + "        });\n"
+            + "    }\n"
+            + "}\n";
+        Map<String, String> sources = new HashMap<>();
+        sources.put("com.zilliz.docs.NestedDemo", ResultChannel.instrument(source));
+        sources.put("com.zilliz.docs.DemoResults", ResultChannel.emitterSource());
+
+        Map<String, Long> took = new HashMap<>();
+        Map<String, byte[]> classes = InProcessEngine.compile(sources, Collections.emptyList());
+        try (InProcessEngine.MemoryClassLoader loader = new InProcessEngine.MemoryClassLoader(
+                Collections.emptyList(), classes)) {
+            ResultChannel.connect(loader, new DemoEngine.ResultSink() {
+                @Override
+                public void accept(int line, String text) {
+                }
+
+                @Override
+                public void took(int line, String step, long nanos) {
+                    took.put(line + ":" + step, nanos);
+                }
+            });
+            loader.loadClass("com.zilliz.docs.NestedDemo").getMethod("main", String[].class)
+                .invoke(null, (Object) new String[0]);
+        }
+
+        assertEquals(2, took.size(), took.toString());
+        assertTrue(took.get("15:outer") >= 50_000_000L, took.toString());
+        assertTrue(took.get("16:inner") < took.get("15:outer"), took.toString());
+    }
+
+    @Test
+    void reportsResultsTaggedWithTheirLine() throws Exception {
+        String source = "package com.zilliz.docs;\n"
+            + "public final class HelloDemo {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        for (int i = 0; i < 3; i++) {\n"
+            + "            System.out.println(\"hello \" + i);\n"
+            + "        }\n"
+            + "        System.out.println();\n"
+            + "    }\n"
+            + "}\n";
+        Map<String, String> sources = new HashMap<>();
+        sources.put("com.zilliz.docs.HelloDemo", ResultChannel.instrument(source));
+        sources.put("com.zilliz.docs.DemoResults", ResultChannel.emitterSource());
+
+        List<String> results = new ArrayList<>();
+        Map<String, byte[]> classes = InProcessEngine.compile(sources, Collections.emptyList());
+        try (InProcessEngine.MemoryClassLoader loader = new InProcessEngine.MemoryClassLoader(
+                Collections.emptyList(), classes)) {
+            ResultChannel.connect(loader, (line, text) -> results.add(line + ":" + text));
+            loader.loadClass("com.zilliz.docs.HelloDemo").getMethod("main", String[].class)
+                .invoke(null, (Object) new String[0]);
+        }
+
+        assertEquals(Arrays.asList("5:hello 0", "5:hello 1", "5:hello 2", "7:"), results);
+    }
+}
@@ -0,0 +1,35 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the token that guards the Runner daemon.
+ */
+class RunnerDaemonTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesANewTokenOnlyItsOwnerCanRead() throws IOException {
+        Path file = dir.resolve(".runner-daemon").resolve("7099.token");
+
+        String first = RunnerDaemon.writeToken(file);
+        String second = RunnerDaemon.writeToken(file);
+
+        assertTrue(first.matches("[0-9a-f]{64}"), first);
+        assertNotEquals(first, second);
+        assertEquals(second, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.zilliz.docs;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for writing the annotated copy of a demo as its results arrive.
+ */
+class StreamingAnnotatorTest {
+    private final StringWriter copy = new StringWriter();
+
+    @Test
+    void collectsEveryIterationOfALoopWithOneCall() throws IOException {
+        StreamingAnnotator annotator = annotator("for (int i = 0; i < 3; i++) {\n"
+            + "    System.out.println(i);\n"
+            + "}");
+
+        annotator.accept(2, "0");
+        annotator.accept(2, "1");
+        annotator.accept(2, "2");
+        annotator.finish();
+
+        assertEquals("for (int i = 0; i < 3; i++) {\n"
+            + "    System.out.println(i);\n\n"
+            + "    // Output:\n"
+            + "    // 0\n"
+            + "    // 1\n"
+            + "    // 2\n\n\n\n"
+            + "}", copy.toString());
+    }
+
+    @Test
+    void keepsTheFirstIterationOfEachCallInALoopWithSeveral() throws IOException {
+        StreamingAnnotator annotator = annotator("for (int i = 0; i < 2; i++) {\n"
+            + "    System.out.println(\"a\" + i);\n"
+            + "    System.out.println(\"b\" + i);\n"
+            + "}");
+
+        annotator.accept(2, "a0");
+        annotator.accept(3, "b0");
+        annotator.accept(2, "a1");
+        annotator.accept(3, "b1");
+        annotator.finish();
+
+        assertEquals("for (int i = 0; i < 2; i++) {\n"
+            + "    System.out.println(\"a\" + i);\n\n"
+            + "    // Output:\n"
+            + "    // a0\n\n\n\n"
+            + "    System.out.println(\"b\" + i);\n\n"
+            + "    // Output:\n"
+            + "    // b0\n\n\n\n"
+            + "}", copy.toString());
+    }
+
+    @Test
+    void dropsResultsOfLinesAlreadyWritten() throws IOException {
+        StreamingAnnotator annotator = annotator("System.out.println(1);\n"
+            + "int x = 2;\n"
+            + "System.out.println(x);");
+
+        annotator.accept(3, "2");
+        annotator.accept(1, "1");
+        annotator.accept(4, "past the end");
+        annotator.finish();
+
+        assertEquals("System.out.println(1);\n"
+            + "int x = 2;\n"
+            + "System.out.println(x);\n\n"
+            + "// Output:\n"
+            + "// 2\n\n\n", copy.toString());
+    }
+
+    private StreamingAnnotator annotator(String script) {
+        return new StreamingAnnotator("HelloDemo", script, new LiteralReplacer(Collections.emptyMap()), copy,
+            false, false);
+    }
+}
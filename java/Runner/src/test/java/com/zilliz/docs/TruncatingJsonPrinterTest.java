@@ -0,0 +1,39 @@
+package com.zilliz.docs;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the truncating JSON printer.
+ */
+class TruncatingJsonPrinterTest {
+    @Test
+    void hidesElementsPastTheLimit() {
+        String printed = new TruncatingJsonPrinter(3, 4).print("{\"vector\": [0.10, 0.2, -0.0, 4, 5], \"id\": 7}");
+
+        assertEquals("{\n"
+            + "    \"vector\": [\n"
+            + "        0.1,\n"
+            + "        0.2,\n"
+            + "        -0,\n"
+            + "        \"(2 elements are hidden)\"\n"
+            + "    ],\n"
+            + "    \"id\": 7\n"
+            + "}", printed);
+    }
+
+    @Test
+    void keepsSingleMembersOnTheOpeningLine() {
+        assertEquals("{\"ids\": [\n    1,\n    2\n]}", new TruncatingJsonPrinter(10, 4).print("{\"ids\": [1, 2]}"));
+        assertEquals("[{\"a\": 'b'}]".replace('\'', '"'), new TruncatingJsonPrinter(10, 4).print("[{'a': 'b'}]"));
+    }
+
+    @Test
+    void rejectsBrokenJson() {
+        assertThrows(JSONException.class, () -> new TruncatingJsonPrinter(10, 4).print("{\"a\" 1}"));
+        assertThrows(JSONException.class, () -> new TruncatingJsonPrinter(10, 4).print("[1, 2"));
+    }
+}
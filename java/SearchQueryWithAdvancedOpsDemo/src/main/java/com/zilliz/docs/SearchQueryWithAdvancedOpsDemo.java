@@ -22,19 +22,20 @@ import io.milvus.grpc.GetLoadingProgressResponse;
 import io.milvus.param.collection.GetLoadingProgressParam;
 
 import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Hello world!
  */
 public final class SearchQueryWithAdvancedOpsDemo {
+    // Seeded, so that every run tags the articles the same way
+    private static final SyntheticArticles TAGS = new SyntheticArticles(42, 0);
+
     private SearchQueryWithAdvancedOpsDemo() {
     }
 
@@ -122,7 +123,7 @@ public final class SearchQueryWithAdvancedOpsDemo {
 
         // Create index
 
-        String content;
+        List<Article> dataset;
 
         CreateIndexParam createIndexParam = CreateIndexParam.newBuilder()
             .withCollectionName(collectionName)
@@ -184,7 +185,9 @@ public final class SearchQueryWithAdvancedOpsDemo {
         // 4. Read a local file
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            // Only decode the fields getRows uses
+            dataset = DatasetReader.readArticles(file, 5979, "title", "link", "publication", "reading_time",
+                "claps", "responses", "title_vector");
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
@@ -199,20 +202,18 @@ public final class SearchQueryWithAdvancedOpsDemo {
 
 
 
-        // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-
         // In addition to the original data, we also need to add some tags fields.
         // The tags fields are used to demonstrate the use of the advanced expressions.
         // For details, examine the getRows function
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 5979);        
+        List<JSONObject> rows = getRows(dataset, 5979);        
 
         InsertParam insertParam = InsertParam.newBuilder()
             .withCollectionName(collectionName)
             .withRows(rows)
             .build();
 
-        R<MutationResult> insertResponse = client.insert(insertParam);
+        // Insert in batches of up to 4 MB with 4 batches in flight, rather than all rows in one request
+        R<MutationResult> insertResponse = new BulkInserter(client, 4 << 20, 4).insert(insertParam);
 
         if (insertResponse.getStatus() != R.Status.Success.getCode()) {
             System.err.println(insertResponse.getMessage());
@@ -229,13 +230,42 @@ public final class SearchQueryWithAdvancedOpsDemo {
 
 
 
-        // Wait for a while
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
+        // To load test with more rows than the dataset has, run with -Dsynthetic.rows=1000000.
+        // The rows are generated in parallel from a fixed seed, the next batch while the current one is inserted.
+        long syntheticRows = Long.getLong("synthetic.rows", 0);
+        long[] syntheticInserted = {0};
+        if (syntheticRows > 0) {
+            SyntheticArticles synthetic = new SyntheticArticles(42, 768);
+            try {
+                synthetic.generate(syntheticRows, 5000, Runtime.getRuntime().availableProcessors(), batch -> {
+                    InsertParam syntheticInsert = InsertParam.newBuilder()
+                        .withCollectionName(collectionName)
+                        .withRows(batch.rows("title", "title_vector", "article_meta"))
+                        .build();
+
+                    R<MutationResult> syntheticResponse = client.insert(syntheticInsert);
+
+                    // Throwing stops the generator, so no batch is inserted after a failed one
+                    if (syntheticResponse.getStatus() != R.Status.Success.getCode()) {
+                        throw new IllegalStateException(syntheticResponse.getMessage());
+                    }
+
+                    syntheticInserted[0] += new MutationResultWrapper(syntheticResponse.getData()).getInsertCount();
+                });
+            } catch (IllegalStateException e) {
+                System.err.println(e.getMessage());
+                return;
+            }
+
+            System.out.println("Successfully insert synthetic entities: " + syntheticInserted[0]);
+        }
+
+        // Wait until the inserted entities are visible to a search, rather than for a fixed time
+        R<RpcStatus> readyResponse = new CollectionReadiness(client, 60, TimeUnit.SECONDS)
+            .awaitSearchable(collectionName, mutationResultWrapper.getInsertCount() + syntheticInserted[0]);
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
         }
 
         // 5. Count the entities using the 'count(*)' field
@@ -546,22 +576,22 @@ public final class SearchQueryWithAdvancedOpsDemo {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
+    public static List<JSONObject> getRows(List<Article> dataset, int counts) {
         List<JSONObject> rows = new ArrayList<JSONObject>();
         for (int i = 0; i < counts; i++) {
             JSONObject json_row = new JSONObject(1, true);
             JSONObject article_meta = new JSONObject(1, true);
-            JSONObject original_row = dataset.getJSONObject(i);
+            Article article = dataset.get(i);
 
-            String title = original_row.getString("title");
-            String link = original_row.getString("link");
-            String publication = original_row.getString("publication");
-            Long reading_time = original_row.getLong("reading_time");
-            Long claps = original_row.getLong("claps");
-            Long responses = original_row.getLong("responses");
-            List<Float> vectors = original_row.getJSONArray("title_vector").toJavaList(Float.class);
-            int[] tags_1 = randomIntArray(40, 40);
-            List<int[]> tags_2 = randomMatrix(10, 4, 40);
+            String title = article.getTitle();
+            String link = article.getLink();
+            String publication = article.getPublication();
+            Long reading_time = article.getReadingTime();
+            Long claps = article.getClaps();
+            Long responses = article.getResponses();
+            List<Float> vectors = article.getTitleVector();
+            int[] tags_1 = TAGS.tags1(i);
+            List<int[]> tags_2 = TAGS.tags2(i);
 
 
             article_meta.put("link", link);
@@ -579,23 +609,4 @@ public final class SearchQueryWithAdvancedOpsDemo {
         }
         return rows;
     }
-
-    private static int[] randomIntArray(int length, int max) {
-        Random rand = new Random();
-        int[] arr = new int[length];
-        for (int i = 0; i < length; i++) {
-            arr[i] = rand.nextInt(max);
-        }
-
-        return arr;
-    }
-
-    private static List<int[]> randomMatrix(int dim, int length, int max) {
-        List<int[]> matrix = new ArrayList<>();
-        for (int i = 0; i < dim; i++) {
-            matrix.add(randomIntArray(length, max));
-        }
-
-        return matrix;
-    }
 }
\ No newline at end of file
@@ -20,14 +20,12 @@ import io.milvus.response.SearchResultsWrapper;
 import io.milvus.common.clientenum.ConsistencyLevelEnum;
 import io.milvus.param.collection.LoadCollectionParam;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Hello world!
@@ -193,12 +191,12 @@ public final class UpsertEntitiesDemo {
 
         // 6. Upsert vectors
 
-        String content;
+        ArticleTable dataset;
 
         // read a local file
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            dataset = ArticleTable.load(file, 100);
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
@@ -214,11 +212,10 @@ public final class UpsertEntitiesDemo {
 
 
         // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 100);
+        List<JSONObject> rows = getRows(dataset, 100);
         
         // Also, you can get fields from dataset and insert them
-        // List<Field> fields = getFields(dataset.getJSONArray("rows"), 100);
+        // List<Field> fields = getFields(dataset, 100);
 
         UpsertParam upsertParam = UpsertParam.newBuilder()
             .withCollectionName(collectionName)
@@ -226,7 +223,8 @@ public final class UpsertEntitiesDemo {
             // .withFields(fields)
             .build();
 
-        R<MutationResult> upsertResponse = client.upsert(upsertParam);
+        // Upsert in batches of up to 4 MB with 4 batches in flight
+        R<MutationResult> upsertResponse = new BulkInserter(client, 4 << 20, 4).upsert(upsertParam);
 
         if (upsertResponse.getStatus() != R.Status.Success.getCode()) {
             System.err.println(upsertResponse.getMessage());
@@ -244,14 +242,13 @@ public final class UpsertEntitiesDemo {
 
 
         
-        // wait for a while
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
-        } 
+        // Wait until the inserted entities are visible to a search, rather than for a fixed time
+        R<RpcStatus> readyResponse = new CollectionReadiness(client, 60, TimeUnit.SECONDS)
+            .awaitSearchable(collectionName, mutationResultWrapper.getInsertCount());
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
+        }
 
         // 7. Search vectors
 
@@ -365,53 +362,23 @@ public final class UpsertEntitiesDemo {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
-        List<JSONObject> rows = new ArrayList<JSONObject>();
-        for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            List<Float> vectors = row.getJSONArray("title_vector").toJavaList(Float.class);
-            Long id = row.getLong("id");
-            Long reading_time = row.getLong("reading_time");
-            Long claps = row.getLong("claps");
-            Long responses = row.getLong("responses");
-            row.put("id", id);
-            row.put("title_vector", vectors);
-            row.put("reading_time", reading_time);
-            row.put("claps", claps);
-            row.put("responses", responses);
-            rows.add(row);
-        }
-        return rows;
+    public static List<JSONObject> getRows(ArticleTable dataset, int counts) {
+        // each row is made from the table's columns when the SDK reads it
+        return dataset.rows(counts, "id", "title", "link", "reading_time", "publication", "claps",
+            "responses", "title_vector");
     }
 
-    public static List<Field> getFields(JSONArray dataset, int counts) {
+    public static List<Field> getFields(ArticleTable dataset, int counts) {
         List<Field> fields = new ArrayList<Field>();
-        List<String> titles = new ArrayList<String>();
-        List<List<Float>> title_vectors = new ArrayList<List<Float>>();
-        List<String> links = new ArrayList<String>();
-        List<Long> reading_times = new ArrayList<Long>();
-        List<String> publications = new ArrayList<String>();
-        List<Long> claps_list = new ArrayList<Long>();
-        List<Long> responses_list = new ArrayList<Long>();
-
-        for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            titles.add(row.getString("title"));
-            title_vectors.add(row.getJSONArray("title_vector").toJavaList(Float.class));
-            links.add(row.getString("link"));
-            reading_times.add(row.getLong("reading_time"));
-            publications.add(row.getString("publication"));
-            claps_list.add(row.getLong("claps"));
-            responses_list.add(row.getLong("responses"));
-        }
 
-        fields.add(new Field("title", titles));
-        fields.add(new Field("title_vector", title_vectors));
-        fields.add(new Field("link", links));
-        fields.add(new Field("reading_time", reading_times));
-        fields.add(new Field("publication", publications));
-        fields.add(new Field("claps", claps_list));
-        fields.add(new Field("responses", responses_list));
+        fields.add(new Field("id", dataset.column("id", counts)));
+        fields.add(new Field("title", dataset.column("title", counts)));
+        fields.add(new Field("title_vector", dataset.column("title_vector", counts)));
+        fields.add(new Field("link", dataset.column("link", counts)));
+        fields.add(new Field("reading_time", dataset.column("reading_time", counts)));
+        fields.add(new Field("publication", dataset.column("publication", counts)));
+        fields.add(new Field("claps", dataset.column("claps", counts)));
+        fields.add(new Field("responses", dataset.column("responses", counts)));
 
         return fields;        
     }
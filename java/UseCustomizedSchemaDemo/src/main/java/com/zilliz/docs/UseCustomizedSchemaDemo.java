@@ -26,16 +26,14 @@ import io.milvus.common.clientenum.ConsistencyLevelEnum;
 import io.milvus.param.collection.LoadCollectionParam;
 import io.milvus.param.collection.ReleaseCollectionParam;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.lang.reflect.Array;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Hello world!
@@ -200,12 +198,12 @@ public final class UseCustomizedSchemaDemo  {
 
         // 6. Insert vectors
 
-        String content;
+        ArticleTable dataset;
 
         // read a local file
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            dataset = ArticleTable.load(file, 5979);
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
@@ -221,11 +219,10 @@ public final class UseCustomizedSchemaDemo  {
 
 
         // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 5979);
+        List<JSONObject> rows = getRows(dataset, 5979);
         
         // Also, you can get fields from dataset and insert them
-        // List<Field> fields = getFields(dataset.getJSONArray("rows"), 5979);
+        // List<Field> fields = getFields(dataset, 5979);
 
         InsertParam insertParam = InsertParam.newBuilder()
             .withCollectionName(collectionName)
@@ -233,7 +230,8 @@ public final class UseCustomizedSchemaDemo  {
             // .withFields(fields)
             .build();
 
-        R<MutationResult> insertResponse = client.insert(insertParam);
+        // Insert in batches of up to 4 MB with 4 batches in flight, rather than all rows in one request
+        R<MutationResult> insertResponse = new BulkInserter(client, 4 << 20, 4).insert(insertParam);
 
         if (insertResponse.getStatus() != R.Status.Success.getCode()) {
             System.err.println(insertResponse.getMessage());
@@ -251,26 +249,33 @@ public final class UseCustomizedSchemaDemo  {
 
 
         
-        // wait for a while
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(10000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
-        } 
 
         List<String> collectionNames = new ArrayList<>();
         collectionNames.add(collectionName);
 
         FlushParam flushParam = FlushParam.newBuilder()
             .withCollectionNames(collectionNames)
+            // return at once and wait for the flush below
+            .withSyncFlush(false)
             .build();
 
         R<FlushResponse> flushResponse = client.flush(flushParam);
 
         if (flushResponse.getStatus() != R.Status.Success.getCode()) {
             System.err.println(flushResponse.getMessage());
+            return;
+        }
+
+        // Wait until the flushed entities are visible to a search, rather than for a fixed time
+        CollectionReadiness readiness = new CollectionReadiness(client, 60, TimeUnit.SECONDS);
+        R<RpcStatus> readyResponse = readiness.awaitFlushed(flushResponse.getData());
+
+        if (readyResponse.getStatus() == R.Status.Success.getCode()) {
+            readyResponse = readiness.awaitSearchable(collectionName, mutationResultWrapper.getInsertCount());
+        }
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
         }
 
         // 7. Search vectors
@@ -1190,52 +1195,22 @@ public final class UseCustomizedSchemaDemo  {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
-        List<JSONObject> rows = new ArrayList<JSONObject>();
-        for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            List<Float> vectors = row.getJSONArray("title_vector").toJavaList(Float.class);
-            Long reading_time = row.getLong("reading_time");
-            Long claps = row.getLong("claps");
-            Long responses = row.getLong("responses");
-            row.put("title_vector", vectors);
-            row.put("reading_time", reading_time);
-            row.put("claps", claps);
-            row.put("responses", responses);
-            row.remove("id");
-            rows.add(row);
-        }
-        return rows;
+    public static List<JSONObject> getRows(ArticleTable dataset, int counts) {
+        // each row is made from the table's columns when the SDK reads it
+        return dataset.rows(counts, "title", "link", "reading_time", "publication", "claps", "responses",
+            "title_vector");
     }
 
-    public static List<Field> getFields(JSONArray dataset, int counts) {
+    public static List<Field> getFields(ArticleTable dataset, int counts) {
         List<Field> fields = new ArrayList<Field>();
-        List<String> titles = new ArrayList<String>();
-        List<List<Float>> title_vectors = new ArrayList<List<Float>>();
-        List<String> links = new ArrayList<String>();
-        List<Long> reading_times = new ArrayList<Long>();
-        List<String> publications = new ArrayList<String>();
-        List<Long> claps_list = new ArrayList<Long>();
-        List<Long> responses_list = new ArrayList<Long>();
-
-        for (int i = 0; i < counts; i++) {
-            JSONObject row = dataset.getJSONObject(i);
-            titles.add(row.getString("title"));
-            title_vectors.add(row.getJSONArray("title_vector").toJavaList(Float.class));
-            links.add(row.getString("link"));
-            reading_times.add(row.getLong("reading_time"));
-            publications.add(row.getString("publication"));
-            claps_list.add(row.getLong("claps"));
-            responses_list.add(row.getLong("responses"));
-        }
 
-        fields.add(new Field("title", titles));
-        fields.add(new Field("title_vector", title_vectors));
-        fields.add(new Field("link", links));
-        fields.add(new Field("reading_time", reading_times));
-        fields.add(new Field("publication", publications));
-        fields.add(new Field("claps", claps_list));
-        fields.add(new Field("responses", responses_list));
+        fields.add(new Field("title", dataset.column("title", counts)));
+        fields.add(new Field("title_vector", dataset.column("title_vector", counts)));
+        fields.add(new Field("link", dataset.column("link", counts)));
+        fields.add(new Field("reading_time", dataset.column("reading_time", counts)));
+        fields.add(new Field("publication", dataset.column("publication", counts)));
+        fields.add(new Field("claps", dataset.column("claps", counts)));
+        fields.add(new Field("responses", dataset.column("responses", counts)));
 
         return fields;        
     }
@@ -18,14 +18,12 @@ import io.milvus.param.collection.LoadCollectionParam;
 import io.milvus.grpc.GetLoadingProgressResponse;
 import io.milvus.param.collection.GetLoadingProgressParam;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Hello world!
@@ -102,7 +100,7 @@ public final class UseJsonFieldDemo {
             return;
         }
 
-        String content;
+        List<Article> dataset;
 
         CreateIndexParam createIndexParam = CreateIndexParam.newBuilder()
             .withCollectionName(collectionName)
@@ -144,7 +142,9 @@ public final class UseJsonFieldDemo {
         // read a local file
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            // Only decode the fields getRows uses
+            dataset = DatasetReader.readArticles(file, 5979, "title", "link", "publication", "reading_time",
+                "claps", "responses", "title_vector");
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
@@ -160,15 +160,15 @@ public final class UseJsonFieldDemo {
 
 
         // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 5979);        
+        List<JSONObject> rows = getRows(dataset, 5979);        
 
         InsertParam insertParam = InsertParam.newBuilder()
             .withCollectionName(collectionName)
             .withRows(rows)
             .build();
 
-        R<MutationResult> insertResponse = client.insert(insertParam);
+        // Insert in batches of up to 4 MB with 4 batches in flight, rather than all rows in one request
+        R<MutationResult> insertResponse = new BulkInserter(client, 4 << 20, 4).insert(insertParam);
 
         if (insertResponse.getStatus() != R.Status.Success.getCode()) {
             System.err.println(insertResponse.getMessage());
@@ -185,13 +185,12 @@ public final class UseJsonFieldDemo {
 
 
 
-        // wait for a while
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
+        // Wait until the inserted entities are visible to a search, rather than for a fixed time
+        R<RpcStatus> readyResponse = new CollectionReadiness(client, 60, TimeUnit.SECONDS)
+            .awaitSearchable(collectionName, mutationResultWrapper.getInsertCount());
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
         }
 
         // prepare query vector
@@ -310,20 +309,20 @@ public final class UseJsonFieldDemo {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
+    public static List<JSONObject> getRows(List<Article> dataset, int counts) {
         List<JSONObject> rows = new ArrayList<JSONObject>();
         for (int i = 0; i < counts; i++) {
             JSONObject json_row = new JSONObject(1, true);
             JSONObject article_meta = new JSONObject(1, true);
-            JSONObject original_row = dataset.getJSONObject(i);
-
-            String title = original_row.getString("title");
-            String link = original_row.getString("link");
-            String publication = original_row.getString("publication");
-            Long reading_time = original_row.getLong("reading_time");
-            Long claps = original_row.getLong("claps");
-            Long responses = original_row.getLong("responses");
-            List<Float> vectors = original_row.getJSONArray("title_vector").toJavaList(Float.class);
+            Article article = dataset.get(i);
+
+            String title = article.getTitle();
+            String link = article.getLink();
+            String publication = article.getPublication();
+            Long reading_time = article.getReadingTime();
+            Long claps = article.getClaps();
+            Long responses = article.getResponses();
+            List<Float> vectors = article.getTitleVector();
 
             article_meta.put("link", link);
             article_meta.put("publication", publication);
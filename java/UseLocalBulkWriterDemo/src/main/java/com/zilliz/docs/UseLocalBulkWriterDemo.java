@@ -0,0 +1,130 @@
+package com.zilliz.docs;
+
+import io.milvus.param.collection.CreateCollectionParam;
+import io.milvus.param.collection.FieldType;
+import io.milvus.grpc.DataType;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hello world!
+ */
+public final class UseLocalBulkWriterDemo {
+    private UseLocalBulkWriterDemo() {
+    }
+
+    /**
+     * Says hello to the world.
+     * @param args The arguments of the program.
+     */
+    public static void main(String[] args) {
+        String data_file = System.getProperty("user.dir") + "/medium_articles_2020_dpr.json";
+        String output_path = System.getProperty("user.dir") + "/output";
+
+        // 1. Define fields
+
+        // You need to work out a collection schema out of your dataset.
+        FieldType id = FieldType.newBuilder()
+            .withName("id")
+            .withDataType(DataType.Int64)
+            .withPrimaryKey(true)
+            .build();
+
+        FieldType title = FieldType.newBuilder()
+            .withName("title")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(512)
+            .build();
+
+        FieldType title_vector = FieldType.newBuilder()
+            .withName("title_vector")
+            .withDataType(DataType.FloatVector)
+            .withDimension(768)
+            .build();
+
+        FieldType link = FieldType.newBuilder()
+            .withName("link")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(512)
+            .build();
+
+        FieldType reading_time = FieldType.newBuilder()
+            .withName("reading_time")
+            .withDataType(DataType.Int64)
+            .build();
+
+        FieldType publication = FieldType.newBuilder()
+            .withName("publication")
+            .withDataType(DataType.VarChar)
+            .withMaxLength(512)
+            .build();
+
+        FieldType claps = FieldType.newBuilder()
+            .withName("claps")
+            .withDataType(DataType.Int64)
+            .build();
+
+        FieldType responses = FieldType.newBuilder()
+            .withName("responses")
+            .withDataType(DataType.Int64)
+            .build();
+
+        CreateCollectionParam schema = CreateCollectionParam.newBuilder()
+            .withCollectionName("medium_articles")
+            .withDescription("Schema of Medium articles")
+            .addFieldType(id)
+            .addFieldType(title)
+            .addFieldType(title_vector)
+            .addFieldType(link)
+            .addFieldType(reading_time)
+            .addFieldType(publication)
+            .addFieldType(claps)
+            .addFieldType(responses)
+            .build();
+
+        // 2. Rewrite the dataset into JSON files
+
+        // The rows are read one at a time and serialized on every core, so
+        // the dataset is never held in memory as a whole.
+        Path dataPath;
+        List<Path> dataFiles;
+        try (DatasetReader reader = new DatasetReader(Paths.get(data_file));
+                LocalBulkWriter localWriter = new LocalBulkWriter(schema, Paths.get(output_path, "json"),
+                    4 * 1024 * 1024, Runtime.getRuntime().availableProcessors())) {
+            Article article;
+            while ((article = reader.nextArticle()) != null) {
+                localWriter.appendRow(article.toRow());
+            }
+
+            localWriter.commit();
+            dataPath = localWriter.getDataPath();
+            dataFiles = localWriter.getDataFiles();
+        } catch (Exception e) {
+            System.err.println("Failed to write the dataset: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("test local writer done!");
+
+        // Output:
+        // test local writer done!
+
+        System.out.println(Paths.get(System.getProperty("user.dir")).relativize(dataPath));
+
+        // Output:
+        // output/json/09ce63fa-9fd8-4ac6-b915-5e6b0ded2ff5
+
+        // Check what you have in the `output` folder, in the order the files were written
+        List<String> files = new ArrayList<>();
+        for (Path dataFile : dataFiles) {
+            files.add(dataFile.getFileName().toString());
+        }
+        System.out.println(files);
+
+        // Output:
+        // [1.json, 2.json, 3.json, 4.json, 5.json, ...]
+    }
+}
@@ -1,12 +1,10 @@
 package com.zilliz.docs;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.google.common.collect.Lists;
 
@@ -366,21 +364,18 @@ public final class UsePartitionDemo {
         // to the collection. The following snippet reads data from a file and adds
         // it to the collection. 
 
-        String content;
+        List<Article> dataset;
 
         Path file = Path.of(data_file);
         try {
-            content = Files.readString(file);
+            dataset = DatasetReader.readArticles(file, 200);
         } catch (Exception e) {
             System.err.println("Failed to read file: " + e.getMessage());
             return;
         }
 
-        // Load dataset
-        JSONObject dataset = JSON.parseObject(content);
-
         // Change the counts argument to limit the rows.
-        List<JSONObject> rows = getRows(dataset.getJSONArray("rows"), 200);
+        List<JSONObject> rows = getRows(dataset, 200);
 
         InsertParam insertRowsParam2 = InsertParam.newBuilder()
             .withCollectionName(collectionName)
@@ -429,13 +424,13 @@ public final class UsePartitionDemo {
 
 
 
-        try {
-            // pause execution for 5 seconds
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            // handle the exception
-            Thread.currentThread().interrupt();
-        }  
+        // Wait until the inserted entities are visible to a search, rather than for a fixed time
+        R<RpcStatus> readyResponse = new CollectionReadiness(client, 60, TimeUnit.SECONDS)
+            .awaitSearchable(collectionName, insertCount2);
+
+        if (readyResponse.getStatus() != R.Status.Success.getCode()) {
+            System.err.println(readyResponse.getMessage());
+        }
 
         // 10. Conduct a single-vector search
 
@@ -744,20 +739,20 @@ public final class UsePartitionDemo {
 
     }
 
-    public static List<JSONObject> getRows(JSONArray dataset, int counts) {
+    public static List<JSONObject> getRows(List<Article> dataset, int counts) {
         List<JSONObject> rows = new ArrayList<JSONObject>();
         for (int i = 0; i < counts; i++) {
             JSONObject json_row = new JSONObject(1, true);
-            JSONObject original_row = dataset.getJSONObject(i);
+            Article article = dataset.get(i);
             
-            Long id = original_row.getLong("id");
-            String title = original_row.getString("title");
-            String link = original_row.getString("link");
-            String publication = original_row.getString("publication");
-            Long reading_time = original_row.getLong("reading_time");
-            Long claps = original_row.getLong("claps");
-            Long responses = original_row.getLong("responses");
-            List<Float> vectors = original_row.getJSONArray("title_vector").toJavaList(Float.class);
+            Long id = article.getId();
+            String title = article.getTitle();
+            String link = article.getLink();
+            String publication = article.getPublication();
+            Long reading_time = article.getReadingTime();
+            Long claps = article.getClaps();
+            Long responses = article.getResponses();
+            List<Float> vectors = article.getTitleVector();
     
             json_row.put("id", id);
             json_row.put("link", link);